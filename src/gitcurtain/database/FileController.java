@@ -5,6 +5,11 @@ import java.sql.SQLException;
 import java.text.ParseException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
 
 import gitcurtain.utils.Commit;
 
@@ -45,8 +50,35 @@ public class FileController {
      * @param commits Um ArrayList de Commits, que pode conter um nmero varavel dos mesmos.
      */
 	public static void writeCommits(ArrayList<Commit> commits) {
+		writeCommits(connection, commits);
+    }
+	
+    /**
+     * Escreve um conjunto de commits em um banco de dados SQLite especfico.  utilizado quando vrios repositrios so acompanhados ao
+     * mesmo tempo, cada um com o seu prprio banco de dados. Este mtodo  automaticamente gerenciado pelo GitCURTAIN, e no precisa ser
+     * utilizado por sistemas criados por meio deste <i>framework</i>.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param commits Um ArrayList de Commits, que pode conter um nmero varavel dos mesmos.
+     */
+	public static void writeCommits(SQLiteConnection database, ArrayList<Commit> commits) {
+		writeCommits(database, commits, Collections.<String>emptyList(), Collections.<String>emptyList());
+	}
+	
+    /**
+     * Escreve um conjunto de commits em um banco de dados SQLite especfico e atualiza os commits pendentes do mesmo, em uma nica
+     * transao. Os commits pendentes servem como ponto de retomada caso a extrao seja interrompida. Este mtodo  automaticamente
+     * gerenciado pelo GitCURTAIN, e no precisa ser utilizado por sistemas criados por meio deste <i>framework</i>.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param commits Um ArrayList de Commits, que pode conter um nmero varavel dos mesmos.
+     * @param addedPending Os hashes dos commits que passam a ser pendentes.
+     * @param removedPending Os hashes dos commits que deixam de ser pendentes.
+     */
+	public static void writeCommits(SQLiteConnection database, ArrayList<Commit> commits, Collection<String> addedPending,
+			Collection<String> removedPending) {
     	try {
-    		connection.insert(commits);
+    		database.insert(commits, addedPending, removedPending);
     	}
     	catch (SQLException e) {
     		System.out.println("Error during SQL operation. Please try again, and check for potentially invalid commit data in"
@@ -55,6 +87,117 @@ public class FileController {
     	}
     }
     
+    /**
+     * Registra que um conjunto de commits pertence a uma <i>branch</i> acompanhada. Este mtodo  automaticamente gerenciado pelo GitCURTAIN,
+     * e no precisa ser utilizado por sistemas criados por meio deste <i>framework</i>.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param branch O nome da <i>branch</i>.
+     * @param hashes Uma lista de Strings contendo hashes de commits.
+     * @param tip O hash do ltimo commit processado da <i>branch</i>, ou nulo se o mesmo no deve ser atualizado.
+     */
+    public static void writeBranchCommits(SQLiteConnection database, String branch, List<String> hashes, String tip) {
+    	try {
+    		if (!hashes.isEmpty()) {
+    			database.insertBranchCommits(branch, hashes);
+    		}
+    		if (tip != null) {
+    			database.updateBranchTip(branch, tip);
+    		}
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potentially invalid branch data in"
+    				+ " the repository.");
+    		e.printStackTrace();
+    	}
+    }
+    
+    /**
+     * Remove todos os registros de commits de uma <i>branch</i> acompanhada, e o seu ltimo commit processado, para que a associao
+     * seja refeita depois que o histrico da <i>branch</i> foi reescrito. Este mtodo  automaticamente gerenciado pelo GitCURTAIN, e no
+     * precisa ser utilizado por sistemas criados por meio deste <i>framework</i>.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param branch O nome da <i>branch</i>.
+     */
+    public static void removeBranchCommits(SQLiteConnection database, String branch) {
+    	try {
+    		database.removeBranchCommits(branch);
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potentially invalid branch data in"
+    				+ " the repository.");
+    		e.printStackTrace();
+    	}
+    }
+    
+    /**
+     * Obtm os hashes dos commits pendentes de um banco de dados SQLite especfico.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * 
+     * @return Um ArrayList de Strings contendo os hashes dos commits pendentes.
+     */
+    public static ArrayList<String> getPendingCommits(SQLiteConnection database) {
+    	try {
+    		return database.getPendingCommits();
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    		return new ArrayList<String>();
+    	}
+    }
+    
+    /**
+     * Obtm o ltimo commit processado de cada <i>branch</i> acompanhada.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * 
+     * @return Um HashMap que associa o nome de cada <i>branch</i> ao hash do seu ltimo commit processado.
+     */
+    public static HashMap<String, String> getBranchTips(SQLiteConnection database) {
+    	try {
+    		return database.getBranchTips();
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    		return new HashMap<String, String>();
+    	}
+    }
+    
+    /**
+     * Obtm os hashes de todos os commits que pertencem a uma <i>branch</i> acompanhada. Os dados de cada commit podem ser obtidos na lista
+     * de commits do ExtractionController.
+     * 
+     * @param branch O nome da <i>branch</i> (e.g., master, release/1.0).
+     * 
+     * @return Um ArrayList de Strings contendo os hashes dos commits da <i>branch</i>.
+     */
+    public static ArrayList<String> getCommitHashesByBranch(String branch) {
+    	return getCommitHashesByBranch(connection, branch);
+    }
+    
+    /**
+     * Obtm os hashes de todos os commits que pertencem a uma <i>branch</i> acompanhada, em um banco de dados SQLite especfico.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param branch O nome da <i>branch</i> (e.g., master, release/1.0).
+     * 
+     * @return Um ArrayList de Strings contendo os hashes dos commits da <i>branch</i>.
+     */
+    public static ArrayList<String> getCommitHashesByBranch(SQLiteConnection database, String branch) {
+    	try {
+    		return database.getCommitHashesByBranch(branch);
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    		return null;
+    	}
+    }
+    
     /**
      * Remove um conjunto de commits do banco de dados SQLite. A princpio, este mtodo no precisa ser utilizado, mas permite que sistemas
      * criados por meio do GitCURTAIN tenham a capacidade de remover elementos do banco de dados.
@@ -94,13 +237,37 @@ public class FileController {
      * @return Um ArrayList de Commits contendo todos os elementos que atualmente esto no banco de dados.
      */
     public static ArrayList<Commit> getAllCommits() {
+    	return getAllCommits(connection);
+    }
+    
+    /**
+     * Obtm a lista de todos os commits que esto neste momento em um banco de dados SQLite especfico.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * 
+     * @return Um ArrayList de Commits contendo todos os elementos que atualmente esto no banco de dados.
+     */
+    public static ArrayList<Commit> getAllCommits(SQLiteConnection database) {
+    	return getAllCommits(database, true);
+    }
+    
+    /**
+     * Obtm a lista de todos os commits que esto neste momento em um banco de dados SQLite especfico, opcionalmente sem as mensagens,
+     * que podem ser obtidas depois sob demanda pela funo getMessages.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param withMessages Indica se as mensagens dos commits devem ser lidas. Caso contrrio, as mensagens dos commits so nulas.
+     * 
+     * @return Um ArrayList de Commits contendo todos os elementos que atualmente esto no banco de dados.
+     */
+    public static ArrayList<Commit> getAllCommits(SQLiteConnection database, boolean withMessages) {
     	
     	boolean done = false;
     	ArrayList<Commit> commitList = null;
     	
     	while (!done) {
     		try {
-    			commitList = connection.getAllCommits();
+    			commitList = database.getAllCommits(withMessages);
     			done = true;
     		}
     		catch (SQLException e) {
@@ -116,4 +283,68 @@ public class FileController {
         
         return commitList;
     }
+    
+    /**
+     * Percorre todos os commits que esto neste momento em um banco de dados SQLite especfico, entregando cada um assim que  lido, sem
+     * que a lista inteira seja montada. Se ocorre um erro, os commits j entregues no so desfeitos.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param withMessages Indica se as mensagens dos commits devem ser lidas. Caso contrrio, as mensagens dos commits so nulas.
+     * @param consumer A funo que recebe cada commit.
+     * 
+     * @return true se todos os commits foram lidos, ou false se ocorreu um erro.
+     */
+    public static boolean forEachCommit(SQLiteConnection database, boolean withMessages, Consumer<Commit> consumer) {
+    	try {
+    		database.forEachCommit(withMessages, consumer);
+    		return true;
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    	}
+    	catch (ParseException e) {
+    		System.out.println("Unexpected error during parsing. Please check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    	}
+    	
+    	return false;
+    }
+    
+    /**
+     * Obtm o nmero de commits que esto neste momento em um banco de dados SQLite especfico.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * 
+     * @return O nmero de commits, ou zero quando ocorre um erro no banco de dados.
+     */
+    public static int countCommits(SQLiteConnection database) {
+    	try {
+    		return database.countCommits();
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    		return 0;
+    	}
+    }
+    
+    /**
+     * Obtm as mensagens de um conjunto de commits de um banco de dados SQLite especfico.
+     * 
+     * @param database A conexo com o banco de dados, obtida pelo SQLiteConnectionManager.
+     * @param hashes Os hashes dos commits.
+     * 
+     * @return Um HashMap que associa o hash de cada commit encontrado  sua mensagem.  vazio quando ocorre um erro no banco de dados.
+     */
+    public static HashMap<String, String> getMessages(SQLiteConnection database, List<String> hashes) {
+    	try {
+    		return database.getMessages(hashes);
+    	}
+    	catch (SQLException e) {
+    		System.out.println("Error during SQL operation. Please try again, and check for potential corrupted data in the database.");
+    		e.printStackTrace();
+    		return new HashMap<String, String>();
+    	}
+    }
 }
\ No newline at end of file
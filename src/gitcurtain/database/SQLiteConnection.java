@@ -9,14 +9,19 @@ import java.sql.PreparedStatement;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 
-import gitcurtain.exceptions.InvalidEnumIDException;
 import gitcurtain.utils.Commit;
-import gitcurtain.utils.CommitVariables;
+import gitcurtain.utils.PathDictionary;
 
 /**
  * Representa uma conexo com o SGBD SQLite.  um <i>singleton</i> e, portanto, somente pode haver uma cpia do mesmo no sistema.
@@ -31,10 +36,29 @@ import gitcurtain.utils.CommitVariables;
  */
 public class SQLiteConnection {
 
+    /**
+     * O nmero mximo de commits de cada consulta de mensagens, abaixo do limite de parmetros de uma consulta do SQLite.
+     */
+    private static final int MESSAGE_BATCH = 500;
+
     /**
      * Guarda a conexo com o SGBD SQLite.
      */
     private Connection connection;
+    /**
+     * O identificador de cada caminho na tabela de caminhos, indexado pelo identificador do caminho no PathDictionary global. Uma posio
+     * com o valor zero corresponde a um caminho que ainda no est na tabela.  nulo enquanto a tabela no for carregada.
+     */
+    private int[] storedPathIds;
+    /**
+     * O identificador de cada caminho no PathDictionary global, indexado pelo identificador do caminho na tabela de caminhos. 
+     * atualizado junto com o storedPathIds,  medida que novos caminhos so inseridos.
+     */
+    private int[] globalPathIds;
+    /**
+     * O prximo identificador livre da tabela de caminhos.
+     */
+    private int nextStoredPathId;
 
     /**
      * Cria um SQLiteConnection, utilizando o <i>path</i> especificado. A criao desta classe  gerenciada pelo GitCURTAIN e, portanto, no
@@ -59,7 +83,12 @@ public class SQLiteConnection {
     }
     
     /**
-     * Cria a tabela no banco de dados, caso no exista ainda.
+     * Cria as tabelas no banco de dados, caso no existam ainda. Alm da tabela de commits, so criadas a tabela que associa cada commit
+     * s <i>branches</i> acompanhadas que o contm, a tabela com o ltimo commit processado de cada <i>branch</i>, a tabela de commits
+     * pendentes, que guarda o ponto de retomada de uma extrao interrompida, e a tabela com o nmero de linhas adicionadas e removidas
+     * em cada arquivo modificado por um commit. Os arquivos modificados de cada commit so guardados como identificadores da tabela de
+     * caminhos, que guarda cada caminho distinto uma nica vez. Os commits inseridos antes da tabela de caminhos mantm a lista de
+     * caminhos separados por "|" na coluna modifiedFiles.
      * 
      * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
      */
@@ -73,16 +102,52 @@ public class SQLiteConnection {
                 + "    committer text,\n"
                 + "    commitDate text,\n"
                 + "    authoringDate text,\n"
-                + "    modifiedFiles text\n"
+                + "    modifiedFiles text,\n"
+                + "    modifiedFileIds text\n"
                 + ");";
 
     	statement.execute(createSQL);
+    	
+    	ResultSet columns = statement.executeQuery("PRAGMA table_info(commits)");
+    	boolean hasFileIds = false;
+    	while (columns.next()) {
+    		hasFileIds |= "modifiedFileIds".equals(columns.getString("name"));
+    	}
+    	columns.close();
+    	if (!hasFileIds) {
+    		statement.execute("ALTER TABLE commits ADD COLUMN modifiedFileIds text");
+    	}
+    	
+    	statement.execute("CREATE TABLE IF NOT EXISTS filePaths (\n"
+    			+ "    id integer PRIMARY KEY,\n"
+    			+ "    path text UNIQUE\n"
+    			+ ");");
+    	statement.execute("CREATE TABLE IF NOT EXISTS commitBranches (\n"
+    			+ "    hash text,\n"
+    			+ "    branch text,\n"
+    			+ "    PRIMARY KEY (hash, branch)\n"
+    			+ ");");
+    	statement.execute("CREATE TABLE IF NOT EXISTS branchTips (\n"
+    			+ "    branch text PRIMARY KEY,\n"
+    			+ "    hash text\n"
+    			+ ");");
+    	statement.execute("CREATE TABLE IF NOT EXISTS pendingCommits (\n"
+    			+ "    hash text PRIMARY KEY\n"
+    			+ ");");
+    	statement.execute("CREATE TABLE IF NOT EXISTS commitLineStats (\n"
+    			+ "    hash text,\n"
+    			+ "    path text,\n"
+    			+ "    addedLines integer,\n"
+    			+ "    deletedLines integer,\n"
+    			+ "    PRIMARY KEY (hash, path)\n"
+    			+ ");");
+    	statement.close();
     }
 
     /**
-     * Insere um conjunto de commits ao banco de dados. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o
-     * sistema diretamente chame essa funo. Para inserir commits ao banco de dados, a funo que deve ser utilizada  a writeCommits, da
-     * classe FileController. 
+     * Insere um conjunto de commits ao banco de dados, em uma nica transao. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto,
+     * no  necessrio que o sistema diretamente chame essa funo. Para inserir commits ao banco de dados, a funo que deve ser utilizada
+     *  a writeCommits, da classe FileController. 
      * 
      * @param commitList Um ArrayList de Commits, que pode conter um nmero varavel dos mesmos.
      * 
@@ -90,6 +155,24 @@ public class SQLiteConnection {
      * 
      */
     public void insert(ArrayList<Commit> commitList) throws SQLException {
+    	insert(commitList, Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+    
+    /**
+     * Insere um conjunto de commits ao banco de dados e atualiza a tabela de commits pendentes, em uma nica transao. Os commits
+     * pendentes so os commits ainda no extrados cujos filhos j esto no banco de dados, e servem como ponto de retomada caso a
+     * extrao seja interrompida. Como a transao  nica, o banco de dados nunca contm um commit sem que os seus pais estejam tambm
+     * no banco de dados ou na tabela de commits pendentes. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio
+     * que o sistema diretamente chame essa funo.
+     * 
+     * @param commitList Um ArrayList de Commits, que pode conter um nmero varavel dos mesmos.
+     * @param addedPending Os hashes dos commits que passam a ser pendentes.
+     * @param removedPending Os hashes dos commits que deixam de ser pendentes.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public synchronized void insert(ArrayList<Commit> commitList, Collection<String> addedPending, Collection<String> removedPending)
+    		throws SQLException {
     	
         Statement statement = connection.createStatement();
         ResultSet results = statement.executeQuery("SELECT name FROM sqlite_master WHERE type='table' AND name='commits'");
@@ -101,55 +184,405 @@ public class SQLiteConnection {
         results.close();
         statement.close();
 
-        String insertSQL = "INSERT INTO commits(hash, message, author, committer, commitDate, authoringDate, modifiedFiles)"
-        		+ " VALUES(?,?,?,?,?,?,?)";
+        String insertSQL = "INSERT OR IGNORE INTO commits(hash, message, author, committer, commitDate, authoringDate,"
+        		+ " modifiedFileIds) VALUES(?,?,?,?,?,?,?)";
         PreparedStatement prepStatement = connection.prepareStatement(insertSQL);
+        PreparedStatement insertPaths = connection.prepareStatement("INSERT INTO filePaths(id, path) VALUES(?,?)");
+        PreparedStatement removePending = connection.prepareStatement("DELETE FROM pendingCommits WHERE hash = ?");
+        PreparedStatement addPending = connection.prepareStatement("INSERT OR IGNORE INTO pendingCommits(hash) VALUES(?)");
+        PreparedStatement lineStats = connection.prepareStatement("INSERT OR IGNORE INTO commitLineStats(hash, path, addedLines,"
+        		+ " deletedLines) VALUES(?,?,?,?)");
+        
+        connection.setAutoCommit(false);
 
-        for (Commit commit : commitList) {
-        	insertCommit(prepStatement, commit);
+        try {
+        	loadPaths();
+        	boolean hasLineStats = false;
+        	boolean hasNewPaths = false;
+        	for (Commit commit : commitList) {
+        		hasNewPaths |= insertCommit(prepStatement, insertPaths, commit);
+        		hasLineStats |= insertLineStats(lineStats, commit);
+        	}
+        	if (hasNewPaths) {
+        		insertPaths.executeBatch();
+        	}
+        	prepStatement.executeBatch();
+        	if (hasLineStats) {
+        		lineStats.executeBatch();
+        	}
+        	
+        	if (!removedPending.isEmpty()) {
+        		for (String hash : removedPending) {
+        			removePending.setString(1, hash);
+        			removePending.addBatch();
+        		}
+        		removePending.executeBatch();
+        	}
+        	if (!addedPending.isEmpty()) {
+        		for (String hash : addedPending) {
+        			addPending.setString(1, hash);
+        			addPending.addBatch();
+        		}
+        		addPending.executeBatch();
+        	}
+        	
+        	connection.commit();
+        }
+        catch (SQLException e) {
+        	connection.rollback();
+        	// Os caminhos adicionados durante a transao no esto mais na tabela, ento ela deve ser carregada novamente.
+        	storedPathIds = null;
+        	globalPathIds = null;
+        	throw e;
+        }
+        finally {
+        	prepStatement.close();
+        	insertPaths.close();
+        	removePending.close();
+        	addPending.close();
+        	lineStats.close();
+        	connection.setAutoCommit(true);
         }
         
     }
 
     /**
-     * Insere um commit individual ao banco de dados. Funo privada, usada somente pela funo insert.
+     * Adiciona um commit individual ao lote de inseres no banco de dados. Os caminhos dos arquivos modificados que ainda no esto na
+     * tabela de caminhos so adicionados ao lote de inseres de caminhos. Funo privada, usada somente pela funo insert.
      * 
      * @param prepStatement A chamada SQL, j preparada para receber os argumentos do commit a ser inserido.
+     * @param insertPaths A chamada SQL, j preparada para receber os novos caminhos.
      * @param commit O commit que est para ser inserido no banco de dados.
      * 
+     * @return true se algum caminho foi adicionado ao lote de inseres de caminhos.
+     * 
      * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL. 
      *
      */
-    @SuppressWarnings("unchecked")
-	private void insertCommit(PreparedStatement prepStatement, Commit commit) throws SQLException {
+	private boolean insertCommit(PreparedStatement prepStatement, PreparedStatement insertPaths, Commit commit) throws SQLException {
 
         SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        boolean hasNewPaths = false;
 
-        try {
-        	prepStatement.setString(1, commit.getVariableByEnum(CommitVariables.HASH).toString());
-            prepStatement.setString(2, commit.getVariableByEnum(CommitVariables.MESSAGE).toString());
-            prepStatement.setString(3, commit.getVariableByEnum(CommitVariables.AUTHOR).toString());
-            prepStatement.setString(4, commit.getVariableByEnum(CommitVariables.COMMITTER).toString());
-            prepStatement.setString(5, format.format(commit.getVariableByEnum(CommitVariables.COMMITDATE)));
-            prepStatement.setString(6, format.format(commit.getVariableByEnum(CommitVariables.AUTHORINGDATE)));
-            
-            String stringFileList = "";
-               
-            for (String file : (ArrayList<String>) commit.getVariableByEnum(CommitVariables.MODIFIEDFILES)) {
-            
-            	stringFileList = stringFileList.concat(file + "|");
-            }
-            
-            stringFileList = stringFileList.substring(0, stringFileList.length()-1);
-            prepStatement.setString(7, stringFileList);
-            
-            prepStatement.executeUpdate();
-        }
-        catch (InvalidEnumIDException e) {
-        	System.out.println("An unexpected error ocurred while accessing commit data. Please try again later, and double check the"
-        			+ " Enum variables used for any access to commit data.");
-        	e.printStackTrace();
+        prepStatement.setString(1, commit.getHash());
+        prepStatement.setString(2, commit.getMessage());
+        prepStatement.setString(3, commit.getAuthor());
+        prepStatement.setString(4, commit.getCommitter());
+        prepStatement.setString(5, format.format(commit.getCommitDate()));
+        prepStatement.setString(6, format.format(commit.getAuthoringDate()));
+        
+        StringBuilder fileIds = new StringBuilder();
+        for (int i = 0; i < commit.getFileCount(); i++) {
+        	int fileId = commit.getFileId(i);
+        	if (fileId >= storedPathIds.length) {
+        		storedPathIds = Arrays.copyOf(storedPathIds, Math.max(fileId + 1, storedPathIds.length * 2));
+        	}
+        	if (storedPathIds[fileId] == 0) {
+        		storedPathIds[fileId] = nextStoredPathId++;
+        		if (storedPathIds[fileId] >= globalPathIds.length) {
+        			globalPathIds = Arrays.copyOf(globalPathIds, Math.max(storedPathIds[fileId] + 1, globalPathIds.length * 2));
+        		}
+        		globalPathIds[storedPathIds[fileId]] = fileId;
+        		insertPaths.setInt(1, storedPathIds[fileId]);
+        		insertPaths.setString(2, PathDictionary.getGlobal().get(fileId));
+        		insertPaths.addBatch();
+        		hasNewPaths = true;
+        	}
+        	if (i > 0) {
+        		fileIds.append(',');
+        	}
+        	fileIds.append(storedPathIds[fileId]);
         }
+        prepStatement.setString(7, fileIds.toString());
+        
+        prepStatement.addBatch();
+        
+        return hasNewPaths;
+    }
+    
+    /**
+     * Carrega a tabela de caminhos, associando cada caminho guardado ao seu identificador no PathDictionary global. A tabela somente 
+     * carregada uma vez, e  mantida em memria  medida que novos caminhos so inseridos. Funo privada, usada pelas funes de
+     * insero e de leitura de commits.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    private void loadPaths() throws SQLException {
+    	
+    	if (storedPathIds != null) {
+    		return;
+    	}
+    	
+    	PathDictionary paths = PathDictionary.getGlobal();
+    	int[] stored = new int[Math.max(paths.size(), 16)];
+    	int[] global = new int[16];
+    	int next = 1;
+    	Statement statement = connection.createStatement();
+    	
+    	try {
+    		ResultSet rs = statement.executeQuery("SELECT id, path FROM filePaths");
+    		while (rs.next()) {
+    			int storedId = rs.getInt("id");
+    			int globalId = paths.intern(rs.getString("path"));
+    			if (globalId >= stored.length) {
+    				stored = Arrays.copyOf(stored, Math.max(globalId + 1, stored.length * 2));
+    			}
+    			if (storedId >= global.length) {
+    				global = Arrays.copyOf(global, Math.max(storedId + 1, global.length * 2));
+    			}
+    			stored[globalId] = storedId;
+    			global[storedId] = globalId;
+    			next = Math.max(next, storedId + 1);
+    		}
+    	}
+    	finally {
+    		statement.close();
+    	}
+    	
+    	storedPathIds = stored;
+    	globalPathIds = global;
+    	nextStoredPathId = next;
+    }
+    
+    /**
+     * L a lista de arquivos modificados de um commit do banco de dados. Os commits inseridos antes da tabela de caminhos tm a lista
+     * de caminhos separados por "|" na coluna modifiedFiles. A tabela de caminhos j deve estar carregada. Funo privada, usada pelas
+     * funes de leitura de commits.
+     * 
+     * @param rs O resultado da consulta, posicionado no commit.
+     * 
+     * @return A lista de arquivos modificados.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    private ArrayList<String> readModifiedFiles(ResultSet rs) throws SQLException {
+    	
+    	ArrayList<String> modifiedFiles = new ArrayList<String>();
+    	String fileIds = rs.getString("modifiedFileIds");
+    	
+    	if (fileIds == null) {
+    		String legacyFiles = rs.getString("modifiedFiles");
+    		if (legacyFiles != null && !legacyFiles.isEmpty()) {
+    			modifiedFiles.addAll(Arrays.asList(legacyFiles.split(Pattern.quote("|"))));
+    		}
+    		return modifiedFiles;
+    	}
+    	
+    	if (!fileIds.isEmpty()) {
+    		PathDictionary paths = PathDictionary.getGlobal();
+    		for (String storedId : fileIds.split(",")) {
+    			modifiedFiles.add(paths.get(globalPathIds[Integer.parseInt(storedId)]));
+    		}
+    	}
+    	
+    	return modifiedFiles;
+    }
+
+    /**
+     * Adiciona as contagens de linhas de um commit individual ao lote de inseres no banco de dados. Os arquivos binrios ou grandes
+     * demais, que no tiveram as suas linhas contadas, no so inseridos. Funo privada, usada somente pela funo insert.
+     * 
+     * @param prepStatement A chamada SQL, j preparada para receber as contagens de linhas.
+     * @param commit O commit cujas contagens de linhas esto para ser inseridas no banco de dados.
+     * 
+     * @return true se alguma contagem foi adicionada ao lote.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+	private boolean insertLineStats(PreparedStatement prepStatement, Commit commit) throws SQLException {
+    	
+    	if (!commit.hasLineStats()) {
+    		return false;
+    	}
+    	
+    	boolean added = false;
+    	PathDictionary paths = PathDictionary.getGlobal();
+    	
+    	for (int i = 0; i < commit.getFileCount(); i++) {
+    		if (commit.getAddedLines(i) < 0) {
+    			continue;
+    		}
+    		prepStatement.setString(1, commit.getHash());
+    		prepStatement.setString(2, paths.get(commit.getFileId(i)));
+    		prepStatement.setInt(3, commit.getAddedLines(i));
+    		prepStatement.setInt(4, commit.getDeletedLines(i));
+    		prepStatement.addBatch();
+    		added = true;
+    	}
+    	
+    	return added;
+    }
+
+    /**
+     * Registra que um conjunto de commits pertence a uma <i>branch</i>, em uma nica transao. Os dados dos commits so guardados somente
+     * uma vez na tabela de commits, mesmo quando eles pertencem a vrias <i>branches</i>. O uso desta funo  gerenciado pelo GitCURTAIN
+     * e, portanto, no  necessrio que o sistema diretamente chame essa funo.
+     * 
+     * @param branch O nome da <i>branch</i>.
+     * @param hashes Uma lista de Strings contendo hashes de commits (e.g., 29932f3915935d773dc8d52c292cadd81c81071d).
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public synchronized void insertBranchCommits(String branch, List<String> hashes) throws SQLException {
+    	
+    	PreparedStatement prepStatement = connection.prepareStatement("INSERT OR IGNORE INTO commitBranches(hash, branch) VALUES(?,?)");
+    	
+    	connection.setAutoCommit(false);
+    	
+    	try {
+    		for (String hash : hashes) {
+    			prepStatement.setString(1, hash);
+    			prepStatement.setString(2, branch);
+    			prepStatement.addBatch();
+    		}
+    		prepStatement.executeBatch();
+    		connection.commit();
+    	}
+    	catch (SQLException e) {
+    		connection.rollback();
+    		throw e;
+    	}
+    	finally {
+    		prepStatement.close();
+    		connection.setAutoCommit(true);
+    	}
+    }
+    
+    /**
+     * Remove todos os registros de commits de uma <i>branch</i>, e o seu ltimo commit processado, em uma nica transao.  usado quando
+     * o histrico da <i>branch</i> foi reescrito (e.g., depois de um <i>force-push</i>), para que a associao seja refeita. Os dados dos
+     * commits continuam na tabela de commits. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o sistema
+     * diretamente chame essa funo.
+     * 
+     * @param branch O nome da <i>branch</i>.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public synchronized void removeBranchCommits(String branch) throws SQLException {
+    	
+    	PreparedStatement removeCommits = connection.prepareStatement("DELETE FROM commitBranches WHERE branch = ?");
+    	PreparedStatement removeTip = connection.prepareStatement("DELETE FROM branchTips WHERE branch = ?");
+    	
+    	connection.setAutoCommit(false);
+    	
+    	try {
+    		removeCommits.setString(1, branch);
+    		removeCommits.executeUpdate();
+    		removeTip.setString(1, branch);
+    		removeTip.executeUpdate();
+    		connection.commit();
+    	}
+    	catch (SQLException e) {
+    		connection.rollback();
+    		throw e;
+    	}
+    	finally {
+    		removeCommits.close();
+    		removeTip.close();
+    		connection.setAutoCommit(true);
+    	}
+    }
+    
+    /**
+     * Guarda o ltimo commit processado de uma <i>branch</i>, para que a prxima coleta somente percorra os commits que foram adicionados
+     *  <i>branch</i> depois dele. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o sistema diretamente
+     * chame essa funo.
+     * 
+     * @param branch O nome da <i>branch</i>.
+     * @param hash O hash do ltimo commit processado da <i>branch</i>.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public synchronized void updateBranchTip(String branch, String hash) throws SQLException {
+    	
+    	PreparedStatement prepStatement = connection.prepareStatement("INSERT OR REPLACE INTO branchTips(branch, hash) VALUES(?,?)");
+    	
+    	try {
+    		prepStatement.setString(1, branch);
+    		prepStatement.setString(2, hash);
+    		prepStatement.executeUpdate();
+    	}
+    	finally {
+    		prepStatement.close();
+    	}
+    }
+    
+    /**
+     * Obtm os hashes dos commits pendentes, ou seja, os commits ainda no extrados cujos filhos j esto no banco de dados.
+     * 
+     * @return Um ArrayList de Strings contendo os hashes dos commits pendentes.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public ArrayList<String> getPendingCommits() throws SQLException {
+    	
+    	ArrayList<String> hashes = new ArrayList<String>();
+    	Statement statement = connection.createStatement();
+    	
+    	try {
+    		ResultSet rs = statement.executeQuery("SELECT hash FROM pendingCommits");
+    		while (rs.next()) {
+    			hashes.add(rs.getString("hash"));
+    		}
+    	}
+    	finally {
+    		statement.close();
+    	}
+    	
+    	return hashes;
+    }
+    
+    /**
+     * Obtm o ltimo commit processado de cada <i>branch</i> acompanhada.
+     * 
+     * @return Um HashMap que associa o nome de cada <i>branch</i> ao hash do seu ltimo commit processado.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public HashMap<String, String> getBranchTips() throws SQLException {
+    	
+    	HashMap<String, String> tips = new HashMap<String, String>();
+    	Statement statement = connection.createStatement();
+    	
+    	try {
+    		ResultSet rs = statement.executeQuery("SELECT branch, hash FROM branchTips");
+    		while (rs.next()) {
+    			tips.put(rs.getString("branch"), rs.getString("hash"));
+    		}
+    	}
+    	finally {
+    		statement.close();
+    	}
+    	
+    	return tips;
+    }
+    
+    /**
+     * Obtm os hashes de todos os commits que pertencem a uma <i>branch</i> acompanhada.
+     * 
+     * @param branch O nome da <i>branch</i>.
+     * 
+     * @return Um ArrayList de Strings contendo os hashes dos commits da <i>branch</i>.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public ArrayList<String> getCommitHashesByBranch(String branch) throws SQLException {
+    	
+    	ArrayList<String> hashes = new ArrayList<String>();
+    	PreparedStatement prepStatement = connection.prepareStatement("SELECT hash FROM commitBranches WHERE branch = ?");
+    	
+    	try {
+    		prepStatement.setString(1, branch);
+    		ResultSet rs = prepStatement.executeQuery();
+    		while (rs.next()) {
+    			hashes.add(rs.getString("hash"));
+    		}
+    	}
+    	finally {
+    		prepStatement.close();
+    	}
+    	
+    	return hashes;
     }
 
     /**
@@ -195,10 +628,12 @@ public class SQLiteConnection {
     private ArrayList<Commit> getCommitsByHashList(ArrayList<String> IDs) throws SQLException, ParseException {
     	
     	SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    	String command = "SELECT hash, message, author, commiter, commitDate, authoringDate, modifiedFiles FROM commits WHERE hash=?";
+    	String command = "SELECT hash, message, author, committer, commitDate, authoringDate, modifiedFiles, modifiedFileIds FROM commits"
+    			+ " WHERE hash=?";
     	PreparedStatement statement = connection.prepareStatement(command);
     	ArrayList<Commit> commitList = new ArrayList<Commit>();
     	
+    	loadPaths();
     	for (String id : IDs) {
     		
     		statement.setString(1, id);
@@ -208,8 +643,7 @@ public class SQLiteConnection {
     			
     			Date commitDate = format.parse(rs.getString("commitDate"));
     			Date authoringDate = format.parse(rs.getString("authoringDate"));
-    			ArrayList<String> modifiedFiles = new ArrayList<String>();
-    			modifiedFiles.addAll(Arrays.asList(rs.getString("modifiedFiles").split("|")));
+    			ArrayList<String> modifiedFiles = readModifiedFiles(rs);
     			commitList.add(new Commit(rs.getString("message"), rs.getString("hash"), rs.getString("author"), rs.getString("committer"), commitDate, authoringDate, modifiedFiles));
     		}
     		
@@ -228,25 +662,127 @@ public class SQLiteConnection {
      * volta a um objeto Date.
      */
     public ArrayList<Commit> getAllCommits() throws SQLException, ParseException {
+    	return getAllCommits(true);
+    }
+    
+    /**
+     * Obtm a lista de todos os commits que esto neste momento no banco de dados, opcionalmente sem as mensagens, que so carregadas
+     * depois sob demanda pela funo getMessages. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o
+     * sistema diretamente chame essa funo.
+     * 
+     * @param withMessages Indica se as mensagens dos commits devem ser lidas. Caso contrrio, as mensagens dos commits so nulas.
+     * 
+     * @return Um ArrayList de Commits contendo todos os elementos que atualmente esto no banco de dados.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     * @throws ParseException  lanada quando ocorre algum erro na converso da String do banco de dados contendo a data de um commit de
+     * volta a um objeto Date.
+     */
+    public ArrayList<Commit> getAllCommits(boolean withMessages) throws SQLException, ParseException {
+    	
+    	ArrayList<Commit> commitList = new ArrayList<Commit>();
+    	forEachCommit(withMessages, commitList::add);
+    	
+    	return commitList;
+    }
+    
+    /**
+     * Percorre todos os commits que esto neste momento no banco de dados, entregando cada um assim que a sua linha  lida, sem que a
+     * lista inteira seja montada. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o sistema diretamente
+     * chame essa funo.
+     * 
+     * @param withMessages Indica se as mensagens dos commits devem ser lidas. Caso contrrio, as mensagens dos commits so nulas.
+     * @param consumer A funo que recebe cada commit.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     * @throws ParseException  lanada quando ocorre algum erro na converso da String do banco de dados contendo a data de um commit de
+     * volta a um objeto Date.
+     */
+    public void forEachCommit(boolean withMessages, Consumer<Commit> consumer) throws SQLException, ParseException {
     	
     	SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    	String command = "SELECT hash, message, author, committer, commitDate, authoringDate, modifiedFiles FROM commits";
+    	String command = "SELECT hash, " + (withMessages ? "message, " : "") + "author, committer, commitDate, authoringDate, modifiedFiles,"
+    			+ " modifiedFileIds FROM commits";
     	Statement statement = connection.createStatement();
-    	ArrayList<Commit> commitList = new ArrayList<Commit>();
-    		
-    	ResultSet rs = statement.executeQuery(command);
+    	
+    	try {
+    		loadPaths();
+    		ResultSet rs = statement.executeQuery(command);
     		
-    	while (rs.next()) {
+    		while (rs.next()) {
     			
-    		Date commitDate = format.parse(rs.getString("commitDate"));
-    		Date authoringDate = format.parse(rs.getString("authoringDate"));
-    		ArrayList<String> modifiedFiles = new ArrayList<String>();
-    		modifiedFiles.addAll(Arrays.asList(rs.getString("modifiedFiles").split("|")));
-    		commitList.add(new Commit(rs.getString("message"), rs.getString("hash"), rs.getString("author"), rs.getString("committer"), commitDate, authoringDate, modifiedFiles));
+    			Date commitDate = format.parse(rs.getString("commitDate"));
+    			Date authoringDate = format.parse(rs.getString("authoringDate"));
+    			ArrayList<String> modifiedFiles = readModifiedFiles(rs);
+    			String message = withMessages ? rs.getString("message") : null;
+    			consumer.accept(new Commit(message, rs.getString("hash"), rs.getString("author"), rs.getString("committer"), commitDate, authoringDate, modifiedFiles));
+    			
+    		}
+    	}
+    	finally {
+    		statement.close();
+    	}
+    }
+    
+    /**
+     * Obtm o nmero de commits que esto neste momento no banco de dados. O uso desta funo  gerenciado pelo GitCURTAIN e, portanto,
+     * no  necessrio que o sistema diretamente chame essa funo.
+     * 
+     * @return O nmero de commits.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public int countCommits() throws SQLException {
+    	
+    	Statement statement = connection.createStatement();
+    	
+    	try {
+    		ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM commits");
+    		return rs.next() ? rs.getInt(1) : 0;
+    	}
+    	finally {
+    		statement.close();
+    	}
+    }
+    
+    /**
+     * Obtm as mensagens de um conjunto de commits. As mensagens so lidas em lotes de at MESSAGE_BATCH commits por consulta. O uso
+     * desta funo  gerenciado pelo GitCURTAIN e, portanto, no  necessrio que o sistema diretamente chame essa funo.
+     * 
+     * @param hashes Os hashes dos commits.
+     * 
+     * @return Um HashMap que associa o hash de cada commit encontrado  sua mensagem.
+     * 
+     * @throws SQLException  lanada quando ocorre algum erro durante a execuo das chamadas SQL.
+     */
+    public synchronized HashMap<String, String> getMessages(List<String> hashes) throws SQLException {
+    	
+    	HashMap<String, String> messages = new HashMap<String, String>();
+    	
+    	for (int start = 0; start < hashes.size(); start += MESSAGE_BATCH) {
+    		List<String> batch = hashes.subList(start, Math.min(start + MESSAGE_BATCH, hashes.size()));
+    		StringBuilder command = new StringBuilder("SELECT hash, message FROM commits WHERE hash IN (");
+    		for (int i = 0; i < batch.size(); i++) {
+    			command.append(i == 0 ? "?" : ",?");
+    		}
+    		command.append(")");
     		
+    		PreparedStatement prepStatement = connection.prepareStatement(command.toString());
+    		try {
+    			for (int i = 0; i < batch.size(); i++) {
+    				prepStatement.setString(i + 1, batch.get(i));
+    			}
+    			ResultSet rs = prepStatement.executeQuery();
+    			while (rs.next()) {
+    				messages.put(rs.getString("hash"), rs.getString("message"));
+    			}
+    		}
+    		finally {
+    			prepStatement.close();
+    		}
     	}
     	
-    	return commitList;
+    	return messages;
     }
     
 }
\ No newline at end of file
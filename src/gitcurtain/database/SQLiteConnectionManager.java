@@ -1,10 +1,12 @@
 package gitcurtain.database;
 
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Gerencia a criao e a alocao da classe SQLiteConnection, permitindo que a mesma seja um <i>singleton</i>. Esta classe  gerenciada pelo
- * GitCURTAIN e, a princpio, no precisa ser utilizada pelo sistema.
+ * Gerencia a criao e a alocao da classe SQLiteConnection, permitindo que haja somente uma conexo para cada arquivo de banco de dados.
+ * Esta classe  gerenciada pelo GitCURTAIN e, a princpio, no precisa ser utilizada pelo sistema.
  * 
  * @author Vincius Soares
  *
@@ -12,12 +14,12 @@ import java.sql.SQLException;
 public class SQLiteConnectionManager {
 
     /**
-     * Contm o <i>singleton</i> da conexo SQLite.
+     * Contm as conexes SQLite j criadas, indexadas pelo <i>path</i> do arquivo do banco de dados.
      */
-    private static SQLiteConnection connection;
+    private static Map<String, SQLiteConnection> connections = new HashMap<String, SQLiteConnection>();
 
     /**
-     * Cria, ou retorna, uma instncia da classe SQLiteConnection. A criao da classe SQLiteConnection  gerenciada pelo GitCURTAIN e,
+     * Cria, ou retorna, a instncia da classe SQLiteConnection associada ao arquivo especificado. A criao da classe SQLiteConnection  gerenciada pelo GitCURTAIN e,
      * portanto, no  necessrio que o sistema diretamente chame esta funo. Para criar uma conexo com o banco de dados, a funo que
      * deve ser utilizada  a setUpDatabase, da classe FileController.
      * 
@@ -26,10 +28,13 @@ public class SQLiteConnectionManager {
      * 
      * @return Uma instncia da classe SQLiteConnection.
      */
-    public static SQLiteConnection getConnection(String filePath) {
+    public static synchronized SQLiteConnection getConnection(String filePath) {
+    	
+    	SQLiteConnection connection = connections.get(filePath);
     	
         if (connection == null) {
             connection = new SQLiteConnection(filePath);
+            connections.put(filePath, connection);
             try {
 				connection.prepareTable();
 			} catch (SQLException e) {
@@ -7,14 +7,17 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import gitcurtain.exceptions.InvalidEnumIDException;
 import gitcurtain.metrics.MetricStrategy;
 import gitcurtain.utils.Commit;
 import gitcurtain.utils.CommitVariables;
+import gitcurtain.utils.CommitView;
 import gitcurtain.utils.MetricResult;
 
 /**
@@ -31,6 +34,10 @@ public class SelfAffirmedRefactoringMetric implements MetricStrategy {
 	 * A lista de palavras chave que sero utilizadas para a deteco de SARs.
 	 */
 	private ArrayList<String> keywordList;
+	/**
+	 * Os padres das palavras chave, compilados uma nica vez no carregamento da lista.
+	 */
+	private ArrayList<Pattern> keywordPatterns;
 	private String keywordPath;
 	
 	/**
@@ -39,6 +46,7 @@ public class SelfAffirmedRefactoringMetric implements MetricStrategy {
 	public SelfAffirmedRefactoringMetric() {
 		
 		keywordList = new ArrayList<String>();
+		keywordPatterns = new ArrayList<Pattern>();
 		keywordPath = null;
 		
 	}
@@ -46,6 +54,7 @@ public class SelfAffirmedRefactoringMetric implements MetricStrategy {
 	public SelfAffirmedRefactoringMetric(String path) {
 		
 		keywordList = new ArrayList<String>();
+		keywordPatterns = new ArrayList<Pattern>();
 		keywordPath = path;
 		
 	}
@@ -68,7 +77,13 @@ public class SelfAffirmedRefactoringMetric implements MetricStrategy {
 			
 		}
 		
-		keywordList = keywordsFromFile(keywordPath);       
+		keywordList = keywordsFromFile(keywordPath);
+		
+		ArrayList<Pattern> patterns = new ArrayList<Pattern>(keywordList.size());
+		for (String keyword : keywordList) {
+			patterns.add(Pattern.compile(keyword, Pattern.CASE_INSENSITIVE));
+		}
+		keywordPatterns = patterns;
 	}
 	
 	/**
@@ -105,48 +120,110 @@ public class SelfAffirmedRefactoringMetric implements MetricStrategy {
 		
 		System.out.println("Executing metric - Self-Affirmed Refactoring detection...");
 		
-		HashMap<String, ArrayList<String>> hashMap = new HashMap<String, ArrayList<String>>();
+		Matcher[] matchers = createMatchers();
+		LinkedHashSet<String> sarHashes = new LinkedHashSet<String>();
+		LinkedHashSet<String> nonSarHashes = new LinkedHashSet<String>();
+		
+		for (Commit commit : commits) {
+			if (isSelfAffirmed(matchers, commit.getMessage())) {
+				sarHashes.add(commit.getHash());
+			}
+			else {
+				nonSarHashes.add(commit.getHash());
+			}
+		}
+		
+		return createResult(sarHashes, nonSarHashes);
+	}
+
+	/**
+	 * Executa a mtrica sobre uma cpia instantnea dos commits, lendo somente as mensagens e os hashes dos commits, sem converter cada
+	 * commit em um objeto Commit. As mensagens so carregadas em lotes,  medida que os commits so percorridos.
+	 */
+	public MetricResult executeMetric(CommitView commits) {
 		
-		hashMap.put("SAR", new ArrayList<String>());
-		hashMap.put("Non SAR", new ArrayList<String>());
+		System.out.println("Executing metric - Self-Affirmed Refactoring detection...");
 		
-		String message = "";
-		String hash = "";
-		boolean found;
+		Matcher[] matchers = createMatchers();
+		LinkedHashSet<String> sarHashes = new LinkedHashSet<String>();
+		LinkedHashSet<String> nonSarHashes = new LinkedHashSet<String>();
 		
-		for (Commit commit : commits) {
-			found = false;
-			for (String keyword : keywordList) {
-				try {
-					message = (String) commit.getVariableByEnum(CommitVariables.MESSAGE);
-					hash = (String) commit.getVariableByEnum(CommitVariables.HASH);
-					
-					Pattern pattern = Pattern.compile(keyword, Pattern.CASE_INSENSITIVE);
-					Matcher matcher = pattern.matcher(message);
-					
-					if (matcher.find()) {
-						found = true;
-					}
-					
-				}
-				catch (InvalidEnumIDException e) {
-					System.out.println("An unexpected error ocurred while accessing commit data. Please try again later, and double check"
-							+ " the Enum variables used for any access to commit data.");
-					e.printStackTrace();
-				}
+		for (int i = 0; i < commits.size(); i++) {
+			if (i % CommitView.PREFETCH_BATCH == 0) {
+				commits.prefetchMessages(i, Math.min(i + CommitView.PREFETCH_BATCH, commits.size()));
 			}
-			if (found) {
-				if (!hashMap.get("SAR").contains(hash)) {
-					hashMap.get("SAR").add(hash);
-				}
+			if (isSelfAffirmed(matchers, commits.getMessage(i))) {
+				sarHashes.add(commits.getHash(i));
 			}
 			else {
-				if (!hashMap.get("Non SAR").contains(hash)) {
-					hashMap.get("Non SAR").add(hash);
-				}
+				nonSarHashes.add(commits.getHash(i));
+			}
+		}
+		
+		return createResult(sarHashes, nonSarHashes);
+	}
+
+	/**
+	 * A mtrica somente l as mensagens e os hashes dos commits.
+	 */
+	public Set<CommitVariables> getRequiredVariables() {
+		return EnumSet.of(CommitVariables.HASH, CommitVariables.MESSAGE);
+	}
+	
+	/**
+	 * Cria um Matcher para cada palavra chave, a partir dos padres compilados no carregamento da lista. Os Matchers so reaproveitados
+	 * em todas as mensagens de uma mesma execuo, e cada execuo cria os seus, ento vrias execues podem ocorrer ao mesmo tempo.
+	 * 
+	 * @return Os Matchers das palavras chave.
+	 */
+	private Matcher[] createMatchers() {
+		
+		Matcher[] matchers = new Matcher[keywordPatterns.size()];
+		for (int i = 0; i < matchers.length; i++) {
+			matchers[i] = keywordPatterns.get(i).matcher("");
+		}
+		
+		return matchers;
+	}
+	
+	/**
+	 * Verifica se uma mensagem de commit contm alguma das palavras chave.
+	 * 
+	 * @param matchers Os Matchers das palavras chave.
+	 * @param message A mensagem do commit.
+	 * 
+	 * @return true se a mensagem contm alguma das palavras chave, ou false caso a mensagem no tenha sido encontrada.
+	 */
+	private static boolean isSelfAffirmed(Matcher[] matchers, String message) {
+		
+		if (message == null) {
+			return false;
+		}
+		
+		for (Matcher matcher : matchers) {
+			if (matcher.reset(message).find()) {
+				return true;
 			}
 		}
 		
+		return false;
+	}
+	
+	/**
+	 * Cria o resultado da mtrica a partir dos hashes dos commits classificados.
+	 * 
+	 * @param sarHashes Os hashes dos commits que contm SARs, na ordem em que foram encontrados.
+	 * @param nonSarHashes Os hashes dos commits que no contm SARs, na ordem em que foram encontrados.
+	 * 
+	 * @return O resultado da mtrica.
+	 */
+	private static MetricResult createResult(LinkedHashSet<String> sarHashes, LinkedHashSet<String> nonSarHashes) {
+		
+		HashMap<String, ArrayList<String>> hashMap = new HashMap<String, ArrayList<String>>();
+		
+		hashMap.put("SAR", new ArrayList<String>(sarHashes));
+		hashMap.put("Non SAR", new ArrayList<String>(nonSarHashes));
+		
 		SelfAffirmedRefactoringSet keyset = new SelfAffirmedRefactoringSet(hashMap);
 		
 		return keyset;
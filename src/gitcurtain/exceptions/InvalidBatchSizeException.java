@@ -0,0 +1,19 @@
+package gitcurtain.exceptions;
+
+/**
+ * Uma exceo que representa um tamanho invlido para os lotes de commits publicados pelo ExtractionThread.
+ * 
+ * @author Vincius Soares
+ *
+ */
+@SuppressWarnings("serial")
+public class InvalidBatchSizeException extends Exception {
+	/**
+	 * Cria uma instncia da exceo.
+	 * 
+	 * @param message A mensagem de erro que deve ser lanada ao usurio do sistema caso a exceo seja lanada.
+	 */
+	public InvalidBatchSizeException(String message) {
+		super(message);
+	}
+}
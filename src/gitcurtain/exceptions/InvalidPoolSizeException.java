@@ -0,0 +1,19 @@
+package gitcurtain.exceptions;
+
+/**
+ * Uma exceo que representa um nmero invlido de <i>workers</i> para a extrao paralela do ExtractionThread.
+ * 
+ * @author Vincius Soares
+ *
+ */
+@SuppressWarnings("serial")
+public class InvalidPoolSizeException extends Exception {
+	/**
+	 * Cria uma instncia da exceo.
+	 * 
+	 * @param message A mensagem de erro que deve ser lanada ao usurio do sistema caso a exceo seja lanada.
+	 */
+	public InvalidPoolSizeException(String message) {
+		super(message);
+	}
+}
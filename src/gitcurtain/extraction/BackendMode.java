@@ -0,0 +1,21 @@
+package gitcurtain.extraction;
+
+/**
+ * Um Enum que contm os <i>backends</i> possveis para a converso dos commits percorridos durante a extrao.
+ *
+ * @author Vincius Soares
+ *
+ */
+public enum BackendMode {
+
+	/**
+	 * Os commits so convertidos pelo JGit, em paralelo quando h um conjunto de <i>workers</i> (comportamento padro).
+	 */
+	JGIT,
+	/**
+	 * Os commits so convertidos pelo "git log" do Git instalado no sistema, cuja sada  lida  medida que  produzida.  mais rpido
+	 * que o JGit na comparao das rvores de histricos grandes.
+	 */
+	GIT_CLI
+
+}
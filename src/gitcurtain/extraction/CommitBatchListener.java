@@ -0,0 +1,25 @@
+package gitcurtain.extraction;
+
+import java.util.ArrayList;
+
+import gitcurtain.utils.Commit;
+
+/**
+ * Uma interface que define como um sistema criado por meio do GitCURTAIN pode ser avisado sempre que um novo lote de commits  extrado de
+ * um repositrio acompanhado. O aviso  feito depois que o lote  gravado no banco de dados do repositrio, pela mesma thread que fez a
+ * extrao, e portanto a implementao no deve bloquear por muito tempo.
+ *
+ * @author Vincius Soares
+ *
+ */
+public interface CommitBatchListener {
+
+	/**
+	 * Uma funo que  chamada a cada lote de commits extrado.
+	 *
+	 * @param repository O repositrio de onde o lote foi extrado.
+	 * @param batch O lote de commits, na ordem do RevWalk.
+	 */
+	public void batchExtracted(TrackedRepository repository, ArrayList<Commit> batch);
+
+}
@@ -0,0 +1,639 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.AndRevFilter;
+import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitIdSet;
+
+/**
+ * Executa as passagens de extrao de um repositrio acompanhado: percorre os commits ainda no extrados, os converte em objetos Commit
+ * e os publica em lotes.  utilizado tanto pelo ExtractionThread quanto pelo ExtractionScheduler. Esta classe  gerenciada pelo GitCURTAIN
+ * e, portanto, no deve ser utilizada pelo sistema.
+ * 
+ * @author Vincius Soares
+ *
+ */
+public class CommitExtractor {
+	
+    /**
+     * O repositrio acompanhado de onde os commits so extrados.
+     */
+    private TrackedRepository repository;
+    /**
+     * As configuraes da extrao.
+     */
+    private ExtractionSettings settings;
+    /**
+     * O conjunto de threads que converte os commits em paralelo.  nulo quando a converso  sequencial.
+     */
+    private ExecutorService workerPool;
+    /**
+     * O <i>listener</i> avisado a cada lote publicado. Pode ser nulo.
+     */
+    private CommitBatchListener listener;
+    /**
+     * Indica se os commits das referncias locais ainda precisam ser extrados, seja porque nenhuma passagem foi completada ainda, seja
+     * porque a ltima passagem falhou.
+     */
+    private volatile boolean pendingExtraction;
+    /**
+     * O responsvel pela manuteno do clone do repositrio.
+     */
+    private RepositoryMaintenance maintenance;
+    /**
+     * O <i>cache</i> das contagens de linhas, que dura enquanto o repositrio for acompanhado.  nulo quando as linhas no so contadas.
+     */
+    private LineStatsCache lineStatsCache;
+    /**
+     * Impede que as passagens, a extrao em segundo plano e a manuteno sejam executadas ao mesmo tempo. O bloqueio  justo: entre dois
+     * lotes da extrao em segundo plano, uma passagem que j est esperando  executada antes do prximo lote.
+     */
+    private final ReentrantLock lock = new ReentrantLock(true);
+    
+    /**
+     * Cria um CommitExtractor.
+     * 
+     * @param repository O repositrio acompanhado de onde os commits so extrados.
+     * @param settings As configuraes da extrao.
+     * @param workerPool O conjunto de threads que converte os commits em paralelo, ou nulo para uma converso sequencial.
+     * @param listener O <i>listener</i> avisado a cada lote publicado, ou nulo.
+     */
+    public CommitExtractor(TrackedRepository repository, ExtractionSettings settings, ExecutorService workerPool, CommitBatchListener listener) {
+    	this.repository = repository;
+    	this.settings = settings;
+    	this.workerPool = workerPool;
+    	this.listener = listener;
+    	maintenance = new RepositoryMaintenance(repository, settings);
+    	if (settings.isLineStats()) {
+    		lineStatsCache = new LineStatsCache(settings.getLineStatsCacheSize());
+    	}
+    	pendingExtraction = true;
+    }
+    
+    /**
+     * Verifica se uma nova passagem de coleta e extrao  necessria. A passagem  necessria se a ltima passagem no foi completada,
+     * ou se alguma <i>branch</i> acompanhada mudou no repositrio remoto. A verificao consulta somente as referncias anunciadas pelo
+     * repositrio remoto, sem buscar nenhum objeto e sem percorrer nenhum commit.
+     * 
+     * @return true se uma nova passagem  necessria.
+     * 
+     * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio remoto.
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    public boolean needsUpdate() throws GitAPIException, IOException {
+    	return pendingExtraction || repository.hasRemoteChanges(settings.getTrackedBranches());
+    }
+    
+	/**
+	 * Abre o <i>backend</i> de extrao de uma passagem, conforme as configuraes da extrao. O <i>backend</i>  reaproveitado por
+	 * todos os lotes da passagem, e deve ser fechado ao fim da mesma.
+	 * 
+	 * @param repo O repositrio no qual os commits esto sendo extrados de.
+	 * 
+	 * @return O <i>backend</i> de extrao.
+	 */
+	private ExtractionBackend openBackend(Repository repo) {
+		
+		switch (settings.getBackendMode()) {
+			case GIT_CLI:
+				return new GitLogBackend(repo, settings, lineStatsCache);
+			default:
+				return new JGitBackend(repo, settings, workerPool, lineStatsCache);
+		}
+	}
+	
+	/**
+	 * Publica um lote de commits recm-convertidos: o lote  adicionado ao repositrio acompanhado e ao seu banco de dados, junto com a
+	 * atualizao dos commits pendentes, e o <i>listener</i>  avisado. Os pais dos commits do lote que ainda no foram extrados passam
+	 * a ser pendentes, e os commits do lote deixam de ser pendentes. Assim, cada lote gravado  um <i>checkpoint</i> do qual a extrao
+	 * pode ser retomada.
+	 * 
+	 * @param batch O lote de commits.
+	 * @param batchIds Os identificadores dos commits do lote.
+	 * @param batchParents Os identificadores dos pais de cada commit do lote, na mesma ordem.
+	 * 
+	 * @return Os commits que passaram a ser pendentes.
+	 */
+	private Set<ObjectId> publishBatch(ArrayList<Commit> batch, List<ObjectId> batchIds, List<ObjectId[]> batchParents) {
+		
+		Set<ObjectId> inBatch = new HashSet<ObjectId>(batchIds);
+		Set<ObjectId> addedPending = new HashSet<ObjectId>();
+		Set<ObjectId> removedPending = new HashSet<ObjectId>();
+		
+		for (ObjectId id : batchIds) {
+			if (repository.isPending(id)) {
+				removedPending.add(id);
+			}
+		}
+		for (ObjectId[] parents : batchParents) {
+			for (ObjectId parent : parents) {
+				if (!inBatch.contains(parent) && !repository.getSeenCommits().contains(parent) && !repository.isPending(parent)) {
+					addedPending.add(parent);
+				}
+			}
+		}
+		
+		repository.addCommits(batch, addedPending, removedPending);
+		if (listener != null) {
+			listener.batchExtracted(repository, batch);
+		}
+		
+		return addedPending;
+	}
+
+	/**
+	 * Extrai os commits novos de todas as <i>branches</i> acompanhadas do repositrio, e atualiza a associao entre os commits e as
+	 * <i>branches</i>. Todas as <i>branches</i> so percorridas pelo mesmo RevWalk, ento um commit em comum entre vrias
+	 * <i>branches</i>  convertido e guardado somente uma vez. Os commits pendentes de uma extrao interrompida tambm so usados como
+	 * incio do RevWalk, para que a extrao seja retomada do ltimo <i>checkpoint</i>. Com uma janela de extrao inicial configurada,
+	 * a primeira passagem de um repositrio novo somente extrai o histrico recente. Com uma janela de extrao inicial ou um clone raso,
+	 * os commits pendentes so deixados para o mtodo backfill.
+	 * 
+	 * @return O nmero de commits extrados.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int extractBranches() throws IOException {
+		
+		lock.lock();
+		try {
+			pendingExtraction = true;
+			boolean bootstrap = settings.hasBootstrapWindow() && repository.getSeenCommits().size() == 0;
+			Map<String, ObjectId> tips = repository.resolveBranchTips(settings.getTrackedBranches());
+			List<ObjectId> unseen = new ArrayList<ObjectId>();
+		
+			for (ObjectId tip : tips.values()) {
+				if (!repository.getSeenCommits().contains(tip)) {
+					unseen.add(tip);
+				}
+			}
+		
+			if (!settings.hasPartialBootstrap()) {
+				unseen.addAll(getAvailablePendingCommits());
+			}
+		
+			int count = 0;
+			if (bootstrap) {
+				count = extractFrom(unseen, settings.getBootstrapCommits(), settings.getBootstrapDays());
+			}
+			else if (!unseen.isEmpty()) {
+				count = extractFrom(unseen);
+			}
+		
+			for (Map.Entry<String, ObjectId> tip : tips.entrySet()) {
+				if (!tip.getValue().equals(repository.getBranchTip(tip.getKey()))) {
+					updateBranchMembership(tip.getKey(), tip.getValue());
+				}
+			}
+		
+			pendingExtraction = false;
+			return count;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Extrai o prximo lote do histrico que ficou de fora da janela de extrao inicial, a partir dos commits pendentes. Cada chamada
+	 * extrai e publica no mximo um lote, para que as passagens de coleta de commits novos no precisem esperar pelo fim de todo o
+	 * histrico.
+	 * 
+	 * @return O nmero de commits extrados, que  zero quando no h mais nenhum commit pendente.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int backfill() throws IOException {
+		
+		lock.lock();
+		try {
+			List<ObjectId> pending = getAvailablePendingCommits();
+		
+			return pending.isEmpty() ? 0 : extractFrom(pending, settings.getBatchSize(), 0);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Aprofunda o clone raso do repositrio em um passo, fazendo com que os commits pendentes da fronteira do clone possam ser extrados
+	 * pelo mtodo backfill.
+	 * 
+	 * @return true se o clone foi aprofundado, ou false se o repositrio no  um clone raso.
+	 * 
+	 * @throws IOException  lanado quando no  possvel executar o Git, ou quando a busca falha.
+	 */
+	public boolean deepen() throws IOException {
+		
+		lock.lock();
+		try {
+			if (!repository.isShallow()) {
+				return false;
+			}
+			repository.deepen(settings.getDeepenStep());
+		
+			return true;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Faz a manuteno do clone do repositrio, caso algum dos gatilhos das configuraes tenha sido alcanado. A manuteno nunca 
+	 * feita ao mesmo tempo que uma passagem de extrao.
+	 * 
+	 * @return true se a manuteno foi feita.
+	 * 
+	 * @throws GitAPIException  lanado quando ocorre um erro no GC do JGit.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public boolean maintain() throws GitAPIException, IOException {
+		
+		lock.lock();
+		try {
+			return maintenance.runIfNeeded();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Obtm o responsvel pela manuteno do clone do repositrio, de onde podem ser lidos a durao e o espao liberado pela ltima
+	 * manuteno.
+	 * 
+	 * @return O responsvel pela manuteno.
+	 */
+	public RepositoryMaintenance getMaintenance() {
+		return maintenance;
+	}
+	
+	/**
+	 * Obtm o <i>cache</i> das contagens de linhas, de onde podem ser lidos os nmeros de consultas encontradas e no encontradas.
+	 * 
+	 * @return O <i>cache</i>, ou nulo quando as linhas no so contadas.
+	 */
+	public LineStatsCache getLineStatsCache() {
+		return lineStatsCache;
+	}
+	
+	/**
+	 * Verifica se ainda h histrico a ser extrado em segundo plano, seja porque h commits pendentes, seja porque o repositrio  um
+	 * clone raso.
+	 * 
+	 * @return true se ainda h histrico a ser extrado.
+	 */
+	public boolean hasRemainingHistory() {
+		return !repository.getPendingCommits().isEmpty() || repository.isShallow();
+	}
+	
+	/**
+	 * Obtm os commits pendentes cujos objetos esto disponveis no repositrio local. Os commits da fronteira de um clone raso somente
+	 * ficam disponveis depois que o clone  aprofundado, j que os seus pais ainda no foram buscados.
+	 * 
+	 * @return Uma lista com os commits pendentes disponveis.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private List<ObjectId> getAvailablePendingCommits() throws IOException {
+		
+		List<ObjectId> available = new ArrayList<ObjectId>();
+		Set<ObjectId> shallowCommits = repository.getShallowCommits();
+		ObjectReader reader = repository.getGit().getRepository().newObjectReader();
+		
+		try {
+			for (ObjectId pending : repository.getPendingCommits()) {
+				if (!shallowCommits.contains(pending) && reader.has(pending)) {
+					available.add(pending);
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+		
+		return available;
+	}
+	
+	/**
+	 * Registra os commits que foram adicionados a uma <i>branch</i> desde o ltimo commit processado da mesma. Somente os identificadores
+	 * dos commits so percorridos, sem nenhuma comparao de rvores, a no ser que a extrao seja restrita a um escopo de caminhos. No
+	 * modo de primeiros pais, somente a cadeia de primeiros pais da <i>branch</i>  registrada. Se o ltimo commit processado no  mais
+	 * um ancestral da <i>branch</i> (e.g., depois de um <i>force-push</i>), os commits registrados na mesma so removidos e a
+	 * <i>branch</i>  percorrida inteira, j que os commits reescritos no pertencem mais a ela.
+	 * 
+	 * @param branchName O nome da <i>branch</i>.
+	 * @param tip O commit mais recente da <i>branch</i>.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private void updateBranchMembership(String branchName, ObjectId tip) throws IOException {
+		
+		RevWalk rw = new RevWalk(repository.getGit().getRepository());
+		rw.setRetainBody(false);
+		if (settings.hasPathScope()) {
+			rw.setRewriteParents(false);
+			rw.setTreeFilter(PathScopeFilter.createChangeFilter(settings));
+		}
+		ObjectId previous = repository.getBranchTip(branchName);
+		if (previous != null && !isAncestor(previous, tip)) {
+			repository.removeBranchCommits(branchName);
+			previous = null;
+		}
+		ArrayList<String> hashes = new ArrayList<String>();
+		FirstParentWalk firstParentWalk = null;
+		
+		try {
+			if (settings.isFirstParent()) {
+				// A cadeia de primeiros pais para no commit anterior da branch.
+				CommitIdSet stop = new CommitIdSet();
+				if (previous != null) {
+					stop.add(previous);
+				}
+				firstParentWalk = new FirstParentWalk(rw, stop, 0,
+						settings.hasPathScope() ? PathScopeFilter.createChangeFilter(settings) : null);
+				firstParentWalk.markStart(rw.parseCommit(tip));
+			}
+			else {
+				rw.markStart(rw.parseCommit(tip));
+				if (previous != null) {
+					rw.markUninteresting(rw.parseCommit(previous));
+				}
+			}
+			
+			RevCommit current;
+			while ((current = firstParentWalk != null ? firstParentWalk.next() : rw.next()) != null) {
+				hashes.add(current.name());
+				if (hashes.size() >= settings.getBatchSize()) {
+					repository.addBranchCommits(branchName, hashes, null);
+					hashes.clear();
+				}
+			}
+			repository.addBranchCommits(branchName, hashes, tip);
+		}
+		finally {
+			if (firstParentWalk != null) {
+				firstParentWalk.close();
+			}
+			rw.close();
+		}
+	}
+	
+	/**
+	 * Verifica se um commit  ancestral de outro, ou o prprio commit. Um commit que no existe mais no repositrio local no  ancestral
+	 * de nenhum commit.
+	 * 
+	 * @param ancestor O possvel ancestral.
+	 * @param tip O commit a partir do qual o ancestral  procurado.
+	 * 
+	 * @return true se o commit  ancestral do outro.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private boolean isAncestor(ObjectId ancestor, ObjectId tip) throws IOException {
+		
+		RevWalk rw = new RevWalk(repository.getGit().getRepository());
+		rw.setRetainBody(false);
+		
+		try {
+			return rw.isMergedInto(rw.parseCommit(ancestor), rw.parseCommit(tip));
+		}
+		catch (MissingObjectException | IncorrectObjectTypeException e) {
+			return false;
+		}
+		finally {
+			rw.close();
+		}
+	}
+	
+	/**
+	 * Extrai os commits alcanveis a partir do commit especificado que ainda no esto no ndice de commits j extrados. Mais
+	 * informaes esto na variao deste mtodo que recebe vrios commits.
+	 * 
+	 * @param commit O commit que inicia a lista de commits sendo extrados.
+	 * 
+	 * @return O nmero de commits extrados.
+	 * 
+	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int extractFrom(AnyObjectId commit) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+		return extractFrom(Collections.singletonList(commit));
+	}
+	/**
+	 * Extrai os commits alcanveis a partir dos commits especificados que ainda no esto no ndice de commits j extrados, em lotes
+	 * de tamanho limitado. O RevWalk consulta o ndice e poda os ancestrais de todo commit j extrado, ento somente os commits novos so
+	 * percorridos. Cada lote  convertido e publicado assim que  completado pelo RevWalk, para que os primeiros resultados fiquem
+	 * disponveis antes do fim da extrao e para que a memria usada pela extrao no dependa do tamanho do histrico. Com um escopo
+	 * de caminhos configurado, o prprio RevWalk ignora os commits que no modificam nenhum arquivo do escopo, ento os mesmos nunca so
+	 * convertidos nem guardados. No modo de primeiros pais, somente os primeiros pais dos commits so percorridos, por meio de um
+	 * FirstParentWalk.
+	 * 
+	 * @param tips Os commits que iniciam a lista de commits sendo extrados.
+	 * 
+	 * @return O nmero de commits extrados.
+	 * 
+	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int extractFrom(Collection<? extends AnyObjectId> tips) throws MissingObjectException, IncorrectObjectTypeException,
+			IOException {
+		return extractFrom(tips, 0, 0);
+	}
+	
+	/**
+	 * Extrai os commits alcanveis a partir dos commits especificados que ainda no esto no ndice de commits j extrados, parando no
+	 * primeiro limite alcanado. Os commits que ficam de fora dos limites passam a ser pendentes, e podem ser extrados depois pelo mtodo
+	 * backfill.
+	 * 
+	 * @param tips Os commits que iniciam a lista de commits sendo extrados.
+	 * @param maxCommits O nmero mximo de commits extrados, ou zero para nenhum limite.
+	 * @param maxDays O nmero de dias de histrico extrados, ou zero para nenhum limite.
+	 * 
+	 * @return O nmero de commits extrados.
+	 * 
+	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private int extractFrom(Collection<? extends AnyObjectId> tips, int maxCommits, int maxDays) throws MissingObjectException,
+			IncorrectObjectTypeException, IOException {
+		
+		Repository repo = repository.getGit().getRepository();
+		RevWalk rw = new RevWalk(repo);
+		rw.setRetainBody(false);
+		long since = maxDays > 0 ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxDays) : 0;
+		FirstParentWalk firstParentWalk = null;
+		
+		if (settings.isFirstParent()) {
+			firstParentWalk = new FirstParentWalk(rw, repository.getSeenCommits(), (int) (since / 1000),
+					settings.hasPathScope() ? PathScopeFilter.createChangeFilter(settings) : null);
+			for (AnyObjectId tip : tips) {
+				firstParentWalk.markStart(rw.parseCommit(tip));
+			}
+		}
+		else {
+			RevFilter filter = new SeenCommitFilter(repository.getSeenCommits());
+			if (since > 0) {
+				filter = AndRevFilter.create(filter, CommitTimeRevFilter.after(new Date(since)));
+			}
+			rw.setRevFilter(filter);
+			if (settings.hasPathScope()) {
+				// Com a reescrita de pais, o JGit percorreria todo o histrico antes de devolver o primeiro commit.
+				rw.setRewriteParents(false);
+				rw.setTreeFilter(PathScopeFilter.createChangeFilter(settings));
+			}
+			for (AnyObjectId tip : tips) {
+				rw.markStart(rw.parseCommit(tip));
+			}
+		}
+		Set<ObjectId> shallowCommits = repository.getShallowCommits();
+		ArrayList<ObjectId> batchIds = new ArrayList<ObjectId>(settings.getBatchSize());
+		ArrayList<ObjectId[]> batchParents = new ArrayList<ObjectId[]>(settings.getBatchSize());
+		ExtractionBackend backend = openBackend(repo);
+		// Sem a reescrita de pais, os pais de um commit do escopo podem estar fora do mesmo. Estes pais tambm so percorridos, ento
+		// deixam de ser pendentes caso o RevWalk chegue ao fim.
+		Set<ObjectId> unreached = new HashSet<ObjectId>();
+		for (AnyObjectId tip : tips) {
+			unreached.add(tip.copy());
+		}
+		int count = 0;
+		boolean truncated = since > 0;
+		
+		try {
+			RevCommit current;
+			while ((current = firstParentWalk != null ? firstParentWalk.next() : rw.next()) != null) {
+				
+				if (shallowCommits.contains(current)) {
+					// Os pais de um commit da fronteira de um clone raso ainda no foram buscados, ento o mesmo fica pendente at que o
+					// clone seja aprofundado.
+					continue;
+				}
+				
+				batchIds.add(current.copy());
+				batchParents.add(copyParents(current, settings.isFirstParent()));
+				count++;
+				
+				if (batchIds.size() >= settings.getBatchSize()) {
+					collectScopePending(unreached, publishBatch(backend.materialize(batchIds), batchIds, batchParents));
+					batchIds.clear();
+					batchParents.clear();
+				}
+				if (maxCommits > 0 && count >= maxCommits) {
+					truncated = true;
+					break;
+				}
+			}
+			
+			if (!batchIds.isEmpty()) {
+				collectScopePending(unreached, publishBatch(backend.materialize(batchIds), batchIds, batchParents));
+			}
+			updateUnreachedTips(unreached, truncated, shallowCommits);
+		}
+		finally {
+			if (firstParentWalk != null) {
+				firstParentWalk.close();
+			}
+			rw.close();
+			backend.close();
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Guarda os pais que passaram a ser pendentes em um lote, quando a extrao  restrita a um escopo de caminhos, para que os mesmos
+	 * sejam tratados como os commits iniciais ao fim do RevWalk.
+	 * 
+	 * @param unreached Os commits que devem ser verificados ao fim do RevWalk.
+	 * @param addedPending Os commits que passaram a ser pendentes no lote.
+	 */
+	private void collectScopePending(Set<ObjectId> unreached, Set<ObjectId> addedPending) {
+		if (settings.hasPathScope()) {
+			unreached.addAll(addedPending);
+		}
+	}
+	
+	/**
+	 * Atualiza os commits pendentes com os commits iniciais que no foram extrados. Se a extrao foi interrompida por algum limite
+	 * (e.g., uma <i>branch</i> sem commits recentes), os mesmos passam a ser pendentes, j que no so pais de nenhum commit extrado. Se
+	 * a extrao foi completa, os mesmos no alteram nenhum caminho do escopo e deixam de ser pendentes. Os commits da fronteira de um
+	 * clone raso sempre continuam pendentes.
+	 * 
+	 * @param tips Os commits que iniciaram a extrao.
+	 * @param truncated Indica se a extrao foi interrompida por algum limite.
+	 * @param shallowCommits Os commits da fronteira do clone raso.
+	 */
+	private void updateUnreachedTips(Collection<? extends AnyObjectId> tips, boolean truncated, Set<ObjectId> shallowCommits) {
+		
+		Set<ObjectId> addedPending = new HashSet<ObjectId>();
+		Set<ObjectId> removedPending = new HashSet<ObjectId>();
+		
+		for (AnyObjectId tip : tips) {
+			if (repository.getSeenCommits().contains(tip)) {
+				continue;
+			}
+			boolean pending = repository.isPending(tip);
+			if (truncated || shallowCommits.contains(tip)) {
+				if (!pending) {
+					addedPending.add(tip.copy());
+				}
+			}
+			else if (pending) {
+				removedPending.add(tip.copy());
+			}
+		}
+		
+		if (!addedPending.isEmpty() || !removedPending.isEmpty()) {
+			repository.addCommits(new ArrayList<Commit>(), addedPending, removedPending);
+		}
+	}
+	
+	/**
+	 * Copia os identificadores dos pais de um commit, para que os mesmos possam ser usados depois que o RevWalk for fechado.
+	 * 
+	 * @param commit O commit.
+	 * @param firstParentOnly Indica se somente o primeiro pai deve ser copiado.
+	 * 
+	 * @return Os identificadores dos pais do commit.
+	 */
+	private static ObjectId[] copyParents(RevCommit commit, boolean firstParentOnly) {
+		
+		int count = firstParentOnly ? Math.min(1, commit.getParentCount()) : commit.getParentCount();
+		ObjectId[] parents = new ObjectId[count];
+		
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = commit.getParent(i).copy();
+		}
+		
+		return parents;
+	}
+}
@@ -0,0 +1,154 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import gitcurtain.utils.Commit;
+
+/**
+ * Converte commits do JGit em objetos Commit do GitCURTAIN. Cada instncia possui o seu prprio ObjectReader, RevWalk e DiffSession,
+ * que no so <i>thread-safe</i> e, portanto, uma instncia deve ser utilizada por somente uma thread de cada vez. Uma instncia deve
+ * durar uma passagem inteira de extrao, para que as estruturas do JGit sejam reaproveitadas entre os commits. O RevWalk, por outro
+ * lado, guarda todo commit interpretado, ento  descartado ao fim de cada lote pelo mtodo reset, para que a memria da instncia no
+ * cresa com o tamanho da passagem. Durante a extrao paralela, cada <i>worker</i> do ExtractionThread cria o seu prprio
+ * CommitMaterializer. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class CommitMaterializer implements AutoCloseable {
+
+    /**
+     * O leitor de objetos do repositrio, exclusivo desta instncia.
+     */
+    private ObjectReader reader;
+    /**
+     * O RevWalk utilizado para interpretar os commits e seus pais.  substitudo ao fim de cada lote.
+     */
+    private RevWalk revWalk;
+    /**
+     * A sesso de comparao utilizada para obter a lista de arquivos modificados.
+     */
+    private DiffSession diffSession;
+    /**
+     * Indica se as linhas adicionadas e removidas de cada arquivo modificado so contadas.
+     */
+    private boolean lineStats;
+
+    /**
+     * Cria um CommitMaterializer sobre o repositrio especificado.
+     *
+     * @param repo O repositrio de onde os commits esto sendo extrados.
+     * @param settings As configuraes da extrao.
+     * @param lineStatsCache O <i>cache</i> das contagens de linhas do repositrio, ou nulo quando as linhas no so contadas.
+     */
+    public CommitMaterializer(Repository repo, ExtractionSettings settings, LineStatsCache lineStatsCache) {
+    	reader = repo.newObjectReader();
+    	revWalk = new RevWalk(reader);
+    	diffSession = new DiffSession(reader, repo.getConfig(), settings, lineStatsCache);
+    	lineStats = lineStatsCache != null;
+    }
+
+	/**
+	 * Recebe o identificador de um commit do JGit, e cria um objeto Commit do GitCURTAIN equivalente.
+	 *
+	 * @param id O identificador do commit a ser convertido para a classe Commit.
+	 *
+	 * @return O Commit equivalente.
+	 *
+	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public Commit materialize(AnyObjectId id) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+
+		RevCommit commit = revWalk.parseCommit(id);
+		// O commit pode j ter sido interpretado como pai de outro commit do lote, com o contedo descartado.
+		revWalk.parseBody(commit);
+
+		String message = commit.getFullMessage();
+		String hash = commit.getName();
+		PersonIdent author = commit.getAuthorIdent();
+		String authorName = author.getName();
+		Date authoringDate = author.getWhen();
+		PersonIdent committer = commit.getCommitterIdent();
+		String committerName = committer.getName();
+		Date commitDate = committer.getWhen();
+		List<DiffEntry> diffs = getDiffs(commit);
+		ArrayList<String> modifiedFiles = new ArrayList<String>(diffs.size());
+		int[] addedLines = lineStats ? new int[diffs.size()] : null;
+		int[] deletedLines = lineStats ? new int[diffs.size()] : null;
+
+		for (int i = 0; i < diffs.size(); i++) {
+			DiffEntry diff = diffs.get(i);
+			modifiedFiles.add(diff.getNewPath());
+			if (lineStats) {
+				int[] counts = diffSession.countLines(diff);
+				addedLines[i] = counts == null ? -1 : counts[0];
+				deletedLines[i] = counts == null ? -1 : counts[1];
+			}
+		}
+		commit.disposeBody();
+
+		return new Commit(message, hash, authorName, committerName, commitDate, authoringDate, modifiedFiles, addedLines, deletedLines);
+	}
+
+	/**
+	 * Obtm as alteraes feitas no commit em questo, em relao ao seu primeiro pai. Somente a rvore do pai  necessria, ento o
+	 * contedo do mesmo  descartado depois da comparao.
+	 *
+	 * @param commit O commit no qual as mudanas foram feitas.
+	 *
+	 * @return A lista de alteraes do commit.
+	 *
+	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private List<DiffEntry> getDiffs(RevCommit commit) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+
+		RevCommit parent = null;
+
+		if (commit.getParents().length != 0) {
+			parent = commit.getParent(0);
+			revWalk.parseHeaders(parent);
+		}
+
+		List<DiffEntry> diffs = diffSession.scan(parent, commit);
+		if (parent != null) {
+			parent.disposeBody();
+		}
+
+		return diffs;
+	}
+
+	/**
+	 * Descarta os commits interpretados pelo RevWalk desde a ltima chamada, substituindo-o por um novo RevWalk sobre o mesmo leitor de
+	 * objetos. Deve ser chamado ao fim de cada lote, quando nenhum commit do lote ainda est sendo convertido.
+	 */
+	public void reset() {
+		revWalk.close();
+		revWalk = new RevWalk(reader);
+	}
+
+	/**
+	 * Libera o leitor de objetos e as estruturas do JGit associadas a esta instncia.
+	 */
+	public void close() {
+		diffSession.close();
+		revWalk.close();
+		reader.close();
+	}
+}
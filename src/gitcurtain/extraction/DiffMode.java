@@ -0,0 +1,26 @@
+package gitcurtain.extraction;
+
+/**
+ * Um Enum que contm os modos possveis de clculo da lista de arquivos modificados por um commit. Permite trocar a preciso da deteco
+ * de arquivos renomeados por velocidade de extrao.
+ *
+ * @author Vincius Soares
+ *
+ */
+public enum DiffMode {
+
+	/**
+	 * Deteco completa de arquivos renomeados, comparando o contedo dos arquivos adicionados e removidos (comportamento padro).
+	 */
+	FULL,
+	/**
+	 * Deteco de arquivos renomeados limitada pelo nmero mximo de pares comparados e pelo tamanho mximo dos arquivos comparados.
+	 */
+	LIMITED,
+	/**
+	 * Somente os caminhos dos arquivos so comparados, sem deteco de arquivos renomeados. Um arquivo renomeado aparece como uma remoo
+	 * e uma adio.
+	 */
+	PATH_ONLY
+
+}
@@ -0,0 +1,301 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffAlgorithm.SupportedAlgorithm;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Uma sesso de comparao de rvores que dura uma passagem inteira de extrao. Reaproveita o ObjectReader, o TreeWalk, os iteradores
+ * das rvores raiz e o detector de arquivos renomeados entre os commits, em vez de recri-los a cada commit. Tambm conta as linhas
+ * adicionadas e removidas de cada arquivo modificado, quando as contagens esto ativas. Assim como o
+ * CommitMaterializer que a utiliza, uma sesso no  <i>thread-safe</i>. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve
+ * ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class DiffSession {
+
+    /**
+     * O leitor de objetos do repositrio. Pertence a quem criou a sesso, e no  fechado por ela.
+     */
+    private ObjectReader reader;
+    /**
+     * O TreeWalk reaproveitado entre as comparaes.
+     */
+    private TreeWalk treeWalk;
+    /**
+     * O iterador da rvore do commit pai, reaproveitado entre as comparaes.
+     */
+    private CanonicalTreeParser oldTree;
+    /**
+     * O iterador da rvore do commit, reaproveitado entre as comparaes.
+     */
+    private CanonicalTreeParser newTree;
+    /**
+     * O detector de arquivos renomeados.  nulo no modo PATH_ONLY.
+     */
+    private RenameDetector renameDetector;
+    /**
+     * O modo de clculo da lista de arquivos modificados.
+     */
+    private DiffMode mode;
+    /**
+     * O tamanho mximo, em bytes, de um arquivo considerado na deteco de arquivos renomeados, no modo LIMITED.
+     */
+    private long renameBlobSizeLimit;
+    /**
+     * O filtro do TreeWalk, que somente percorre as alteraes dentro do escopo de caminhos da extrao.
+     */
+    private TreeFilter filter;
+    /**
+     * O <i>cache</i> das contagens de linhas, compartilhado por todas as sesses do repositrio.  nulo quando as linhas no so
+     * contadas.
+     */
+    private LineStatsCache lineStatsCache;
+    /**
+     * O tamanho mximo, em bytes, de um arquivo cujas linhas so contadas.
+     */
+    private long lineStatsBlobSizeLimit;
+    /**
+     * O algoritmo utilizado para comparar as linhas de duas verses de um arquivo.
+     */
+    private DiffAlgorithm diffAlgorithm;
+
+    /**
+     * Cria uma sesso de comparao sobre o leitor de objetos especificado.
+     *
+     * @param reader O leitor de objetos do repositrio.
+     * @param config A configurao do repositrio, de onde so lidas as configuraes padro de deteco de arquivos renomeados.
+     * @param settings As configuraes da extrao.
+     * @param lineStatsCache O <i>cache</i> das contagens de linhas do repositrio, ou nulo quando as linhas no so contadas.
+     */
+    public DiffSession(ObjectReader reader, Config config, ExtractionSettings settings, LineStatsCache lineStatsCache) {
+    	this.reader = reader;
+    	this.lineStatsCache = lineStatsCache;
+    	mode = settings.getDiffMode();
+    	renameBlobSizeLimit = settings.getRenameBlobSizeLimit();
+    	lineStatsBlobSizeLimit = settings.getLineStatsBlobSizeLimit();
+    	filter = PathScopeFilter.createChangeFilter(settings);
+    	diffAlgorithm = DiffAlgorithm.getAlgorithm(SupportedAlgorithm.HISTOGRAM);
+
+    	treeWalk = new TreeWalk(reader);
+    	oldTree = new CanonicalTreeParser();
+    	newTree = new CanonicalTreeParser();
+
+    	if (mode != DiffMode.PATH_ONLY) {
+    		renameDetector = new RenameDetector(reader, config.get(DiffConfig.KEY));
+    		if (mode == DiffMode.LIMITED) {
+    			renameDetector.setRenameLimit(settings.getRenameLimit());
+    		}
+    	}
+    }
+
+	/**
+	 * Compara a rvore de um commit com a rvore do seu pai, ou com uma rvore vazia, caso o commit no tenha pai. Com um escopo de
+	 * caminhos configurado, os diretrios fora do escopo no so percorridos.
+	 *
+	 * @param parent O commit pai, com os cabealhos j interpretados, ou nulo.
+	 * @param commit O commit, com os cabealhos j interpretados.
+	 *
+	 * @return A lista de alteraes entre as duas rvores.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public List<DiffEntry> scan(RevCommit parent, RevCommit commit) throws IOException {
+
+		AbstractTreeIterator oldIterator;
+
+		if (parent != null) {
+			oldTree.reset(reader, parent.getTree());
+			oldIterator = oldTree;
+		}
+		else {
+			oldIterator = new EmptyTreeIterator();
+		}
+		newTree.reset(reader, commit.getTree());
+
+		treeWalk.reset();
+		treeWalk.setRecursive(true);
+		treeWalk.setFilter(filter);
+		treeWalk.addTree(oldIterator);
+		treeWalk.addTree(newTree);
+
+		List<DiffEntry> diffs = DiffEntry.scan(treeWalk);
+
+		if (renameDetector == null) {
+			return diffs;
+		}
+
+		renameDetector.reset();
+
+		if (mode == DiffMode.LIMITED) {
+			List<DiffEntry> skipped = new ArrayList<DiffEntry>();
+			for (DiffEntry diff : diffs) {
+				if (isOverSizeLimit(diff)) {
+					skipped.add(diff);
+				}
+				else {
+					renameDetector.add(diff);
+				}
+			}
+			List<DiffEntry> result = new ArrayList<DiffEntry>(renameDetector.compute(reader, NullProgressMonitor.INSTANCE));
+			result.addAll(skipped);
+			return result;
+		}
+
+		renameDetector.addAll(diffs);
+		return renameDetector.compute(reader, NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Verifica se o arquivo de uma adio ou remoo ultrapassa o tamanho mximo considerado na deteco de arquivos renomeados.
+	 *
+	 * @param diff A alterao a ser verificada.
+	 *
+	 * @return true se a alterao deve ficar de fora da deteco de arquivos renomeados.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private boolean isOverSizeLimit(DiffEntry diff) throws IOException {
+
+		if (diff.getOldMode() == FileMode.GITLINK || diff.getNewMode() == FileMode.GITLINK) {
+			return false;
+		}
+		if (diff.getChangeType() == ChangeType.ADD) {
+			return reader.getObjectSize(diff.getNewId().toObjectId(), Constants.OBJ_BLOB) > renameBlobSizeLimit;
+		}
+		if (diff.getChangeType() == ChangeType.DELETE) {
+			return reader.getObjectSize(diff.getOldId().toObjectId(), Constants.OBJ_BLOB) > renameBlobSizeLimit;
+		}
+		return false;
+	}
+
+	/**
+	 * Conta as linhas adicionadas e removidas por uma alterao. O resultado  obtido do <i>cache</i> sempre que o mesmo par de verses
+	 * j foi comparado, mesmo por outra sesso do repositrio.
+	 *
+	 * @param diff A alterao.
+	 *
+	 * @return Um vetor com o nmero de linhas adicionadas e removidas, ou nulo quando as linhas no so contadas, quando o arquivo 
+	 * binrio ou maior que o tamanho mximo, ou quando a alterao  um submdulo.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int[] countLines(DiffEntry diff) throws IOException {
+
+		if (lineStatsCache == null || diff.getOldMode() == FileMode.GITLINK || diff.getNewMode() == FileMode.GITLINK) {
+			return null;
+		}
+
+		ObjectId oldId = diff.getChangeType() == ChangeType.ADD ? ObjectId.zeroId() : diff.getOldId().toObjectId();
+		ObjectId newId = diff.getChangeType() == ChangeType.DELETE ? ObjectId.zeroId() : diff.getNewId().toObjectId();
+
+		return countLines(oldId, newId);
+	}
+
+	/**
+	 * Conta as linhas adicionadas e removidas entre duas verses de um arquivo.  utilizado diretamente pelos <i>backends</i> que no
+	 * obtm as alteraes por meio do JGit.
+	 *
+	 * @param oldId O identificador da verso antiga, ou o identificador zero caso o arquivo tenha sido adicionado.
+	 * @param newId O identificador da verso nova, ou o identificador zero caso o arquivo tenha sido removido.
+	 *
+	 * @return Um vetor com o nmero de linhas adicionadas e removidas, ou nulo quando as linhas no so contadas, ou quando alguma das
+	 * verses  binria ou maior que o tamanho mximo.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int[] countLines(ObjectId oldId, ObjectId newId) throws IOException {
+
+		if (lineStatsCache == null) {
+			return null;
+		}
+		if (oldId.equals(newId)) {
+			return new int[] { 0, 0 };
+		}
+
+		int[] counts = lineStatsCache.get(oldId, newId);
+		if (counts != null) {
+			return counts.length == 0 ? null : counts;
+		}
+
+		RawText oldText = readText(oldId);
+		RawText newText = oldText == null ? null : readText(newId);
+
+		if (oldText == null || newText == null) {
+			// Os arquivos binrios e grandes demais tambm so guardados, para que no sejam lidos novamente.
+			lineStatsCache.put(oldId, newId, new int[0]);
+			return null;
+		}
+
+		int added = 0;
+		int deleted = 0;
+		for (Edit edit : diffAlgorithm.diff(RawTextComparator.DEFAULT, oldText, newText)) {
+			added += edit.getLengthB();
+			deleted += edit.getLengthA();
+		}
+
+		counts = new int[] { added, deleted };
+		lineStatsCache.put(oldId, newId, counts);
+		return counts;
+	}
+
+	/**
+	 * L o contedo de uma verso de um arquivo como texto.
+	 *
+	 * @param id O identificador da verso, ou o identificador zero para um arquivo vazio.
+	 *
+	 * @return O contedo da verso, ou nulo caso a mesma seja binria ou maior que o tamanho mximo.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private RawText readText(ObjectId id) throws IOException {
+
+		if (id.equals(ObjectId.zeroId())) {
+			return RawText.EMPTY_TEXT;
+		}
+
+		ObjectLoader loader = reader.open(id, Constants.OBJ_BLOB);
+		if (loader.getSize() > lineStatsBlobSizeLimit) {
+			return null;
+		}
+
+		byte[] content = loader.getCachedBytes();
+		if (RawText.isBinary(content)) {
+			return null;
+		}
+
+		return new RawText(content);
+	}
+
+	/**
+	 * Libera as estruturas associadas  sesso. O leitor de objetos no  fechado.
+	 */
+	public void close() {
+		treeWalk.close();
+	}
+}
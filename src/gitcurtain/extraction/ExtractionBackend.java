@@ -0,0 +1,37 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import gitcurtain.utils.Commit;
+
+/**
+ * Um <i>backend</i> de extrao, que converte os lotes de commits percorridos pelo CommitExtractor em objetos Commit do GitCURTAIN. Um
+ * <i>backend</i> dura uma passagem inteira de extrao, e  escolhido para cada repositrio por meio do BackendMode das configuraes
+ * da extrao. Esta interface  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public interface ExtractionBackend extends AutoCloseable {
+
+	/**
+	 * Converte um lote de identificadores de commits em objetos Commit do GitCURTAIN, mantendo a ordem do lote.
+	 *
+	 * @param commitIds O lote de identificadores dos commits, na ordem do RevWalk.
+	 *
+	 * @return Um ArrayList de Commits na mesma ordem do lote de identificadores.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	ArrayList<Commit> materialize(List<ObjectId> commitIds) throws IOException;
+
+	/**
+	 * Libera as estruturas associadas ao <i>backend</i>.
+	 */
+	void close();
+
+}
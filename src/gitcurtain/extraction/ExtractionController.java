@@ -1,25 +1,19 @@
 package gitcurtain.extraction;
 
-import java.io.File;
 import java.io.IOException;
-
 import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
 
-import org.eclipse.jgit.api.CloneCommand;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRemoteException;
 import org.eclipse.jgit.api.errors.TransportException;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.StoredConfig;
-import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 
 import gitcurtain.database.FileController;
+import gitcurtain.exceptions.InvalidBatchSizeException;
 import gitcurtain.exceptions.InvalidBranchException;
+import gitcurtain.exceptions.InvalidPoolSizeException;
 import gitcurtain.exceptions.InvalidTimerValueException;
 import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitIdSet;
+import gitcurtain.utils.CommitView;
 
 /**
  * Gerencia todo o sistema de extrao de dados, permitindo que o desenvolvedor determine qual a forma de obteno dos metadados necessrios
@@ -34,29 +28,14 @@ import gitcurtain.utils.Commit;
 public class ExtractionController {
 	
     /**
-     * A lista de commits que j existem no banco de dados (para que no sejam re-coletados sempre que o banco de dados seja atualizado)
-     */
-    private static ArrayList<Commit> commits;
-    /**
-     * O objeto que representa um repositrio Git.
+     * O repositrio acompanhado, com o clone local, os metadados, a lista de commits que j existem no banco de dados (para que no sejam
+     * re-coletados sempre que o banco de dados seja atualizado) e o ndice dos seus hashes.
      */
-    private static Git git;
+    private static TrackedRepository repository;
     /**
-     * A URI do repositrio.
+     * A thread de extrao de commits, depois de iniciada por um dos mtodos beginExtraction.
      */
-    private static String repositoryURI;
-    /**
-     * O Token de autenticao do usurio.
-     */
-    private static String repositoryToken;
-    /**
-     * O <i>path</i> para a pasta do repositrio.
-     */
-    private static String repositoryPath;
-    /**
-     * A <i>branch</i> principal do repositrio.
-     */
-    private static String repositoryBranch;
+    private static volatile ExtractionThread extractionThread;
 
     /**
      * Prepara o repositrio para extrao por meio da estratgia especificada. Este mtodo deve ser chamado uma vez, durante a
@@ -76,85 +55,30 @@ public class ExtractionController {
      * @throws InvalidBranchException Quando o nome da branch  invlido.
      */
     public static void setUpRepository(RepoSetupStrategy repositorySetup, String databaseFilePath) throws InvalidRemoteException, TransportException, InvalidBranchException {
-    	
-    	boolean done = false;
-    	commits = getCommitsFromDatabase(databaseFilePath);
-        
-        while (!done) {
-        	try {
-        		repositoryURI = repositorySetup.getRepositoryURI();
-            	repositoryToken = repositorySetup.getToken();
-            	repositoryPath = repositorySetup.getRepositoryPath();
-            	repositoryBranch = repositorySetup.getBranch();
-        		File repositoryFile = new File(repositoryPath);
-        		
-        		CloneCommand clone = Git.cloneRepository();
-        		clone.setURI(repositoryURI);
-        		clone.setCredentialsProvider(new UsernamePasswordCredentialsProvider(repositoryToken, "" ));
-        		clone.setDirectory(repositoryFile);
-        		clone.call();
-			
-        		git = Git.open(repositoryFile);
-        		
-        		List<String> branchList = git.branchList()
-        									.call()
-        									.stream()
-        									.map(Ref::getName)
-        									.collect(Collectors.toList());
-        		
-        		
-        		if (!branchList.contains("refs/heads/" + repositoryBranch)) {
-        			throw new InvalidBranchException("Branch name does not exist in the remote repository.");
-        		}
-        		
-        		StoredConfig config = git.getRepository().getConfig();
-        		config.setString("branch", "master", "merge", "refs/heads/" + repositoryBranch);
-        		config.setString("branch", "master", "remote", "origin");
-        		config.setString("remote", "origin", "fetch", "+refs/heads/*:refs/remotes/origin/*");
-        		config.setString("remote", "origin", "url", repositoryURI);
-        		config.save();
-        		
-        		done = true;
-        	}
-        	catch (InvalidRemoteException e) {
-        		throw e;
-        	}
-        	catch (TransportException e) {
-        		throw e;
-        	}
-        	catch (GitAPIException e) {
-        		System.out.println("Unexpected error occured in the Git API. Retrying...");
-        		e.printStackTrace();
-        	}
-        	catch (IOException e) {
-        		System.out.println("Unexpected I/O error. Retrying...");
-        		e.printStackTrace();
-        	}
-        }
-
+    	setUpRepository(repositorySetup, databaseFilePath, new ExtractionSettings());
     }
     
     /**
-     * Carrega os commits do banco de dados, se um j estiver disponvel. Se no, cria uma lista em branco.
+     * Prepara o repositrio para extrao por meio da estratgia especificada, com configuraes customizadas para o clone do repositrio
+     * (e.g., um clone <i>bare</i>, sem <i>working tree</i>). As mesmas configuraes devem ser passadas depois ao mtodo beginExtraction.
      * 
-     * @param filePath Uma String que contm o <i>path</i> do arquivo do banco de dados SQLite. O <i>path</i> deve conter a extenso
-     * do arquivo.
+     * @param repositorySetup Um objeto que extende a interface RepoSetupStrategy, e contm a estratgia que deve ser utilizada para a
+     * obteno dos metadados do repositrio.
+     * @param databaseFilePath Uma String que contm o <i>path</i> do arquivo do banco de dados SQLite. O <i>path</i> deve conter a
+     * extenso do arquivo.
+     * @param settings As configuraes da extrao.
      * 
-     * @return Um ArrayList de Commits com os commits que estavam guardados no banco de dados (se houver), ou um ArrayList de Commits
-     * vazio.
+     * @throws InvalidRemoteException Quando a URI do repositrio  invlida.
+     * @throws TransportException Quando o token de acesso ao repositrio  invlido.
+     * @throws InvalidBranchException Quando o nome da branch  invlido.
      */
-    private static ArrayList<Commit> getCommitsFromDatabase(String filePath) {
-    	
-    	FileController.setUpDatabase(filePath);
-    	ArrayList<Commit> commits = FileController.getAllCommits();
+    public static void setUpRepository(RepoSetupStrategy repositorySetup, String databaseFilePath, ExtractionSettings settings)
+    		throws InvalidRemoteException, TransportException, InvalidBranchException {
     	
-    	if (commits != null) {
-    		return commits;
-    	}
-    	return new ArrayList<Commit>();
+    	FileController.setUpDatabase(databaseFilePath);
+    	repository = TrackedRepository.setUp(repositorySetup, databaseFilePath, settings);
     }
 
-
     /**
      * Adiciona um conjunto de commits  varivel que contm os Commits j coletados, e tambm ao banco de dados. Essa funo  gerenciada
      * pelo ExtractionThread, e no precisa ser chamada pelo sistema.
@@ -163,19 +87,62 @@ public class ExtractionController {
      * dados.
      */
     public static void addCommits(ArrayList<Commit> commitList) {
-    	
-        commits.addAll(commitList);
-		FileController.writeCommits(commitList);
+    	repository.addCommits(commitList);
     }
     
     /**
-     * Obtm a lista atual de commits que est guardada no ExtractionController. Essa funo  gerenciada pelo ExtractionThread, e no
-     * precisa ser chamada pelo sistema.
+     * Obtm o ndice dos commits que j foram extrados do repositrio. Essa funo  gerenciada pelo ExtractionThread, e no precisa
+     * ser chamada pelo sistema.
      * 
-     * @return Um ArrayList de Commits que contm os commits j guardados no ExtractionController.
+     * @return O ndice de commits j extrados.
      */
+    public static CommitIdSet getSeenCommits() {
+    	return repository.getSeenCommits();
+    }
+    
+    /**
+     * Obtm o repositrio acompanhado pelo ExtractionController. Essa funo  gerenciada pelo ExtractionThread, e no precisa ser chamada
+     * pelo sistema.
+     * 
+     * @return O repositrio acompanhado.
+     */
+    public static TrackedRepository getRepository() {
+    	return repository;
+    }
+    
+    /**
+     * Obtm uma cpia da lista atual de commits que est guardada no ExtractionController.  equivalente  funo getCommitSnapshot.
+     * Essa funo  gerenciada pelo ExtractionThread, e no precisa ser chamada pelo sistema.
+     * 
+     * @return Um ArrayList de Commits que contm os commits guardados no ExtractionController no momento da chamada.
+     * 
+     * @deprecated A lista no acompanha os lotes adicionados depois da chamada. Utilize a funo getCommitSnapshot.
+     */
+    @Deprecated
     public static ArrayList<Commit> getAllCommits() {
-    	return commits;
+    	return getCommitSnapshot();
+    }
+    
+    /**
+     * Obtm uma cpia da lista atual de commits que est guardada no ExtractionController. A cpia pode ser percorrida com segurana
+     * enquanto novos lotes de commits ainda esto sendo adicionados pelo ExtractionThread. Essa funo  gerenciada pelo
+     * ExtractionThread, e no precisa ser chamada pelo sistema.
+     * 
+     * @return Um ArrayList de Commits que contm os commits guardados no ExtractionController no momento da chamada.
+     */
+    public static ArrayList<Commit> getCommitSnapshot() {
+    	return repository.getCommitSnapshot();
+    }
+    
+    /**
+     * Obtm uma cpia instantnea dos commits que esto guardados no ExtractionController, que l diretamente as colunas onde os commits
+     * so guardados, sem converter cada commit em um objeto Commit. Assim como a cpia da funo getCommitSnapshot, pode ser percorrida
+     * com segurana enquanto novos lotes de commits ainda esto sendo adicionados pelo ExtractionThread.
+     * 
+     * @return A cpia instantnea dos commits guardados no ExtractionController no momento da chamada.
+     */
+    public static CommitView getCommitView() {
+    	return repository.getCommitView();
     }
     
     /**
@@ -184,7 +151,7 @@ public class ExtractionController {
      * customizar este tempo de espera,  possvel passar como parmetro um tempo diferente na outra variao desta funo.
      */
     public static void beginExtraction() {
-	    ExtractionThread extractionThread = new ExtractionThread(git, repositoryToken, repositoryBranch);
+	    extractionThread = new ExtractionThread(repository);
 	    extractionThread.start();
     }
     
@@ -200,20 +167,125 @@ public class ExtractionController {
     	if (timer < 0) {
     		throw new InvalidTimerValueException("Timer cannot be below zero.");
     	}
-    	ExtractionThread extractionThread = new ExtractionThread(git, repositoryToken, repositoryBranch, timer);
+    	extractionThread = new ExtractionThread(repository, timer);
 	    extractionThread.start();
     }
     
+    /**
+     * Inicia a thread de extrao de commits do repositrio, convertendo os commits extrados em paralelo. Esta variao da funo usa um
+     * tempo de espera customizado entre coletas e um nmero customizado de <i>workers</i>, que  especialmente til durante a primeira
+     * extrao de repositrios com histricos longos. Com um nico <i>worker</i>, o comportamento  o mesmo das outras variaes.
+     * 
+     * @param timer O tempo, em milisegundos, de espera entre duas coletas do repositrio.
+     * @param poolSize O nmero de <i>workers</i> que convertem os commits extrados em paralelo.
+     * @throws InvalidTimerValueException Quando o valor do timer  invlido.
+     * @throws InvalidPoolSizeException Quando o nmero de <i>workers</i>  invlido.
+     */
+    public static void beginExtraction(long timer, int poolSize) throws InvalidTimerValueException, InvalidPoolSizeException {
+    	if (timer < 0) {
+    		throw new InvalidTimerValueException("Timer cannot be below zero.");
+    	}
+    	if (poolSize < 1) {
+    		throw new InvalidPoolSizeException("Pool size must be at least one.");
+    	}
+    	ExtractionSettings settings = new ExtractionSettings();
+    	settings.setPoolSize(poolSize);
+    	startExtractionThread(timer, settings);
+    }
+    
+    /**
+     * Inicia a thread de extrao de commits do repositrio com configuraes de extrao customizadas. Esta variao da funo permite
+     * ajustar, alm do tempo de espera entre coletas, o nmero de <i>workers</i> e o modo de clculo dos arquivos modificados por cada
+     * commit. Mais informaes sobre as configuraes disponveis esto na classe ExtractionSettings.
+     * 
+     * @param timer O tempo, em milisegundos, de espera entre duas coletas do repositrio.
+     * @param settings As configuraes da extrao.
+     * @throws InvalidTimerValueException Quando o valor do timer, ou os limites do tempo de espera adaptativo, so invlidos.
+     * @throws InvalidPoolSizeException Quando o nmero de <i>workers</i>  invlido.
+     * @throws InvalidBatchSizeException Quando o tamanho dos lotes de extrao  invlido.
+     */
+    public static void beginExtraction(long timer, ExtractionSettings settings) throws InvalidTimerValueException, InvalidPoolSizeException,
+    		InvalidBatchSizeException {
+    	if (timer < 0) {
+    		throw new InvalidTimerValueException("Timer cannot be below zero.");
+    	}
+    	if (settings.getPoolSize() < 1) {
+    		throw new InvalidPoolSizeException("Pool size must be at least one.");
+    	}
+    	if (settings.getBatchSize() < 1) {
+    		throw new InvalidBatchSizeException("Batch size must be at least one.");
+    	}
+    	if (settings.getMinPollInterval() < 0 || settings.getMaxPollInterval() < 0
+    			|| (settings.getMaxPollInterval() > 0 && settings.getMinPollInterval() > settings.getMaxPollInterval())) {
+    		throw new InvalidTimerValueException("Poll interval bounds are invalid.");
+    	}
+    	startExtractionThread(timer, settings);
+    }
+    
+    /**
+     * Cria e inicia a thread de extrao com as configuraes j validadas.
+     * 
+     * @param timer O tempo, em milisegundos, de espera entre duas coletas do repositrio.
+     * @param settings As configuraes da extrao.
+     */
+    private static void startExtractionThread(long timer, ExtractionSettings settings) {
+    	extractionThread = new ExtractionThread(repository, timer, settings);
+	    extractionThread.start();
+    }
+    
+    /**
+     * Inicia um servidor HTTP que recebe notificaes de <i>push</i> (<i>webhooks</i>) do repositrio remoto e antecipa a prxima coleta
+     * do repositrio, sem esperar pelo fim do tempo de espera entre coletas. A coleta peridica continua ativa. Esta funo  opcional, e
+     * deve ser chamada depois do mtodo setUpRepository. O servidor somente  acessvel pela prpria mquina, e no verifica a
+     * assinatura das notificaes. Mais informaes esto na classe WebhookServer.
+     * 
+     * @param port A porta onde o servidor recebe as notificaes.
+     * @param path O <i>path</i> onde o servidor recebe as notificaes (e.g., /webhook).
+     * 
+     * @return O servidor iniciado.
+     * 
+     * @throws IOException  lanado quando no  possvel utilizar a porta especificada.
+     */
+    public static WebhookServer startWebhookServer(int port, String path) throws IOException {
+    	return startWebhookServer(null, port, path, null);
+    }
+    
+    /**
+     * Inicia um servidor HTTP que recebe notificaes de <i>push</i> (<i>webhooks</i>) do repositrio remoto, no endereo especificado.
+     * Para receber notificaes de outras mquinas, um segredo deve ser configurado, para que somente as notificaes assinadas com o
+     * mesmo antecipem a coleta. Mais informaes esto na classe WebhookServer.
+     * 
+     * @param bindAddress O endereo onde o servidor recebe as notificaes, ou nulo para somente a prpria mquina.
+     * @param port A porta onde o servidor recebe as notificaes.
+     * @param path O <i>path</i> onde o servidor recebe as notificaes (e.g., /webhook).
+     * @param secret O segredo compartilhado com o servio que envia as notificaes, ou nulo para aceitar notificaes sem assinatura.
+     * 
+     * @return O servidor iniciado.
+     * 
+     * @throws IOException  lanado quando no  possvel utilizar o endereo ou a porta especificados.
+     */
+    public static WebhookServer startWebhookServer(String bindAddress, int port, String path, String secret) throws IOException {
+    	WebhookServer server = new WebhookServer(bindAddress, port, path, secret);
+    	server.register(repository.getURI(), () -> {
+    		ExtractionThread thread = extractionThread;
+    		if (thread != null) {
+    			thread.requestExtraction();
+    		}
+    	});
+    	server.start();
+    	return server;
+    }
+    
     /**
      * Retorna o commit mais recentemente coletado, para o caso do banco de dados j ter dados antes da primeira execuo.
      * 
      * @return O commit mais recentemente coletado.
      */
     public static Commit getLatestCommit() {
-    	if (commits.size() >= 1) {
-    		ArrayList<Commit> sorted = commits;
-    		sorted.sort(Commit.CommitComparatorByCommitDate);
-    		return sorted.get(sorted.size()-1);
+    	CommitView view = repository.getCommitView();
+    	int latest = view.getLatest();
+    	if (latest >= 0) {
+    		return view.getCommit(latest);
     	}
     	else {
     		return null;
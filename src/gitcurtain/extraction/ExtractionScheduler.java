@@ -0,0 +1,451 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.InvalidRemoteException;
+import org.eclipse.jgit.api.errors.TransportException;
+
+import gitcurtain.exceptions.InvalidBatchSizeException;
+import gitcurtain.exceptions.InvalidBranchException;
+import gitcurtain.exceptions.InvalidPoolSizeException;
+import gitcurtain.exceptions.InvalidTimerValueException;
+
+/**
+ * Acompanha vrios repositrios no mesmo processo. Cada repositrio registrado possui o seu prprio tempo de espera entre coletas, banco
+ * de dados e ndice de commits j extrados, mas as passagens de coleta e extrao de todos os repositrios so executadas por um nico
+ * conjunto limitado de threads. Alm disso, o nmero de coletas (<i>fetch</i>) simultneas  limitado, para que a rede e os servidores
+ * remotos no sejam sobrecarregados quando muitos repositrios so atualizados ao mesmo tempo.
+ *
+ * Uma passagem de um repositrio nunca  executada ao mesmo tempo que outra passagem do mesmo repositrio: a prxima passagem somente 
+ * agendada quando a anterior termina. Erros em uma passagem so mostrados e a passagem  repetida na prxima coleta, sem afetar os outros
+ * repositrios.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class ExtractionScheduler {
+
+	/**
+	 * A thread que agenda as passagens de cada repositrio.
+	 */
+	private ScheduledExecutorService timer;
+	/**
+	 * O conjunto limitado de threads que executa as passagens de todos os repositrios.
+	 */
+	private ExecutorService passPool;
+	/**
+	 * Limita o nmero de coletas simultneas.
+	 */
+	private Semaphore fetchPermits;
+	/**
+	 * Os repositrios registrados.
+	 */
+	private List<ScheduledRepository> repositories;
+	/**
+	 * Indica se o agendamento j foi iniciado.
+	 */
+	private volatile boolean started;
+	/**
+	 * Indica se o agendamento j foi encerrado.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * Cria um ExtractionScheduler.
+	 *
+	 * @param poolSize O nmero de threads que executam as passagens de todos os repositrios.
+	 * @param maxConcurrentFetches O nmero mximo de coletas simultneas.
+	 *
+	 * @throws InvalidPoolSizeException Quando o nmero de threads ou o nmero de coletas simultneas  invlido.
+	 */
+	public ExtractionScheduler(int poolSize, int maxConcurrentFetches) throws InvalidPoolSizeException {
+		if (poolSize < 1) {
+			throw new InvalidPoolSizeException("Pool size must be at least one.");
+		}
+		if (maxConcurrentFetches < 1) {
+			throw new InvalidPoolSizeException("Fetch concurrency must be at least one.");
+		}
+
+		timer = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "gitcurtain-scheduler"));
+		passPool = Executors.newFixedThreadPool(poolSize, runnable -> new Thread(runnable, "gitcurtain-scheduler-pass"));
+		fetchPermits = new Semaphore(maxConcurrentFetches, true);
+		repositories = new ArrayList<ScheduledRepository>();
+	}
+
+	/**
+	 * Registra um repositrio, preparando-o por meio da estratgia especificada. Se o agendamento j foi iniciado, a primeira passagem do
+	 * repositrio  agendada imediatamente.
+	 *
+	 * @param repositorySetup A estratgia que deve ser utilizada para a obteno dos metadados do repositrio.
+	 * @param databaseFilePath Uma String que contm o <i>path</i> do arquivo do banco de dados SQLite do repositrio. O <i>path</i> deve
+	 * conter a extenso do arquivo, e no deve ser compartilhado com outro repositrio.
+	 * @param pollInterval O tempo, em milisegundos, de espera entre duas coletas do repositrio. Com limites configurados nas configuraes
+	 * da extrao,  somente o valor inicial de um tempo de espera adaptativo.
+	 * @param settings As configuraes da extrao e do clone do repositrio. O nmero de <i>workers</i>  ignorado, pois os commits de
+	 * cada passagem so convertidos pela prpria thread da passagem.
+	 * @param listener O <i>listener</i> avisado a cada lote de commits extrado do repositrio, ou nulo.
+	 *
+	 * @return O repositrio registrado.
+	 *
+	 * @throws InvalidRemoteException Quando a URI do repositrio  invlida.
+	 * @throws TransportException Quando o token de acesso ao repositrio  invlido.
+	 * @throws InvalidBranchException Quando o nome da branch  invlido.
+	 * @throws InvalidTimerValueException Quando o valor do tempo de espera, ou os seus limites, so invlidos.
+	 * @throws InvalidBatchSizeException Quando o tamanho dos lotes de extrao  invlido.
+	 */
+	public TrackedRepository register(RepoSetupStrategy repositorySetup, String databaseFilePath, long pollInterval,
+			ExtractionSettings settings, CommitBatchListener listener) throws InvalidRemoteException, TransportException,
+			InvalidBranchException, InvalidTimerValueException, InvalidBatchSizeException {
+
+		if (pollInterval < 0) {
+			throw new InvalidTimerValueException("Timer cannot be below zero.");
+		}
+		if (settings.getMinPollInterval() < 0 || settings.getMaxPollInterval() < 0
+				|| (settings.getMaxPollInterval() > 0 && settings.getMinPollInterval() > settings.getMaxPollInterval())) {
+			throw new InvalidTimerValueException("Poll interval bounds are invalid.");
+		}
+		if (settings.getBatchSize() < 1) {
+			throw new InvalidBatchSizeException("Batch size must be at least one.");
+		}
+
+		TrackedRepository repository = TrackedRepository.setUp(repositorySetup, databaseFilePath, settings);
+		ScheduledRepository entry = new ScheduledRepository(repository, new CommitExtractor(repository, settings, null, listener),
+				new PollingInterval(pollInterval, settings), settings.getPushCoalesceWindow(), settings.hasPartialBootstrap());
+
+		synchronized (repositories) {
+			repositories.add(entry);
+			if (started) {
+				schedulePass(entry, 0);
+			}
+		}
+
+		return repository;
+	}
+
+	/**
+	 * Inicia o agendamento, executando a primeira passagem de todos os repositrios j registrados.
+	 */
+	public void start() {
+		synchronized (repositories) {
+			if (started) {
+				return;
+			}
+			started = true;
+			for (ScheduledRepository entry : repositories) {
+				schedulePass(entry, 0);
+			}
+		}
+	}
+
+	/**
+	 * Encerra o agendamento. As passagens em andamento terminam normalmente, mas nenhuma nova passagem  iniciada.
+	 */
+	public void shutdown() {
+		stopped = true;
+		timer.shutdownNow();
+		passPool.shutdown();
+	}
+
+	/**
+	 * Espera que as passagens em andamento terminem depois de uma chamada ao mtodo shutdown.
+	 *
+	 * @param timeout O tempo mximo de espera, em milisegundos.
+	 *
+	 * @return true se todas as passagens terminaram, ou false se o tempo de espera acabou antes disso.
+	 *
+	 * @throws InterruptedException  lanado quando a thread  interrompida durante a espera.
+	 */
+	public boolean awaitTermination(long timeout) throws InterruptedException {
+		return passPool.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Obtm os repositrios registrados.
+	 *
+	 * @return Uma lista com os repositrios registrados.
+	 */
+	public List<TrackedRepository> getRepositories() {
+		List<TrackedRepository> result = new ArrayList<TrackedRepository>();
+		synchronized (repositories) {
+			for (ScheduledRepository entry : repositories) {
+				result.add(entry.repository);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Pede que a prxima passagem de um repositrio seja feita imediatamente, sem esperar pelo fim do tempo de espera. Pedidos feitos em
+	 * sequncia so agrupados: a passagem  agendada para o fim da janela de agrupamento das configuraes da extrao, e pedidos feitos
+	 * durante uma passagem resultam em uma nica nova passagem logo depois da atual. Pode ser registrado no WebhookServer para que as
+	 * notificaes de <i>push</i> antecipem a coleta do repositrio.
+	 *
+	 * @param repository O repositrio, como retornado pelo mtodo register.
+	 */
+	public void requestExtraction(TrackedRepository repository) {
+
+		ScheduledRepository target = null;
+		synchronized (repositories) {
+			for (ScheduledRepository entry : repositories) {
+				if (entry.repository == repository) {
+					target = entry;
+				}
+			}
+		}
+		if (target == null) {
+			return;
+		}
+
+		synchronized (target) {
+			if (target.running) {
+				target.rerunRequested = true;
+			}
+			else if (target.nextPass != null && target.nextPass.getDelay(TimeUnit.MILLISECONDS) > target.coalesceWindow
+					&& target.nextPass.cancel(false)) {
+				schedulePass(target, target.coalesceWindow);
+			}
+		}
+	}
+
+	/**
+	 * Agenda a prxima passagem de um repositrio.
+	 *
+	 * @param entry O repositrio.
+	 * @param delay O tempo, em milisegundos, at a passagem.
+	 */
+	private void schedulePass(ScheduledRepository entry, long delay) {
+		if (stopped) {
+			return;
+		}
+		synchronized (entry) {
+			try {
+				entry.nextPass = timer.schedule(() -> startPass(entry), delay, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				// O agendamento foi encerrado durante a passagem.
+			}
+		}
+	}
+
+	/**
+	 * Envia a passagem agendada de um repositrio ao conjunto de threads.
+	 *
+	 * @param entry O repositrio.
+	 */
+	private void startPass(ScheduledRepository entry) {
+		synchronized (entry) {
+			entry.nextPass = null;
+			entry.running = true;
+		}
+		try {
+			passPool.execute(() -> runPass(entry));
+		}
+		catch (RejectedExecutionException e) {
+			// O agendamento foi encerrado antes da passagem.
+		}
+	}
+
+	/**
+	 * Executa uma passagem de um repositrio: consulta as referncias anunciadas pelo repositrio remoto e, somente se alguma
+	 * <i>branch</i> acompanhada mudou, atualiza as referncias remotas e extrai os commits novos. A consulta e a atualizao respeitam o
+	 * limite de coletas simultneas. Depois de uma passagem sem commits novos, a manuteno do clone  feita caso algum dos seus gatilhos
+	 * tenha sido alcanado. Ao fim, agenda a prxima passagem.
+	 *
+	 * @param entry O repositrio.
+	 */
+	private void runPass(ScheduledRepository entry) {
+
+		TrackedRepository repository = entry.repository;
+
+		int extracted = 0;
+
+		try {
+			fetchPermits.acquire();
+			boolean changed;
+			try {
+				changed = entry.extractor.needsUpdate();
+				if (changed) {
+					repository.fetch();
+				}
+			}
+			finally {
+				fetchPermits.release();
+			}
+
+			if (changed) {
+				extracted = entry.extractor.extractBranches();
+			}
+			if (extracted == 0 && !entry.backfilling) {
+				entry.extractor.maintain();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		catch (GitAPIException e) {
+			System.out.println("Unexpected error occured in the Git API while updating " + repository.getURI() + ". Retrying...");
+			e.printStackTrace();
+		}
+		catch (IOException e) {
+			System.out.println("Unexpected I/O error while extracting " + repository.getURI() + ". Retrying...");
+			e.printStackTrace();
+		}
+		catch (RuntimeException e) {
+			System.out.println("Unexpected error while extracting " + repository.getURI() + ". Retrying...");
+			e.printStackTrace();
+		}
+
+		long delay = entry.pollInterval.next(extracted > 0);
+		synchronized (entry) {
+			entry.running = false;
+			if (entry.rerunRequested) {
+				entry.rerunRequested = false;
+				delay = entry.coalesceWindow;
+			}
+			schedulePass(entry, delay);
+			if (entry.backfill && !entry.backfilling && entry.extractor.hasRemainingHistory()) {
+				entry.backfilling = true;
+				submitBackfill(entry);
+			}
+		}
+	}
+
+	/**
+	 * Envia o prximo lote da extrao em segundo plano de um repositrio ao conjunto de threads. Cada lote  enviado para o fim da fila
+	 * do conjunto de threads, ento as passagens j agendadas de todos os repositrios tm prioridade sobre a extrao em segundo plano.
+	 *
+	 * @param entry O repositrio.
+	 */
+	private void submitBackfill(ScheduledRepository entry) {
+		if (stopped) {
+			entry.backfilling = false;
+			return;
+		}
+		try {
+			passPool.execute(() -> runBackfill(entry));
+		}
+		catch (RejectedExecutionException e) {
+			// O agendamento foi encerrado durante a extrao em segundo plano.
+			entry.backfilling = false;
+		}
+	}
+
+	/**
+	 * Extrai um lote do histrico que ficou de fora da primeira extrao de um repositrio. Quando no h mais nenhum commit pendente
+	 * disponvel e o repositrio  um clone raso, o clone  aprofundado em um passo, respeitando o limite de coletas simultneas. Enquanto
+	 * houver progresso, envia o prximo lote ao conjunto de threads.
+	 *
+	 * @param entry O repositrio.
+	 */
+	private void runBackfill(ScheduledRepository entry) {
+
+		boolean progressed = false;
+
+		try {
+			progressed = entry.extractor.backfill() > 0;
+			if (!progressed) {
+				fetchPermits.acquire();
+				try {
+					progressed = entry.extractor.deepen();
+				}
+				finally {
+					fetchPermits.release();
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException e) {
+			System.out.println("Unexpected I/O error while extracting the remaining history of " + entry.repository.getURI()
+					+ ". Retrying on the next pass...");
+			e.printStackTrace();
+		}
+		catch (RuntimeException e) {
+			System.out.println("Unexpected error while extracting the remaining history of " + entry.repository.getURI()
+					+ ". Retrying on the next pass...");
+			e.printStackTrace();
+		}
+
+		synchronized (entry) {
+			if (progressed) {
+				submitBackfill(entry);
+			}
+			else {
+				entry.backfilling = false;
+			}
+		}
+	}
+
+	/**
+	 * Um repositrio registrado no ExtractionScheduler, junto com o seu CommitExtractor e o seu tempo de espera entre coletas.
+	 */
+	private static class ScheduledRepository {
+
+		/**
+		 * O repositrio acompanhado.
+		 */
+		private final TrackedRepository repository;
+		/**
+		 * O responsvel pelas passagens de extrao do repositrio.
+		 */
+		private final CommitExtractor extractor;
+		/**
+		 * O tempo de espera entre duas coletas do repositrio.
+		 */
+		private final PollingInterval pollInterval;
+		/**
+		 * O tempo, em milisegundos, durante o qual pedidos de coleta antecipada em sequncia so agrupados.
+		 */
+		private final long coalesceWindow;
+		/**
+		 * A prxima passagem agendada, ou nulo se nenhuma passagem est agendada.
+		 */
+		private ScheduledFuture<?> nextPass;
+		/**
+		 * Indica se uma passagem est em andamento.
+		 */
+		private boolean running;
+		/**
+		 * Indica se uma coleta antecipada foi pedida durante a passagem em andamento.
+		 */
+		private boolean rerunRequested;
+		/**
+		 * Indica se o histrico que ficou de fora da primeira extrao  extrado em segundo plano.
+		 */
+		private final boolean backfill;
+		/**
+		 * Indica se a extrao em segundo plano est em andamento.
+		 */
+		private boolean backfilling;
+
+		/**
+		 * Cria um ScheduledRepository.
+		 *
+		 * @param repository O repositrio acompanhado.
+		 * @param extractor O responsvel pelas passagens de extrao do repositrio.
+		 * @param pollInterval O tempo de espera entre duas coletas do repositrio.
+		 * @param coalesceWindow O tempo, em milisegundos, durante o qual pedidos de coleta antecipada em sequncia so agrupados.
+		 * @param backfill Indica se o histrico que ficou de fora da primeira extrao  extrado em segundo plano.
+		 */
+		private ScheduledRepository(TrackedRepository repository, CommitExtractor extractor, PollingInterval pollInterval,
+				long coalesceWindow, boolean backfill) {
+			this.repository = repository;
+			this.extractor = extractor;
+			this.pollInterval = pollInterval;
+			this.coalesceWindow = coalesceWindow;
+			this.backfill = backfill;
+		}
+	}
+}
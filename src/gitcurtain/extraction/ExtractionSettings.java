@@ -0,0 +1,739 @@
+package gitcurtain.extraction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agrupa as configuraes opcionais do processo de extrao de commits. Os valores padro reproduzem o comportamento original do
+ * GitCURTAIN, e portanto somente as configuraes que precisam ser customizadas devem ser alteradas. Uma instncia deve ser preparada
+ * antes de ser passada ao mtodo beginExtraction da classe ExtractionController, e no deve ser modificada depois disso.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class ExtractionSettings {
+
+    /**
+     * O nmero de <i>workers</i> que convertem os commits extrados em objetos Commit.
+     */
+    private int poolSize;
+    /**
+     * O nmero mximo de commits em cada lote publicado durante a extrao.
+     */
+    private int batchSize;
+    /**
+     * O modo de clculo da lista de arquivos modificados por um commit.
+     */
+    private DiffMode diffMode;
+    /**
+     * O <i>backend</i> que converte os commits percorridos durante a extrao.
+     */
+    private BackendMode backendMode;
+    /**
+     * O nmero mximo de pares de arquivos comparados na deteco de arquivos renomeados, no modo LIMITED.
+     */
+    private int renameLimit;
+    /**
+     * O tamanho mximo, em bytes, de um arquivo considerado na deteco de arquivos renomeados, no modo LIMITED.
+     */
+    private long renameBlobSizeLimit;
+    /**
+     * Os nomes, ou padres de nomes, das <i>branches</i> acompanhadas alm da <i>branch</i> principal.
+     */
+    private List<String> trackedBranches;
+    /**
+     * Indica se o repositrio deve ser clonado sem <i>working tree</i>.
+     */
+    private boolean bareRepository;
+    /**
+     * O menor tempo de espera entre duas coletas, em milisegundos, quando o tempo de espera  adaptativo.
+     */
+    private long minPollInterval;
+    /**
+     * O maior tempo de espera entre duas coletas, em milisegundos, quando o tempo de espera  adaptativo.  zero quando o tempo de
+     * espera  fixo.
+     */
+    private long maxPollInterval;
+    /**
+     * O tempo, em milisegundos, durante o qual pedidos de coleta antecipada em sequncia so agrupados.
+     */
+    private long pushCoalesceWindow;
+    /**
+     * O nmero mximo de commits extrados na primeira passagem de um repositrio novo.  zero quando no h limite.
+     */
+    private int bootstrapCommits;
+    /**
+     * O nmero de dias de histrico extrados na primeira passagem de um repositrio novo.  zero quando no h limite.
+     */
+    private int bootstrapDays;
+    /**
+     * A profundidade do clone raso de um repositrio novo.  zero quando o clone  completo.
+     */
+    private int cloneDepth;
+    /**
+     * O nmero de commits buscados a cada aprofundamento de um clone raso.
+     */
+    private int deepenStep;
+    /**
+     * Os prefixos de caminhos includos no escopo da extrao.  vazio quando todos os caminhos esto includos.
+     */
+    private List<String> includedPaths;
+    /**
+     * Os prefixos de caminhos excludos do escopo da extrao.
+     */
+    private List<String> excludedPaths;
+    /**
+     * Indica se somente os primeiros pais dos commits so percorridos durante a extrao.
+     */
+    private boolean firstParent;
+    /**
+     * O <i>path</i> do espelho compartilhado com outros repositrios de histrico em comum.  nulo quando o repositrio no compartilha
+     * os seus objetos.
+     */
+    private String sharedObjectStore;
+    /**
+     * A URI do repositrio original, clonado pelo espelho compartilhado.
+     */
+    private String sharedObjectStoreURI;
+    /**
+     * O nmero de objetos soltos que dispara a manuteno do clone.  zero quando o gatilho est desativado.
+     */
+    private int maintenanceLooseObjects;
+    /**
+     * O nmero de pacotes que dispara a manuteno do clone.  zero quando o gatilho est desativado.
+     */
+    private int maintenancePackFiles;
+    /**
+     * O tempo, em milisegundos, entre duas manutenes do clone.  zero quando o gatilho est desativado.
+     */
+    private long maintenanceInterval;
+    /**
+     * O tamanho, em bytes, de cada janela de leitura dos pacotes.  zero quando o padro do JGit  utilizado.
+     */
+    private int packedGitWindowSize;
+    /**
+     * O limite, em bytes, de memria das janelas de leitura dos pacotes.  zero quando o padro do JGit  utilizado.
+     */
+    private long packedGitLimit;
+    /**
+     * Indica se os pacotes so lidos por meio de arquivos mapeados em memria.
+     */
+    private boolean packedGitMMAP;
+    /**
+     * O limite, em bytes, do <i>cache</i> das bases dos objetos comprimidos por <i>delta</i>.  zero quando o padro do JGit  utilizado.
+     */
+    private int deltaBaseCacheLimit;
+    /**
+     * Indica se o nmero de linhas adicionadas e removidas de cada arquivo modificado  calculado.
+     */
+    private boolean lineStats;
+    /**
+     * O tamanho mximo, em bytes, de um arquivo cujas linhas so contadas.
+     */
+    private long lineStatsBlobSizeLimit;
+    /**
+     * O nmero mximo de pares de arquivos guardados no <i>cache</i> das contagens de linhas.
+     */
+    private int lineStatsCacheSize;
+    /**
+     * O nmero mximo de caracteres das mensagens de commits guardadas em memria.  zero quando todas as mensagens so mantidas em
+     * memria.
+     */
+    private long messageCacheSize;
+
+    /**
+     * Cria um conjunto de configuraes com os valores padro.
+     */
+    public ExtractionSettings() {
+    	poolSize = 1;
+    	batchSize = 1000;
+    	diffMode = DiffMode.FULL;
+    	backendMode = BackendMode.JGIT;
+    	renameLimit = 400;
+    	renameBlobSizeLimit = 1024 * 1024;
+    	trackedBranches = new ArrayList<String>();
+    	bareRepository = false;
+    	minPollInterval = 0;
+    	maxPollInterval = 0;
+    	pushCoalesceWindow = 2000;
+    	bootstrapCommits = 0;
+    	bootstrapDays = 0;
+    	cloneDepth = 0;
+    	deepenStep = 0;
+    	includedPaths = new ArrayList<String>();
+    	excludedPaths = new ArrayList<String>();
+    	firstParent = false;
+    	sharedObjectStore = null;
+    	sharedObjectStoreURI = null;
+    	maintenanceLooseObjects = 0;
+    	maintenancePackFiles = 0;
+    	maintenanceInterval = 0;
+    	packedGitWindowSize = 0;
+    	packedGitLimit = 0;
+    	packedGitMMAP = false;
+    	deltaBaseCacheLimit = 0;
+    	lineStats = false;
+    	lineStatsBlobSizeLimit = 1024 * 1024;
+    	lineStatsCacheSize = 100000;
+    	messageCacheSize = 4 * 1024 * 1024;
+    }
+
+    /**
+     * Obtm o nmero de <i>workers</i> que convertem os commits extrados em objetos Commit.
+     *
+     * @return O nmero de <i>workers</i>.
+     */
+    public int getPoolSize() {
+    	return poolSize;
+    }
+
+    /**
+     * Determina o nmero de <i>workers</i> que convertem os commits extrados em objetos Commit. Com o valor 1 (padro), a converso 
+     * feita sequencialmente pela prpria thread de extrao.
+     *
+     * @param poolSize O nmero de <i>workers</i>.
+     */
+    public void setPoolSize(int poolSize) {
+    	this.poolSize = poolSize;
+    }
+
+    /**
+     * Obtm o nmero mximo de commits em cada lote publicado durante a extrao.
+     *
+     * @return O tamanho dos lotes.
+     */
+    public int getBatchSize() {
+    	return batchSize;
+    }
+
+    /**
+     * Determina o nmero mximo de commits em cada lote publicado durante a extrao. Cada lote  gravado no banco de dados e enviado
+     * ao clculo de mtricas assim que  convertido, sem esperar pelo resto do histrico. O padro  1000.
+     *
+     * @param batchSize O tamanho dos lotes.
+     */
+    public void setBatchSize(int batchSize) {
+    	this.batchSize = batchSize;
+    }
+
+    /**
+     * Obtm o modo de clculo da lista de arquivos modificados por um commit.
+     *
+     * @return O modo de clculo.
+     */
+    public DiffMode getDiffMode() {
+    	return diffMode;
+    }
+
+    /**
+     * Determina o modo de clculo da lista de arquivos modificados por um commit. O padro  FULL.
+     *
+     * @param diffMode O modo de clculo.
+     */
+    public void setDiffMode(DiffMode diffMode) {
+    	this.diffMode = diffMode;
+    }
+
+    /**
+     * Obtm o nmero mximo de pares de arquivos comparados na deteco de arquivos renomeados, no modo LIMITED.
+     *
+     * @return O nmero mximo de pares.
+     */
+    public int getRenameLimit() {
+    	return renameLimit;
+    }
+
+    /**
+     * Determina o nmero mximo de pares de arquivos comparados na deteco de arquivos renomeados, no modo LIMITED. Acima deste limite,
+     * somente arquivos renomeados sem alterao de contedo so detectados. O padro  400.
+     *
+     * @param renameLimit O nmero mximo de pares.
+     */
+    public void setRenameLimit(int renameLimit) {
+    	this.renameLimit = renameLimit;
+    }
+
+    /**
+     * Obtm o tamanho mximo, em bytes, de um arquivo considerado na deteco de arquivos renomeados, no modo LIMITED.
+     *
+     * @return O tamanho mximo, em bytes.
+     */
+    public long getRenameBlobSizeLimit() {
+    	return renameBlobSizeLimit;
+    }
+
+    /**
+     * Determina o tamanho mximo, em bytes, de um arquivo considerado na deteco de arquivos renomeados, no modo LIMITED. Arquivos
+     * maiores aparecem como uma remoo e uma adio. O padro  1 MiB.
+     *
+     * @param renameBlobSizeLimit O tamanho mximo, em bytes.
+     */
+    public void setRenameBlobSizeLimit(long renameBlobSizeLimit) {
+    	this.renameBlobSizeLimit = renameBlobSizeLimit;
+    }
+
+    /**
+     * Obtm os nomes, ou padres de nomes, das <i>branches</i> acompanhadas alm da <i>branch</i> principal.
+     *
+     * @return A lista de nomes ou padres.
+     */
+    public List<String> getTrackedBranches() {
+    	return trackedBranches;
+    }
+
+    /**
+     * Determina os nomes das <i>branches</i> acompanhadas alm da <i>branch</i> principal (e.g., release/1.0). Os nomes podem conter o
+     * caractere '*', que representa qualquer sequncia de caracteres (e.g., release/*). Todas as <i>branches</i> so percorridas na mesma
+     * passagem de extrao, e os commits em comum entre elas so extrados e guardados somente uma vez. A associao entre os commits e as
+     * <i>branches</i>  guardada separadamente no banco de dados. O padro  uma lista vazia, ou seja, somente a <i>branch</i> principal
+     *  acompanhada.
+     *
+     * @param trackedBranches A lista de nomes ou padres.
+     */
+    public void setTrackedBranches(List<String> trackedBranches) {
+    	this.trackedBranches = trackedBranches;
+    }
+
+    /**
+     * Verifica se o repositrio deve ser clonado sem <i>working tree</i>.
+     *
+     * @return true se o repositrio deve ser clonado sem <i>working tree</i>.
+     */
+    public boolean isBareRepository() {
+    	return bareRepository;
+    }
+
+    /**
+     * Determina se o repositrio deve ser clonado sem <i>working tree</i> (<i>bare</i>). Neste modo, nenhum arquivo do repositrio 
+     * escrito no disco: cada coleta somente atualiza os objetos e as referncias das <i>branches</i>, e a extrao l tudo diretamente
+     * do banco de objetos do Git. Isso reduz o tempo do clone, o espao em disco e o custo de cada coleta, especialmente em repositrios
+     * grandes. Esta configurao somente tem efeito quando passada ao mtodo setUpRepository da classe ExtractionController ou ao
+     * ExtractionScheduler. O padro  false.
+     *
+     * @param bareRepository true se o repositrio deve ser clonado sem <i>working tree</i>.
+     */
+    public void setBareRepository(boolean bareRepository) {
+    	this.bareRepository = bareRepository;
+    }
+
+    /**
+     * Obtm o menor tempo de espera entre duas coletas, quando o tempo de espera  adaptativo.
+     *
+     * @return O menor tempo de espera, em milisegundos.
+     */
+    public long getMinPollInterval() {
+    	return minPollInterval;
+    }
+
+    /**
+     * Obtm o maior tempo de espera entre duas coletas, quando o tempo de espera  adaptativo.
+     *
+     * @return O maior tempo de espera, em milisegundos, ou zero se o tempo de espera  fixo.
+     */
+    public long getMaxPollInterval() {
+    	return maxPollInterval;
+    }
+
+    /**
+     * Torna o tempo de espera entre duas coletas adaptativo, dentro dos limites especificados. O tempo de espera passado ao mtodo
+     * beginExtraction passa a ser somente o valor inicial: a cada coleta que encontra commits novos, o tempo de espera  reduzido pela
+     * metade, e a cada coleta sem commits novos,  dobrado. Com o maior tempo de espera igual a zero (padro), o tempo de espera  fixo.
+     *
+     * @param minPollInterval O menor tempo de espera, em milisegundos.
+     * @param maxPollInterval O maior tempo de espera, em milisegundos.
+     */
+    public void setPollIntervalBounds(long minPollInterval, long maxPollInterval) {
+    	this.minPollInterval = minPollInterval;
+    	this.maxPollInterval = maxPollInterval;
+    }
+
+    /**
+     * Obtm o tempo durante o qual pedidos de coleta antecipada em sequncia so agrupados.
+     *
+     * @return O tempo, em milisegundos.
+     */
+    public long getPushCoalesceWindow() {
+    	return pushCoalesceWindow;
+    }
+
+    /**
+     * Determina o tempo durante o qual pedidos de coleta antecipada em sequncia (e.g., notificaes de vrios <i>pushes</i> recebidas
+     * pelo WebhookServer) so agrupados em uma nica coleta. O padro  2000 milisegundos.
+     *
+     * @param pushCoalesceWindow O tempo, em milisegundos.
+     */
+    public void setPushCoalesceWindow(long pushCoalesceWindow) {
+    	this.pushCoalesceWindow = pushCoalesceWindow;
+    }
+
+    /**
+     * Obtm o nmero mximo de commits extrados na primeira passagem de um repositrio novo.
+     *
+     * @return O nmero de commits, ou zero quando no h limite.
+     */
+    public int getBootstrapCommits() {
+    	return bootstrapCommits;
+    }
+
+    /**
+     * Obtm o nmero de dias de histrico extrados na primeira passagem de um repositrio novo.
+     *
+     * @return O nmero de dias, ou zero quando no h limite.
+     */
+    public int getBootstrapDays() {
+    	return bootstrapDays;
+    }
+
+    /**
+     * Verifica se a primeira passagem de um repositrio novo  limitada a uma janela do histrico recente.
+     *
+     * @return true se algum limite da janela foi configurado.
+     */
+    public boolean hasBootstrapWindow() {
+    	return bootstrapCommits > 0 || bootstrapDays > 0;
+    }
+
+    /**
+     * Limita a primeira passagem de um repositrio novo a uma janela do histrico recente, para que as mtricas fiquem disponveis sem
+     * esperar pela extrao de todo o histrico. A extrao para no primeiro limite alcanado, e o restante do histrico  extrado em
+     * segundo plano, um lote por vez, com as mtricas sendo atualizadas a cada lote. Com os dois limites iguais a zero (padro), todo o
+     * histrico  extrado na primeira passagem.
+     *
+     * @param maxCommits O nmero mximo de commits da janela, ou zero para nenhum limite.
+     * @param maxDays O nmero de dias de histrico da janela, contados a partir do momento da extrao, ou zero para nenhum limite.
+     */
+    public void setBootstrapWindow(int maxCommits, int maxDays) {
+    	this.bootstrapCommits = maxCommits;
+    	this.bootstrapDays = maxDays;
+    }
+
+    /**
+     * Obtm a profundidade do clone raso de um repositrio novo.
+     *
+     * @return A profundidade, em commits, ou zero quando o clone  completo.
+     */
+    public int getCloneDepth() {
+    	return cloneDepth;
+    }
+
+    /**
+     * Obtm o nmero de commits buscados a cada aprofundamento de um clone raso.
+     *
+     * @return O nmero de commits.
+     */
+    public int getDeepenStep() {
+    	return deepenStep;
+    }
+
+    /**
+     * Faz com que um repositrio novo seja clonado somente at a profundidade especificada, para que a extrao comece sem esperar pela
+     * transferncia de todo o histrico. O clone  ento aprofundado em segundo plano, um passo por vez, e os commits que passam a estar
+     * disponveis so extrados normalmente. O clone raso depende do Git instalado no sistema; sem o mesmo, o repositrio  clonado por
+     * completo. Com a profundidade igual a zero (padro), o clone  sempre completo.
+     *
+     * @param depth A profundidade do clone, em commits, ou zero para um clone completo.
+     * @param deepenStep O nmero de commits buscados a cada aprofundamento. Se for menor que um, a profundidade do clone  utilizada.
+     */
+    public void setShallowClone(int depth, int deepenStep) {
+    	this.cloneDepth = depth;
+    	this.deepenStep = deepenStep > 0 ? deepenStep : depth;
+    }
+
+    /**
+     * Verifica se a primeira extrao de um repositrio novo  parcial, seja por uma janela de extrao inicial, seja por um clone raso.
+     * Neste caso, o restante do histrico  extrado em segundo plano.
+     *
+     * @return true se o restante do histrico  extrado em segundo plano.
+     */
+    public boolean hasPartialBootstrap() {
+    	return hasBootstrapWindow() || cloneDepth > 0;
+    }
+
+    /**
+     * Obtm os prefixos de caminhos includos no escopo da extrao.
+     *
+     * @return A lista de prefixos, que  vazia quando todos os caminhos esto includos.
+     */
+    public List<String> getIncludedPaths() {
+    	return includedPaths;
+    }
+
+    /**
+     * Obtm os prefixos de caminhos excludos do escopo da extrao.
+     *
+     * @return A lista de prefixos.
+     */
+    public List<String> getExcludedPaths() {
+    	return excludedPaths;
+    }
+
+    /**
+     * Verifica se a extrao  restrita a um escopo de caminhos.
+     *
+     * @return true se algum prefixo includo ou excludo foi configurado.
+     */
+    public boolean hasPathScope() {
+    	return !includedPaths.isEmpty() || !excludedPaths.isEmpty();
+    }
+
+    /**
+     * Restringe a extrao a um escopo de caminhos do repositrio (e.g., alguns servios de um <i>monorepo</i>). Um caminho est no
+     * escopo quando est dentro de algum prefixo includo e fora de todos os prefixos excludos. Os commits que no modificam nenhum
+     * arquivo do escopo no so convertidos nem guardados, e a lista de arquivos modificados dos outros commits somente contm os
+     * arquivos do escopo. O padro so duas listas vazias, ou seja, todos os caminhos esto no escopo.
+     *
+     * @param includedPaths Os prefixos includos (e.g., services/billing), ou uma lista vazia para incluir todos os caminhos.
+     * @param excludedPaths Os prefixos excludos (e.g., services/billing/generated).
+     */
+    public void setPathScope(List<String> includedPaths, List<String> excludedPaths) {
+    	this.includedPaths = includedPaths;
+    	this.excludedPaths = excludedPaths;
+    }
+
+    /**
+     * Verifica se somente os primeiros pais dos commits so percorridos durante a extrao.
+     *
+     * @return true se somente os primeiros pais so percorridos.
+     */
+    public boolean isFirstParent() {
+    	return firstParent;
+    }
+
+    /**
+     * Determina se somente os primeiros pais dos commits so percorridos durante a extrao (como em um "git log --first-parent"). Neste
+     * modo, os commits das <i>branches</i> que foram mescladas no so extrados, e a lista de arquivos modificados de um commit de
+     * <i>merge</i> contm todas as alteraes trazidas pela <i>branch</i> mesclada. O padro  false, ou seja, todos os commits
+     * alcanveis so extrados.
+     *
+     * @param firstParent true para percorrer somente os primeiros pais.
+     */
+    public void setFirstParent(boolean firstParent) {
+    	this.firstParent = firstParent;
+    }
+
+    /**
+     * Obtm o <i>path</i> do espelho compartilhado com outros repositrios de histrico em comum.
+     *
+     * @return O <i>path</i> do espelho, ou nulo quando o repositrio no compartilha os seus objetos.
+     */
+    public String getSharedObjectStore() {
+    	return sharedObjectStore;
+    }
+
+    /**
+     * Obtm a URI do repositrio original, clonado pelo espelho compartilhado.
+     *
+     * @return A URI do repositrio original.
+     */
+    public String getSharedObjectStoreURI() {
+    	return sharedObjectStoreURI;
+    }
+
+    /**
+     * Faz com que um repositrio novo compartilhe os objetos do repositrio original por meio de um espelho <i>bare</i>, utilizado
+     * tambm por outros repositrios de histrico em comum (e.g., vrios <i>forks</i> do mesmo projeto). O espelho  clonado na primeira
+     * vez em que  utilizado, e o repositrio aponta para os objetos do mesmo por meio do mecanismo de <i>alternates</i> do Git, ento
+     * somente os objetos exclusivos do repositrio so buscados e guardados. Os repositrios j existentes no so alterados. O padro 
+     * nenhum espelho, ou seja, cada repositrio guarda todos os seus objetos.
+     *
+     * @param path O <i>path</i> do espelho, que deve ser o mesmo para todos os repositrios que o compartilham.
+     * @param upstreamURI A URI do repositrio original.
+     */
+    public void setSharedObjectStore(String path, String upstreamURI) {
+    	this.sharedObjectStore = path;
+    	this.sharedObjectStoreURI = upstreamURI;
+    }
+
+    /**
+     * Obtm o nmero de objetos soltos que dispara a manuteno do clone.
+     *
+     * @return O nmero de objetos, ou zero quando o gatilho est desativado.
+     */
+    public int getMaintenanceLooseObjects() {
+    	return maintenanceLooseObjects;
+    }
+
+    /**
+     * Obtm o nmero de pacotes que dispara a manuteno do clone.
+     *
+     * @return O nmero de pacotes, ou zero quando o gatilho est desativado.
+     */
+    public int getMaintenancePackFiles() {
+    	return maintenancePackFiles;
+    }
+
+    /**
+     * Obtm o tempo entre duas manutenes do clone.
+     *
+     * @return O tempo, em milisegundos, ou zero quando o gatilho est desativado.
+     */
+    public long getMaintenanceInterval() {
+    	return maintenanceInterval;
+    }
+
+    /**
+     * Determina os gatilhos da manuteno do clone do repositrio, que compacta as referncias, junta os objetos soltos e os pacotes em
+     * um nico pacote com ndice de <i>bitmaps</i>, e remove os objetos inalcanveis antigos. A manuteno  feita em segundo plano,
+     * depois de uma coleta sem commits novos, quando qualquer um dos gatilhos  alcanado. A durao e o espao liberado por cada
+     * manuteno so registrados. Com todos os gatilhos iguais a zero (padro), a manuteno nunca  feita.
+     *
+     * @param looseObjects O nmero de objetos soltos que dispara a manuteno, ou zero para desativar o gatilho.
+     * @param packFiles O nmero de pacotes que dispara a manuteno, ou zero para desativar o gatilho.
+     * @param interval O tempo, em milisegundos, entre duas manutenes, ou zero para desativar o gatilho.
+     */
+    public void setMaintenanceTriggers(int looseObjects, int packFiles, long interval) {
+    	this.maintenanceLooseObjects = looseObjects;
+    	this.maintenancePackFiles = packFiles;
+    	this.maintenanceInterval = interval;
+    }
+
+    /**
+     * Obtm o tamanho de cada janela de leitura dos pacotes.
+     *
+     * @return O tamanho, em bytes, ou zero quando o padro do JGit  utilizado.
+     */
+    public int getPackedGitWindowSize() {
+    	return packedGitWindowSize;
+    }
+
+    /**
+     * Obtm o limite de memria das janelas de leitura dos pacotes.
+     *
+     * @return O limite, em bytes, ou zero quando o padro do JGit  utilizado.
+     */
+    public long getPackedGitLimit() {
+    	return packedGitLimit;
+    }
+
+    /**
+     * Verifica se os pacotes so lidos por meio de arquivos mapeados em memria.
+     *
+     * @return true se os pacotes so mapeados em memria.
+     */
+    public boolean isPackedGitMMAP() {
+    	return packedGitMMAP;
+    }
+
+    /**
+     * Obtm o limite do <i>cache</i> das bases dos objetos comprimidos por <i>delta</i>.
+     *
+     * @return O limite, em bytes, ou zero quando o padro do JGit  utilizado.
+     */
+    public int getDeltaBaseCacheLimit() {
+    	return deltaBaseCacheLimit;
+    }
+
+    /**
+     * Verifica se o <i>cache</i> de objetos do JGit foi configurado.
+     *
+     * @return true se algum valor do <i>cache</i> de objetos foi configurado.
+     */
+    public boolean hasObjectCacheSettings() {
+    	return packedGitWindowSize > 0 || packedGitLimit > 0 || packedGitMMAP || deltaBaseCacheLimit > 0;
+    }
+
+    /**
+     * Configura o <i>cache</i> de objetos do JGit, por onde passam as leituras dos pacotes durante a extrao e as comparaes de
+     * rvores. O <i>cache</i>  nico para todo o processo, ento as configuraes so aplicadas quando o repositrio  preparado e
+     * valem para todos os repositrios acompanhados. Os contadores do <i>cache</i> podem ser lidos pela classe ObjectCache. Os valores
+     * iguais a zero (padro) mantm o padro do JGit.
+     *
+     * @param windowSize O tamanho, em bytes, de cada janela de leitura dos pacotes. Deve ser uma potncia de 2 de pelo menos 4 KiB.
+     * @param cacheLimit O limite, em bytes, de memria das janelas de leitura dos pacotes.
+     * @param mmap true para ler os pacotes por meio de arquivos mapeados em memria.
+     * @param deltaBaseCacheLimit O limite, em bytes, do <i>cache</i> das bases dos objetos comprimidos por <i>delta</i>, de cada leitor
+     * de objetos.
+     */
+    public void setObjectCache(int windowSize, long cacheLimit, boolean mmap, int deltaBaseCacheLimit) {
+    	this.packedGitWindowSize = windowSize;
+    	this.packedGitLimit = cacheLimit;
+    	this.packedGitMMAP = mmap;
+    	this.deltaBaseCacheLimit = deltaBaseCacheLimit;
+    }
+
+    /**
+     * Verifica se o nmero de linhas adicionadas e removidas de cada arquivo modificado  calculado.
+     *
+     * @return true se as linhas so contadas.
+     */
+    public boolean isLineStats() {
+    	return lineStats;
+    }
+
+    /**
+     * Obtm o tamanho mximo de um arquivo cujas linhas so contadas.
+     *
+     * @return O tamanho mximo, em bytes.
+     */
+    public long getLineStatsBlobSizeLimit() {
+    	return lineStatsBlobSizeLimit;
+    }
+
+    /**
+     * Obtm o nmero mximo de pares de arquivos guardados no <i>cache</i> das contagens de linhas.
+     *
+     * @return O nmero mximo de pares.
+     */
+    public int getLineStatsCacheSize() {
+    	return lineStatsCacheSize;
+    }
+
+    /**
+     * Determina se o nmero de linhas adicionadas e removidas de cada arquivo modificado  calculado. As contagens so guardadas em um
+     * <i>cache</i> indexado pelo par de verses do arquivo, ento um mesmo par nunca  comparado duas vezes, mesmo quando aparece em
+     * vrias <i>branches</i>, em um <i>cherry-pick</i> ou em uma reverso. Os arquivos binrios e os arquivos maiores que o tamanho
+     * mximo no tm as suas linhas contadas. O padro  no contar as linhas, com um tamanho mximo de 1 MiB e um <i>cache</i> de
+     * 100000 pares.
+     *
+     * @param enabled true para contar as linhas.
+     * @param blobSizeLimit O tamanho mximo, em bytes, de um arquivo cujas linhas so contadas.
+     * @param cacheSize O nmero mximo de pares de arquivos guardados no <i>cache</i>.
+     */
+    public void setLineStats(boolean enabled, long blobSizeLimit, int cacheSize) {
+    	this.lineStats = enabled;
+    	this.lineStatsBlobSizeLimit = blobSizeLimit;
+    	this.lineStatsCacheSize = cacheSize;
+    }
+
+    /**
+     * Obtm o nmero mximo de caracteres das mensagens de commits guardadas em memria.
+     *
+     * @return O nmero mximo de caracteres, ou zero caso todas as mensagens sejam mantidas em memria.
+     */
+    public long getMessageCacheSize() {
+    	return messageCacheSize;
+    }
+
+    /**
+     * Determina o nmero mximo de caracteres das mensagens de commits guardadas em memria. As mensagens no so carregadas na
+     * inicializao; somente as mensagens lidas recentemente pelas mtricas ficam em um <i>cache</i>, e as demais so carregadas sob
+     * demanda do banco de dados ou do Git. Com o valor zero, todas as mensagens so carregadas na inicializao e mantidas em memria.
+     * O padro  um <i>cache</i> de 4194304 caracteres. Deve ser configurado antes da inicializao do ExtractionController.
+     *
+     * @param maxChars O nmero mximo de caracteres, ou zero para manter todas as mensagens em memria.
+     */
+    public void setMessageCacheSize(long maxChars) {
+    	this.messageCacheSize = maxChars;
+    }
+
+    /**
+     * Obtm o <i>backend</i> que converte os commits percorridos durante a extrao.
+     *
+     * @return O <i>backend</i>.
+     */
+    public BackendMode getBackendMode() {
+    	return backendMode;
+    }
+
+    /**
+     * Determina o <i>backend</i> que converte os commits percorridos durante a extrao. O <i>backend</i> GIT_CLI depende do Git
+     * instalado no sistema, e  indicado para a extrao inicial de histricos grandes. O conjunto de <i>workers</i> no  utilizado por
+     * esse <i>backend</i>. O padro  JGIT.
+     *
+     * @param backendMode O <i>backend</i>.
+     */
+    public void setBackendMode(BackendMode backendMode) {
+    	this.backendMode = backendMode;
+    }
+
+}
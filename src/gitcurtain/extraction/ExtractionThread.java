@@ -1,28 +1,11 @@
 package gitcurtain.extraction;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.PullCommand;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.DiffFormatter;
-import org.eclipse.jgit.diff.RawTextComparator;
-import org.eclipse.jgit.errors.IncorrectObjectTypeException;
-import org.eclipse.jgit.errors.MissingObjectException;
-import org.eclipse.jgit.lib.PersonIdent;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
-import org.eclipse.jgit.util.io.DisabledOutputStream;
+import org.eclipse.jgit.api.errors.GitAPIException;
 
-import gitcurtain.exceptions.InvalidEnumIDException;
-import gitcurtain.utils.Commit;
-import gitcurtain.utils.CommitVariables;
 import gitcurtain.utils.ExtractionMetricsSync;
 
 /**
@@ -36,256 +19,194 @@ import gitcurtain.utils.ExtractionMetricsSync;
 public class ExtractionThread extends Thread {
 	
     /**
-     * O repositrio Git de onde os dados esto sendo extrados.
+     * O repositrio acompanhado de onde os dados esto sendo extrados, compartilhado com o ExtractionController.
      */
-    private Git git;
+    private TrackedRepository repository;
     /**
-     * O commit mais recentemente extrado do repositrio.
+     * A durao de espera entre duas checagens de novos commits no repositrio, que pode se adaptar  atividade do repositrio.
      */
-    private Commit lastCommit;
+    private PollingInterval duration;
     /**
-     * O token de autenticao do usurio.
+     * Permite que a espera entre duas coletas seja interrompida por um pedido de coleta antecipada.
      */
-    private String token;
+    private ExtractionTrigger trigger;
     /**
-     * O nome da branch principal do repositrio.
+     * O responsvel pelas passagens de extrao, que converte e publica os commits novos em lotes.
      */
-    private String branchName;
+    private CommitExtractor extractor;
     /**
-     * A durao de espera entre duas checagens de novos commits no repositrio.
+     * As configuraes da extrao.
      */
-    private long duration;
+    private ExtractionSettings settings;
     /**
      * O objeto de sincronizao entre o ExtractionThread e o MetricThread.
      */
     private ExtractionMetricsSync syncLock;
+    /**
+     * A thread de baixa prioridade que extrai o histrico que ficou de fora da primeira extrao, aprofundando o clone raso se preciso.
+     *  nula quando nenhuma extrao em segundo plano foi iniciada.
+     */
+    private Thread backfillThread;
     
     /**
      * Constri um ExtractionThread. Recebe somente o repositrio como parmetro, e usa um tempo de espera padro (3 horas).  possvel
      * tambm suprir uma durao customizada por uma variao deste mtodo
      * 
-     * @param git O repositrio Git de onde os dados sero extrados
+     * @param repository O repositrio de onde os dados sero extrados
      */
-    public ExtractionThread(Git git, String token, String branchName) {
-    	this.git = git;
-    	this.token = token;
-    	this.branchName = branchName;
-    	duration = 12000000; //3 horas
-    	lastCommit = ExtractionController.getLatestCommit();
-    	syncLock = ExtractionMetricsSync.getInstance();
+    public ExtractionThread(TrackedRepository repository) {
+    	this(repository, 12000000); //3 horas
     }
     
     /**
      * Constri um ExtractionThread. Recebe o repositrio e um tempo de espera customizados como parmetro.  possvel tambm no suprir
      * uma durao customizada por uma variao deste mtodo, que usa um tempo de espera padro (3 horas).
      * 
-     * @param git O repositrio Git de onde os dados sero extrados
+     * @param repository O repositrio de onde os dados sero extrados
+     * @param duration O tempo de espera entre duas execues da thread.
+     */
+    public ExtractionThread(TrackedRepository repository, long duration) {
+    	this(repository, duration, new ExtractionSettings());
+    }
+    
+    /**
+     * Constri um ExtractionThread com configuraes de extrao customizadas. Com mais de um <i>worker</i>, o RevWalk somente coleta
+     * os identificadores dos commits, e cada um dos <i>workers</i> utiliza o seu prprio CommitMaterializer para convert-los, mantendo
+     * a ordem do RevWalk na lista final.
+     * 
+     * @param repository O repositrio de onde os dados sero extrados
      * @param duration O tempo de espera entre duas execues da thread.
+     * @param settings As configuraes da extrao.
      */
-    public ExtractionThread(Git git, String token, String branchName, long duration) {
-    	this.git = git;
-    	this.duration = duration;
-    	this.token = token;
-    	this.branchName = branchName;
-    	lastCommit = ExtractionController.getLatestCommit();
+    public ExtractionThread(TrackedRepository repository, long duration, ExtractionSettings settings) {
+    	this.repository = repository;
+    	this.duration = new PollingInterval(duration, settings);
+    	this.settings = settings;
+    	trigger = new ExtractionTrigger(settings.getPushCoalesceWindow());
     	syncLock = ExtractionMetricsSync.getInstance();
+    	
+    	ExecutorService workerPool = null;
+    	if (settings.getPoolSize() > 1) {
+    		workerPool = Executors.newFixedThreadPool(settings.getPoolSize(), runnable -> {
+    			Thread worker = new Thread(runnable, "gitcurtain-extraction-worker");
+    			worker.setDaemon(true);
+    			return worker;
+    		});
+    	}
+    	extractor = new CommitExtractor(repository, settings, workerPool, (source, batch) -> synchronizeCommits());
     }
     
 	/**
-	 * Obtm a lista de arquivos que foram modificados no commit em questo.
-	 * 
-	 * @param commit O commit no qual as mudanas foram feitas.
-	 * @param repo O repositrio no qual o commit foi feito.
-	 * 
-	 * @return Um ArrayList de Strings com a lista de arquivos que foram modificados no commit.
-	 * 
-	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
-	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
-	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
-	 */
-	private ArrayList<String> getModifiedFiles(RevCommit commit, Repository repo) throws MissingObjectException, IncorrectObjectTypeException, IOException {
-		
-		ArrayList<String> modifiedFiles = new ArrayList<String>();
-		
-		RevWalk rw = new RevWalk(repo);
-		RevCommit parent = null;
-		
-		if (commit.getParents().length != 0) {
-			parent = rw.parseCommit(commit.getParent(0).getId());
-		}
-		
-		DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE);
-		df.setRepository(repo);
-		df.setDiffComparator(RawTextComparator.DEFAULT);
-		df.setDetectRenames(true);
-		List<DiffEntry> diffs = null;
-		
-		if (parent != null) {
-			diffs = df.scan(parent.getTree(), commit.getTree());
-		}
-		else {
-			diffs = df.scan(null, commit.getTree());
-		}
-		
-		for (DiffEntry diff : diffs) {
-			modifiedFiles.add(diff.getNewPath());
-		}
-		
-		rw.close();
-		df.close();
-		
-		return modifiedFiles;
-	}
-	
-	/**
-	 * Extrai todos os commits a partir de um commit especfico (at o commit mais recente).
-	 * 
-	 * @param commit O commit mais antigo a ser extrado neste conjunto.
-	 * @param repo O repositrio no qual os commits esto sendo extrados de.
-	 * 
-	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
-	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
-	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 * Pede que a prxima coleta seja feita imediatamente, sem esperar pelo fim do tempo de espera. Pedidos feitos em sequncia so
+	 * agrupados em uma nica coleta.  utilizado pelo WebhookServer quando um <i>push</i>  anunciado.
 	 */
-	private void extractCommitsFrom(RevCommit commit, Repository repo) throws MissingObjectException, IncorrectObjectTypeException, IOException {
-		
-		Commit newLast = setupCommit(commit, repo);
-		
-		ArrayList<Commit> newCommits = setupNewCommits(lastCommit, commit, repo);
-		
-		lastCommit = newLast;
-		
-		ExtractionController.addCommits(newCommits);
-		synchronizeCommits();
+	public void requestExtraction() {
+		trigger.request();
 	}
 	
 	/**
-	 * Recebe um objeto RevCommit do JGit, e cria um objeto Commit do GitCURTAIN equivalente.
-	 * 
-	 * @param commit O commit a ser convertido para a classe Commit.
-	 * @param repo O repositrio no qual os commits esto sendo extrados de.
-	 * 
-	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
-	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
-	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 * Inicia a extrao em segundo plano do histrico pendente, caso a mesma ainda no esteja em andamento. Quando no h mais nenhum
+	 * commit pendente disponvel e o repositrio  um clone raso, o clone  aprofundado em um passo e a extrao continua. A thread tem
+	 * prioridade mnima e extrai um lote por vez, ento as coletas de commits novos somente esperam pelo lote em andamento. As mtricas
+	 * so atualizadas a cada lote extrado.
 	 */
-	private Commit setupCommit(RevCommit commit, Repository repo) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+	private void startBackfill() {
 		
-		String message = commit.getFullMessage();
-		String hash = commit.getName();
-		PersonIdent author = commit.getAuthorIdent();
-		String authorName = author.getName();
-		Date authoringDate = author.getWhen();
-		PersonIdent committer = commit.getCommitterIdent();
-		String committerName = commit.getName();
-		Date commitDate = committer.getWhen();
-		ArrayList<String> modifiedFiles = getModifiedFiles(commit, repo);
-		
-		return new Commit(message, hash, authorName, committerName, commitDate, authoringDate, modifiedFiles);
-	}
-
-	/**
-	 * Prepara um conjunto de commits para serem adicionados ao banco de dados pelo ExtractionController.
-	 * 
-	 * @param lastAnalyzed O commit analisado por ltimo.
-	 * @param commit O commit que inicia a lista de commits sendo extrados.
-	 * @param repo O repositrio de onde os commits esto sendo extrados.
-	 * 
-	 * @return Um ArrayList de Commits com os commits novos desde o commit lastAnalyzed.
-	 * 
-	 * @throws MissingObjectException  lanado quando no foi possvel encontrar um repositrio.
-	 * @throws IncorrectObjectTypeException  lanado quando houve um erro na coleta de dados do repositrio.
-	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
-	 */
-	private ArrayList<Commit> setupNewCommits(Commit lastAnalyzed, RevCommit commit, Repository repo) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+		if (backfillThread != null && backfillThread.isAlive()) {
+			return;
+		}
 		
-		RevWalk rw = new RevWalk(repo);
-		rw.markStart(commit);
-		ArrayList<Commit> commitList = new ArrayList<Commit>();
-
-		for (RevCommit current : rw) {
-			
+		backfillThread = new Thread(() -> {
 			try {
-				
-				if (lastAnalyzed != null) {
-					if (current.getName().equals((String) lastAnalyzed.getVariableByEnum(CommitVariables.HASH))) {
-						break;
-					}
+				while (extractor.backfill() > 0 || extractor.deepen()) {
+					Thread.yield();
 				}
-			
-				Commit addedCommit = setupCommit(current, repo);
-				commitList.add(addedCommit);
 			}
-			catch (InvalidEnumIDException e) {
-				System.out.println("An unexpected error ocurred while accessing commit data. Please try again later, and double check the"
-	        			+ " Enum variables used for any access to commit data.");
+			catch (IOException e) {
+				System.out.println("Unexpected I/O error while extracting the remaining history. Retrying on the next update...");
 				e.printStackTrace();
 			}
+		}, "gitcurtain-backfill");
+		backfillThread.setDaemon(true);
+		backfillThread.setPriority(Thread.MIN_PRIORITY);
+		backfillThread.start();
+	}
+	
+	/**
+	 * Faz a manuteno do clone do repositrio durante um perodo ocioso, caso algum dos gatilhos das configuraes tenha sido alcanado.
+	 * Um erro na manuteno no interrompe as coletas.
+	 */
+	private void maintainRepository() {
+		try {
+			extractor.maintain();
+		}
+		catch (GitAPIException | IOException e) {
+			System.out.println("Unexpected error during repository maintenance. Retrying on the next idle period...");
+			e.printStackTrace();
 		}
-		
-		rw.close();
-		
-		return commitList;
 	}
-
+	
 	/**
 	 * Sincroniza os commits entre o ExtractionThread e o MetricThread, fazendo com que as mtricas sejam calculadas novamente.
 	 */
 	private void synchronizeCommits() {
-		syncLock.setCommitList(ExtractionController.getAllCommits());
+		syncLock.setCommitView(repository.getCommitView());
 	}
     
     /**
-     * Inicia a thread, fazendo com que os commits sejam extrados sempre que houver uma nova atualizao no repositrio.
+     * Inicia a thread, fazendo com que os commits sejam extrados sempre que houver uma nova atualizao no repositrio. A cada coleta, as
+     * referncias anunciadas pelo repositrio remoto so consultadas primeiro, e a atualizao e a extrao somente so feitas se alguma
+     * <i>branch</i> acompanhada mudou. Um repositrio <i>bare</i> somente busca os objetos e as referncias novas, sem nenhuma escrita
+     * de arquivos na <i>working tree</i>. Com uma janela de extrao inicial ou um clone raso, o histrico restante  extrado em
+     * segundo plano. Depois de uma coleta sem commits novos, a manuteno do clone  feita caso algum dos seus gatilhos tenha sido
+     * alcanado.
      */
     public void run() {
-    	
-    	PullCommand pull = git.pull();
-    	pull.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
-		pull.setRemote("origin");
-		pull.setRemoteBranchName(branchName);
-		
-		try {
-			pull.call();
-		} catch (Exception e) {
-			System.out.println("Unexpected error in extraction process. Please terminate the program.");
-			throw new RuntimeException(e);
-		}
-		
-		Repository repo = git.getRepository();
 		
 		while (true) {
 			
+			boolean changed = true;
+			int extracted = 0;
+			
+			try {
+				changed = extractor.needsUpdate();
+			}
+			catch (GitAPIException | IOException e) {
+				System.out.println("Unexpected error while checking the remote repository for changes. Updating anyway...");
+				e.printStackTrace();
+			}
+			
+			if (changed) {
+				try {
+					repository.update();
+				}
+				catch (GitAPIException e) {
+					System.out.println("Unexpected error occured in the Git API. Retrying...");
+					e.printStackTrace();
+				}
+			}
+			
 			try {
 				
-				RevWalk revWalk = new RevWalk(repo);
-				Ref head = repo.exactRef("refs/heads/" + branchName);
-				RevCommit commit = revWalk.parseCommit(head.getObjectId());
-				
-				if (lastCommit != null) {
-					if (!commit.getName().contentEquals((String) lastCommit.getVariableByEnum(CommitVariables.HASH))) {
-						extractCommitsFrom(commit, repo);
-					}
-					else {
-						synchronizeCommits();
-					}
+				if (changed) {
+					extracted = extractor.extractBranches();
 				}
-				else {
-					extractCommitsFrom(commit, repo);
+				if (extracted == 0) {
+					synchronizeCommits();
+				}
+				if (settings.hasPartialBootstrap() && extractor.hasRemainingHistory()) {
+					startBackfill();
+				}
+				else if (extracted == 0) {
+					maintainRepository();
 				}
 				
-				revWalk.close();
-				sleep(duration);
+				trigger.await(duration.next(extracted > 0));
 			}
 			catch (IOException e) {
 				System.out.println("Unexpected I/O error. Retrying...");
 				e.printStackTrace();
 			}
-			catch (InvalidEnumIDException e) {
-				System.out.println("An unexpected error ocurred while accessing commit data. Please try again later, and double check the"
-	        			+ " Enum variables used for any access to commit data. Retrying...");
-				e.printStackTrace();
-			}
 			catch (InterruptedException e) {
 				System.out.println("Unexpected interruption from thread. Retrying...");
 				e.printStackTrace();
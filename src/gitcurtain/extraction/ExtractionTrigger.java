@@ -0,0 +1,91 @@
+package gitcurtain.extraction;
+
+/**
+ * Permite que a espera entre duas coletas de um repositrio seja interrompida antes do tempo, por exemplo quando um <i>push</i> 
+ * anunciado pelo WebhookServer. Pedidos feitos em sequncia so agrupados: depois do primeiro pedido, a espera continua por uma curta
+ * janela de tempo, e todos os pedidos recebidos at o fim da janela resultam em uma nica coleta. Pedidos feitos durante uma coleta
+ * resultam em uma nova coleta logo depois da atual. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo
+ * sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class ExtractionTrigger {
+
+	/**
+	 * O <i>lock</i> que protege o pedido pendente.
+	 */
+	private final Object LOCK = new Object();
+	/**
+	 * Indica se h um pedido de coleta pendente.
+	 */
+	private boolean requested;
+	/**
+	 * O tempo, em milisegundos, durante o qual pedidos em sequncia so agrupados.
+	 */
+	private long coalesceWindow;
+
+	/**
+	 * Cria um ExtractionTrigger.
+	 *
+	 * @param coalesceWindow O tempo, em milisegundos, durante o qual pedidos em sequncia so agrupados.
+	 */
+	public ExtractionTrigger(long coalesceWindow) {
+		this.coalesceWindow = coalesceWindow;
+		requested = false;
+	}
+
+	/**
+	 * Pede uma coleta antecipada.
+	 */
+	public void request() {
+		synchronized (LOCK) {
+			requested = true;
+			LOCK.notifyAll();
+		}
+	}
+
+	/**
+	 * Espera at o fim do tempo especificado ou at que uma coleta seja pedida, o que acontecer primeiro. Se uma coleta foi pedida, a
+	 * espera continua pela janela de agrupamento antes de retornar.
+	 *
+	 * @param timeout O tempo mximo de espera, em milisegundos.
+	 *
+	 * @return true se a espera foi interrompida por um pedido de coleta.
+	 *
+	 * @throws InterruptedException  lanado quando a thread  interrompida durante a espera.
+	 */
+	public boolean await(long timeout) throws InterruptedException {
+
+		long deadline = System.nanoTime() + timeout * 1000000L;
+
+		synchronized (LOCK) {
+			while (!requested) {
+				long remaining = (deadline - System.nanoTime()) / 1000000L;
+				if (remaining <= 0) {
+					return false;
+				}
+				LOCK.wait(remaining);
+			}
+		}
+
+		if (coalesceWindow > 0) {
+			Thread.sleep(coalesceWindow);
+		}
+
+		synchronized (LOCK) {
+			requested = false;
+		}
+		return true;
+	}
+
+	/**
+	 * Obtm o tempo durante o qual pedidos em sequncia so agrupados.
+	 *
+	 * @return O tempo, em milisegundos.
+	 */
+	public long getCoalesceWindow() {
+		return coalesceWindow;
+	}
+
+}
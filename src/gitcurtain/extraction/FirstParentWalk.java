@@ -0,0 +1,176 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.PriorityQueue;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import gitcurtain.utils.CommitIdSet;
+
+/**
+ * Percorre somente os primeiros pais dos commits iniciais, ignorando os commits das <i>branches</i> que foram mescladas (como em um
+ * "git log --first-parent"). Os commits de vrias cadeias so devolvidos do mais recente para o mais antigo, como no RevWalk, e uma
+ * cadeia para no primeiro commit j extrado. O JGit no oferece este modo de percurso, ento o RevWalk somente  utilizado para
+ * interpretar os commits. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class FirstParentWalk {
+
+	/**
+	 * O RevWalk utilizado para interpretar os commits. Pertence a quem criou o percurso, e no  fechado por ele.
+	 */
+	private RevWalk walker;
+	/**
+	 * O ndice de commits j extrados, onde as cadeias param.
+	 */
+	private CommitIdSet seenCommits;
+	/**
+	 * O horrio, em segundos, do commit mais antigo que pode ser devolvido.  zero quando no h limite.
+	 */
+	private int since;
+	/**
+	 * O filtro das alteraes dentro do escopo de caminhos, ou nulo quando no h escopo.
+	 */
+	private TreeFilter changeFilter;
+	/**
+	 * O TreeWalk utilizado para verificar se um commit altera algum caminho do escopo.  nulo quando no h escopo.
+	 */
+	private TreeWalk treeWalk;
+	/**
+	 * Os prximos commits de cada cadeia, ordenados do mais recente para o mais antigo.
+	 */
+	private PriorityQueue<RevCommit> queue;
+	/**
+	 * A marca dos commits que j foram colocados na fila.
+	 */
+	private RevFlag queued;
+
+	/**
+	 * Cria um FirstParentWalk.
+	 *
+	 * @param walker O RevWalk utilizado para interpretar os commits.
+	 * @param seenCommits O ndice de commits j extrados.
+	 * @param since O horrio, em segundos, do commit mais antigo que pode ser devolvido, ou zero para nenhum limite.
+	 * @param changeFilter O filtro das alteraes dentro do escopo de caminhos, ou nulo quando no h escopo.
+	 */
+	public FirstParentWalk(RevWalk walker, CommitIdSet seenCommits, int since, TreeFilter changeFilter) {
+		this.walker = walker;
+		this.seenCommits = seenCommits;
+		this.since = since;
+		this.changeFilter = changeFilter;
+		queue = new PriorityQueue<RevCommit>((a, b) -> Integer.compare(b.getCommitTime(), a.getCommitTime()));
+		queued = walker.newFlag("FIRST_PARENT_QUEUED");
+
+		if (changeFilter != null) {
+			treeWalk = new TreeWalk(walker.getObjectReader());
+		}
+	}
+
+	/**
+	 * Adiciona um commit inicial ao percurso.
+	 *
+	 * @param commit O commit inicial.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public void markStart(RevCommit commit) throws IOException {
+		enqueue(commit);
+	}
+
+	/**
+	 * Obtm o prximo commit do percurso. Os commits que no alteram nenhum caminho do escopo em relao ao primeiro pai so pulados,
+	 * mas as suas cadeias continuam a ser percorridas.
+	 *
+	 * @return O prximo commit, ou nulo quando o percurso terminou.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public RevCommit next() throws IOException {
+
+		RevCommit commit;
+
+		while ((commit = queue.poll()) != null) {
+
+			if (since > 0 && commit.getCommitTime() < since) {
+				// A fila  ordenada pelo horrio dos commits, ento todos os commits restantes tambm so antigos demais.
+				queue.clear();
+				return null;
+			}
+
+			RevCommit parent = null;
+			if (commit.getParentCount() > 0) {
+				parent = commit.getParent(0);
+				walker.parseHeaders(parent);
+				enqueue(parent);
+			}
+
+			if (changeFilter == null || changesScope(parent, commit)) {
+				return commit;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Coloca um commit na fila, caso o mesmo ainda no tenha sido extrado nem colocado na fila.
+	 *
+	 * @param commit O commit.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private void enqueue(RevCommit commit) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+		if (commit.has(queued) || seenCommits.contains(commit)) {
+			return;
+		}
+		walker.parseHeaders(commit);
+		commit.add(queued);
+		queue.add(commit);
+	}
+
+	/**
+	 * Verifica se um commit altera algum caminho do escopo em relao ao seu primeiro pai.
+	 *
+	 * @param parent O primeiro pai, ou nulo caso o commit no tenha pai.
+	 * @param commit O commit.
+	 *
+	 * @return true se algum caminho do escopo foi alterado.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private boolean changesScope(RevCommit parent, RevCommit commit) throws IOException {
+
+		treeWalk.reset();
+		treeWalk.setRecursive(changeFilter.shouldBeRecursive());
+		treeWalk.setFilter(changeFilter);
+		if (parent != null) {
+			treeWalk.addTree(parent.getTree());
+		}
+		else {
+			treeWalk.addTree(new EmptyTreeIterator());
+		}
+		treeWalk.addTree(commit.getTree());
+
+		return treeWalk.next();
+	}
+
+	/**
+	 * Libera as estruturas associadas ao percurso. O RevWalk no  fechado.
+	 */
+	public void close() {
+		walker.disposeFlag(queued);
+		if (treeWalk != null) {
+			treeWalk.close();
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package gitcurtain.extraction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executa comandos do Git instalado no sistema, para as operaes que no so suportadas pelo JGit (e.g., clones rasos e o
+ * aprofundamento dos mesmos) ou que so mais rpidas no Git (e.g., o "git log" do <i>backend</i> GIT_CLI). O token de acesso ao
+ * repositrio  passado ao Git por meio de variveis de ambiente, e nunca aparece na linha de comando. Esta classe  gerenciada pelo
+ * GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class GitCommandLine {
+
+	/**
+	 * O nome do executvel do Git.
+	 */
+	private static final String EXECUTABLE = "git";
+
+	/**
+	 * Executa um comando do Git.
+	 *
+	 * @param directory O diretrio onde o comando  executado.
+	 * @param token O token de acesso ao repositrio remoto, ou nulo.
+	 * @param arguments Os argumentos do comando (e.g., "fetch", "origin").
+	 *
+	 * @return A sada do comando.
+	 *
+	 * @throws IOException  lanado quando no  possvel executar o Git, ou quando o comando termina com erro.
+	 */
+	public static String run(File directory, String token, String... arguments) throws IOException {
+
+		ProcessBuilder builder = createBuilder(directory, token, arguments);
+		builder.redirectErrorStream(true);
+
+		Process process = builder.start();
+		String output = readOutput(process.getInputStream());
+
+		try {
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				throw new IOException("git " + arguments[0] + " failed with exit code " + exitCode + ": " + output.trim());
+			}
+		}
+		catch (InterruptedException e) {
+			process.destroy();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for git " + arguments[0] + ".");
+		}
+
+		return output;
+	}
+
+	/**
+	 * Inicia um comando do Git sem esperar pelo seu fim, para que a sada do mesmo seja lida  medida que  produzida. Os erros do
+	 * comando so escritos na sada de erros do sistema. Quem inicia o comando deve ler toda a sua sada e esperar pelo seu fim.
+	 *
+	 * @param directory O diretrio onde o comando  executado.
+	 * @param arguments Os argumentos do comando (e.g., "log", "--stdin").
+	 *
+	 * @return O processo do comando.
+	 *
+	 * @throws IOException  lanado quando no  possvel executar o Git.
+	 */
+	public static Process start(File directory, String... arguments) throws IOException {
+
+		ProcessBuilder builder = createBuilder(directory, null, arguments);
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+		return builder.start();
+	}
+
+	/**
+	 * Cria o ProcessBuilder de um comando do Git.
+	 *
+	 * @param directory O diretrio onde o comando  executado.
+	 * @param token O token de acesso ao repositrio remoto, ou nulo.
+	 * @param arguments Os argumentos do comando.
+	 *
+	 * @return O ProcessBuilder do comando.
+	 */
+	private static ProcessBuilder createBuilder(File directory, String token, String... arguments) {
+
+		List<String> command = new ArrayList<String>();
+		command.add(EXECUTABLE);
+		for (String argument : arguments) {
+			command.add(argument);
+		}
+
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.directory(directory);
+
+		Map<String, String> environment = builder.environment();
+		environment.put("GIT_TERMINAL_PROMPT", "0");
+		if (token != null && !token.isEmpty()) {
+			String credentials = Base64.getEncoder().encodeToString((token + ":").getBytes(StandardCharsets.UTF_8));
+			environment.put("GIT_CONFIG_COUNT", "1");
+			environment.put("GIT_CONFIG_KEY_0", "http.extraHeader");
+			environment.put("GIT_CONFIG_VALUE_0", "Authorization: Basic " + credentials);
+		}
+
+		return builder;
+	}
+
+	/**
+	 * L toda a sada de um comando.
+	 *
+	 * @param output A sada do processo.
+	 *
+	 * @return A sada do comando.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private static String readOutput(InputStream output) throws IOException {
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+
+		try {
+			while ((read = output.read(chunk)) != -1) {
+				buffer.write(chunk, 0, read);
+			}
+		}
+		finally {
+			output.close();
+		}
+
+		return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
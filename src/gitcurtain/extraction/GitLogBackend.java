@@ -0,0 +1,305 @@
+package gitcurtain.extraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import gitcurtain.utils.Commit;
+
+/**
+ * Um <i>backend</i> de extrao que converte os commits por meio do "git log" do Git instalado no sistema. Os identificadores de cada
+ * lote so enviados a um nico processo, e a sada do mesmo  lida campo a campo  medida que  produzida, ento a memria utilizada no
+ * depende do tamanho da sada. As alteraes de cada commit so obtidas em relao ao seu primeiro pai, como no JGit, com a deteco de
+ * arquivos renomeados do prprio Git. Quando as linhas so contadas, as verses dos arquivos informadas pelo Git so comparadas pela
+ * DiffSession, com o mesmo <i>cache</i> do JGitBackend. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada
+ * pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class GitLogBackend implements ExtractionBackend {
+
+	/**
+	 * O modo de um submdulo na sada do Git.
+	 */
+	private static final String GITLINK_MODE = "160000";
+
+	/**
+	 * O diretrio do repositrio, onde o Git  executado.
+	 */
+	private File directory;
+	/**
+	 * Os argumentos do "git log".
+	 */
+	private String[] arguments;
+	/**
+	 * O escopo de caminhos da extrao, ou nulo quando no h escopo.
+	 */
+	private PathScopeFilter scope;
+	/**
+	 * O leitor de objetos utilizado na contagem de linhas.  nulo quando as linhas no so contadas.
+	 */
+	private ObjectReader reader;
+	/**
+	 * A sesso de comparao utilizada na contagem de linhas.  nula quando as linhas no so contadas.
+	 */
+	private DiffSession diffSession;
+	/**
+	 * O <i>buffer</i> reaproveitado na leitura de cada campo da sada do Git.
+	 */
+	private ByteArrayOutputStream buffer;
+
+	/**
+	 * Cria um GitLogBackend.
+	 *
+	 * @param repo O repositrio no qual os commits esto sendo extrados de.
+	 * @param settings As configuraes da extrao.
+	 * @param lineStatsCache O <i>cache</i> das contagens de linhas do repositrio, ou nulo quando as linhas no so contadas.
+	 */
+	public GitLogBackend(Repository repo, ExtractionSettings settings, LineStatsCache lineStatsCache) {
+		directory = repo.getDirectory();
+		buffer = new ByteArrayOutputStream();
+
+		List<String> command = new ArrayList<String>();
+		command.add("log");
+		command.add("--no-walk=unsorted");
+		command.add("--stdin");
+		command.add("-z");
+		command.add("--raw");
+		command.add("--no-abbrev");
+		command.add("-m");
+		command.add("--first-parent");
+		command.add("--root");
+		command.add("--encoding=UTF-8");
+		command.add("--format=%H%x00%an%x00%cn%x00%at%x00%ct%x00%B");
+		switch (settings.getDiffMode()) {
+			case PATH_ONLY:
+				command.add("--no-renames");
+				break;
+			case LIMITED:
+				command.add("-M");
+				command.add("-l" + settings.getRenameLimit());
+				break;
+			default:
+				command.add("-M");
+				break;
+		}
+		arguments = command.toArray(new String[command.size()]);
+
+		if (settings.hasPathScope()) {
+			scope = new PathScopeFilter(settings.getIncludedPaths(), settings.getExcludedPaths());
+		}
+		if (lineStatsCache != null) {
+			reader = repo.newObjectReader();
+			diffSession = new DiffSession(reader, repo.getConfig(), settings, lineStatsCache);
+		}
+	}
+
+	/**
+	 * Converte um lote de identificadores de commits em objetos Commit do GitCURTAIN, mantendo a ordem do lote. O lote inteiro 
+	 * convertido por um nico processo do Git.
+	 *
+	 * @param commitIds O lote de identificadores dos commits, na ordem do RevWalk.
+	 *
+	 * @return Um ArrayList de Commits na mesma ordem do lote de identificadores.
+	 *
+	 * @throws IOException  lanado quando no  possvel executar o Git, quando a sada do mesmo no corresponde ao lote, ou quando
+	 * ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public ArrayList<Commit> materialize(List<ObjectId> commitIds) throws IOException {
+
+		ArrayList<Commit> commitList = new ArrayList<Commit>(commitIds.size());
+
+		if (commitIds.isEmpty()) {
+			return commitList;
+		}
+
+		Process process = GitCommandLine.start(directory, arguments);
+		boolean completed = false;
+
+		try {
+			// O Git l todos os identificadores antes de escrever a sada, ento a entrada pode ser escrita por completo antes da leitura.
+			Writer input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII));
+			try {
+				for (ObjectId id : commitIds) {
+					input.write(id.name());
+					input.write('\n');
+				}
+			}
+			finally {
+				input.close();
+			}
+
+			InputStream output = new BufferedInputStream(process.getInputStream());
+			try {
+				String field = readField(output);
+				for (ObjectId id : commitIds) {
+					if (!id.name().equals(field)) {
+						throw new IOException("Unexpected git log output while reading commit " + id.name() + ".");
+					}
+					field = readCommit(field, output, commitList);
+				}
+				if (field != null) {
+					throw new IOException("Unexpected git log output after the last commit of the batch.");
+				}
+			}
+			finally {
+				output.close();
+			}
+
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				throw new IOException("git log failed with exit code " + exitCode + ".");
+			}
+			completed = true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for git log.");
+		}
+		finally {
+			if (!completed) {
+				process.destroy();
+			}
+		}
+
+		return commitList;
+	}
+
+	/**
+	 * L os campos de um commit da sada do Git, cujo hash j foi lido, e adiciona o Commit equivalente  lista.
+	 *
+	 * @param hash O hash do commit.
+	 * @param output A sada do Git.
+	 * @param commitList A lista onde o commit  adicionado.
+	 *
+	 * @return O primeiro campo depois do commit, que  o hash do prximo commit, ou nulo ao fim da sada.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private String readCommit(String hash, InputStream output, ArrayList<Commit> commitList) throws IOException {
+
+		String authorName = readRequiredField(output);
+		String committerName = readRequiredField(output);
+		Date authoringDate = new Date(Long.parseLong(readRequiredField(output)) * 1000);
+		Date commitDate = new Date(Long.parseLong(readRequiredField(output)) * 1000);
+		String message = readRequiredField(output);
+
+		ArrayList<String> modifiedFiles = new ArrayList<String>();
+		int[] addedLines = diffSession != null ? new int[8] : null;
+		int[] deletedLines = diffSession != null ? new int[8] : null;
+
+		String field;
+		while ((field = readField(output)) != null && (field.startsWith(":") || field.startsWith("\n:"))) {
+
+			// ":<modo antigo> <modo novo> <verso antiga> <verso nova> <status>", seguido de um ou dois caminhos.
+			String[] entry = field.trim().substring(1).split(" ");
+			char status = entry[4].charAt(0);
+			String oldPath = readRequiredField(output);
+			String newPath = status == 'R' || status == 'C' ? readRequiredField(output) : oldPath;
+
+			if (scope != null && !scope.includes(status == 'D' ? oldPath : newPath)) {
+				continue;
+			}
+
+			modifiedFiles.add(status == 'D' ? DiffEntry.DEV_NULL : newPath);
+
+			if (diffSession != null) {
+				int[] counts = null;
+				if (!GITLINK_MODE.equals(entry[0]) && !GITLINK_MODE.equals(entry[1])) {
+					counts = diffSession.countLines(ObjectId.fromString(entry[2]), ObjectId.fromString(entry[3]));
+				}
+				int file = modifiedFiles.size() - 1;
+				if (file == addedLines.length) {
+					addedLines = Arrays.copyOf(addedLines, file * 2);
+					deletedLines = Arrays.copyOf(deletedLines, file * 2);
+				}
+				addedLines[file] = counts == null ? -1 : counts[0];
+				deletedLines[file] = counts == null ? -1 : counts[1];
+			}
+		}
+
+		// A quantidade de arquivos somente  conhecida no fim da sada, ento as contagens so cortadas no tamanho da lista.
+		if (diffSession != null) {
+			addedLines = Arrays.copyOf(addedLines, modifiedFiles.size());
+			deletedLines = Arrays.copyOf(deletedLines, modifiedFiles.size());
+		}
+
+		commitList.add(new Commit(message, hash, authorName, committerName, commitDate, authoringDate, modifiedFiles, addedLines,
+				deletedLines));
+
+		return field;
+	}
+
+	/**
+	 * L o prximo campo da sada do Git, que  terminado por um caractere nulo.
+	 *
+	 * @param output A sada do Git.
+	 *
+	 * @return O campo, ou nulo ao fim da sada.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private String readField(InputStream output) throws IOException {
+
+		buffer.reset();
+		int read;
+
+		while ((read = output.read()) > 0) {
+			buffer.write(read);
+		}
+
+		if (read < 0 && buffer.size() == 0) {
+			return null;
+		}
+
+		return buffer.toString(StandardCharsets.UTF_8.name());
+	}
+
+	/**
+	 * L o prximo campo da sada do Git, que deve existir.
+	 *
+	 * @param output A sada do Git.
+	 *
+	 * @return O campo.
+	 *
+	 * @throws IOException  lanado quando a sada termina antes do campo, ou quando ocorre um erro durante alguma operao de entrada e
+	 * sada de dados.
+	 */
+	private String readRequiredField(InputStream output) throws IOException {
+
+		String field = readField(output);
+		if (field == null) {
+			throw new IOException("Unexpected end of the git log output.");
+		}
+
+		return field;
+	}
+
+	/**
+	 * Libera o leitor de objetos e a sesso de comparao utilizados na contagem de linhas.
+	 */
+	public void close() {
+		if (diffSession != null) {
+			diffSession.close();
+			reader.close();
+		}
+	}
+
+}
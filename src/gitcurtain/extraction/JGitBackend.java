@@ -0,0 +1,183 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import gitcurtain.utils.Commit;
+
+/**
+ * O <i>backend</i> de extrao padro, que converte os commits por meio do JGit. Possui um CommitMaterializer para cada <i>worker</i>
+ * do conjunto de threads da extrao, e os commits de cada lote so convertidos em paralelo. Esta classe  gerenciada pelo GitCURTAIN
+ * e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class JGitBackend implements ExtractionBackend {
+
+	/**
+	 * Os CommitMaterializers da passagem de extrao, um para cada <i>worker</i>.
+	 */
+	private List<CommitMaterializer> materializers;
+	/**
+	 * O conjunto de threads que converte os commits em paralelo.  nulo quando a converso  sequencial.
+	 */
+	private ExecutorService workerPool;
+
+	/**
+	 * Cria um JGitBackend.
+	 *
+	 * @param repo O repositrio no qual os commits esto sendo extrados de.
+	 * @param settings As configuraes da extrao.
+	 * @param workerPool O conjunto de threads que converte os commits em paralelo, ou nulo para uma converso sequencial.
+	 * @param lineStatsCache O <i>cache</i> das contagens de linhas do repositrio, ou nulo quando as linhas no so contadas.
+	 */
+	public JGitBackend(Repository repo, ExtractionSettings settings, ExecutorService workerPool, LineStatsCache lineStatsCache) {
+		this.workerPool = workerPool;
+		materializers = new ArrayList<CommitMaterializer>();
+		int count = workerPool == null ? 1 : settings.getPoolSize();
+
+		for (int i = 0; i < count; i++) {
+			materializers.add(new CommitMaterializer(repo, settings, lineStatsCache));
+		}
+	}
+
+	/**
+	 * Converte um lote de identificadores de commits em objetos Commit do GitCURTAIN, mantendo a ordem do lote. Se houver um conjunto
+	 * de <i>workers</i>, cada um deles usa o seu prprio CommitMaterializer, obtm o prximo ndice ainda no convertido e grava o
+	 * resultado na mesma posio da lista final. Ao fim do lote, os commits interpretados por cada CommitMaterializer so descartados.
+	 * 
+	 * @param commitIds O lote de identificadores dos commits, na ordem do RevWalk.
+	 * 
+	 * @return Um ArrayList de Commits na mesma ordem do lote de identificadores.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public ArrayList<Commit> materialize(List<ObjectId> commitIds) throws IOException {
+		
+		try {
+			return materializeBatch(commitIds);
+		}
+		finally {
+			for (CommitMaterializer materializer : materializers) {
+				materializer.reset();
+			}
+		}
+	}
+	
+	/**
+	 * Converte um lote de identificadores de commits em objetos Commit do GitCURTAIN, sequencialmente ou por meio dos <i>workers</i>.
+	 * 
+	 * @param commitIds O lote de identificadores dos commits, na ordem do RevWalk.
+	 * 
+	 * @return Um ArrayList de Commits na mesma ordem do lote de identificadores.
+	 * 
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private ArrayList<Commit> materializeBatch(List<ObjectId> commitIds) throws IOException {
+		
+		if (workerPool == null || commitIds.size() < 2) {
+			ArrayList<Commit> commitList = new ArrayList<Commit>(commitIds.size());
+			CommitMaterializer materializer = materializers.get(0);
+			
+			for (ObjectId id : commitIds) {
+				commitList.add(materializer.materialize(id));
+			}
+			
+			return commitList;
+		}
+		
+		Commit[] results = new Commit[commitIds.size()];
+		AtomicInteger nextIndex = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<Future<Void>>();
+		
+		for (int i = 0; i < Math.min(materializers.size(), results.length); i++) {
+			CommitMaterializer materializer = materializers.get(i);
+			Callable<Void> worker = () -> {
+				int index;
+				while ((index = nextIndex.getAndIncrement()) < results.length) {
+					results[index] = materializer.materialize(commitIds.get(index));
+				}
+				return null;
+			};
+			workers.add(workerPool.submit(worker));
+		}
+		
+		try {
+			for (Future<Void> future : workers) {
+				future.get();
+			}
+		}
+		catch (ExecutionException e) {
+			nextIndex.set(results.length);
+			awaitWorkers(workers);
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+		catch (InterruptedException e) {
+			nextIndex.set(results.length);
+			awaitWorkers(workers);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the extraction workers.");
+		}
+		
+		return new ArrayList<Commit>(Arrays.asList(results));
+	}
+	
+	/**
+	 * Espera que todos os <i>workers</i> de um lote terminem, ignorando os seus resultados.  usado depois de uma falha, para que os
+	 * CommitMaterializers no sejam fechados enquanto ainda esto em uso.
+	 * 
+	 * @param workers Os <i>workers</i> do lote.
+	 */
+	private void awaitWorkers(List<Future<Void>> workers) {
+		
+		boolean interrupted = false;
+		
+		for (Future<Void> future : workers) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				}
+				catch (ExecutionException e) {
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Fecha os CommitMaterializers da passagem de extrao.
+	 */
+	public void close() {
+		for (CommitMaterializer materializer : materializers) {
+			materializer.close();
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package gitcurtain.extraction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Guarda o nmero de linhas adicionadas e removidas entre duas verses de um arquivo, indexado pelo par de identificadores das verses.
+ * Um mesmo par aparece vrias vezes no histrico (e.g., em vrias <i>branches</i> ou em um <i>cherry-pick</i>), e uma reverso  o par
+ * invertido, com as contagens trocadas. Os pares menos utilizados so descartados quando o <i>cache</i> fica cheio. Um <i>cache</i> 
+ * compartilhado por todos os <i>workers</i> de um repositrio e, portanto,  <i>thread-safe</i>. Esta classe  gerenciada pelo
+ * GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class LineStatsCache {
+
+	/**
+	 * As contagens de cada par, na ordem do ltimo acesso.
+	 */
+	private Map<BlobPair, int[]> entries;
+	/**
+	 * O nmero de consultas encontradas no <i>cache</i>.
+	 */
+	private long hits;
+	/**
+	 * O nmero de consultas no encontradas no <i>cache</i>.
+	 */
+	private long misses;
+
+	/**
+	 * Cria um LineStatsCache.
+	 *
+	 * @param maxEntries O nmero mximo de pares guardados.
+	 */
+	public LineStatsCache(int maxEntries) {
+		entries = new LinkedHashMap<BlobPair, int[]>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<BlobPair, int[]> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Obtm as contagens de um par de verses, procurando tambm o par invertido.
+	 *
+	 * @param oldId O identificador da verso antiga, ou o identificador zero caso o arquivo tenha sido adicionado.
+	 * @param newId O identificador da verso nova, ou o identificador zero caso o arquivo tenha sido removido.
+	 *
+	 * @return Um vetor com o nmero de linhas adicionadas e removidas, um vetor vazio caso as linhas do par no sejam contadas (e.g., um
+	 * arquivo binrio), ou nulo caso o par no esteja no <i>cache</i>.
+	 */
+	public synchronized int[] get(AnyObjectId oldId, AnyObjectId newId) {
+
+		int[] counts = entries.get(new BlobPair(oldId, newId));
+		if (counts != null) {
+			hits++;
+			return counts;
+		}
+
+		counts = entries.get(new BlobPair(newId, oldId));
+		if (counts != null) {
+			hits++;
+			// Um par sem contagens continua sem contagens quando invertido.
+			return counts.length == 0 ? counts : new int[] { counts[1], counts[0] };
+		}
+
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Guarda as contagens de um par de verses.
+	 *
+	 * @param oldId O identificador da verso antiga.
+	 * @param newId O identificador da verso nova.
+	 * @param counts Um vetor com o nmero de linhas adicionadas e removidas, ou um vetor vazio caso as linhas do par no sejam contadas.
+	 */
+	public synchronized void put(AnyObjectId oldId, AnyObjectId newId, int[] counts) {
+		entries.put(new BlobPair(oldId, newId), counts);
+	}
+
+	/**
+	 * Obtm o nmero de consultas encontradas no <i>cache</i>.
+	 *
+	 * @return O nmero de consultas encontradas.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Obtm o nmero de consultas no encontradas no <i>cache</i>.
+	 *
+	 * @return O nmero de consultas no encontradas.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Um par de identificadores de verses de um arquivo.
+	 */
+	private static final class BlobPair {
+
+		/**
+		 * O identificador da verso antiga.
+		 */
+		private final ObjectId oldId;
+		/**
+		 * O identificador da verso nova.
+		 */
+		private final ObjectId newId;
+
+		/**
+		 * Cria um BlobPair.
+		 *
+		 * @param oldId O identificador da verso antiga.
+		 * @param newId O identificador da verso nova.
+		 */
+		private BlobPair(AnyObjectId oldId, AnyObjectId newId) {
+			this.oldId = oldId.toObjectId();
+			this.newId = newId.toObjectId();
+		}
+
+		public int hashCode() {
+			return oldId.hashCode() * 31 + newId.hashCode();
+		}
+
+		public boolean equals(Object other) {
+			if (!(other instanceof BlobPair)) {
+				return false;
+			}
+			BlobPair pair = (BlobPair) other;
+			return oldId.equals(pair.oldId) && newId.equals(pair.newId);
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package gitcurtain.extraction;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.storage.file.WindowCacheStats;
+
+/**
+ * Configura o <i>cache</i> de objetos do JGit, por onde passam todas as leituras de objetos dos pacotes durante a extrao, e expe os
+ * contadores do mesmo. As configuraes padro do JGit so pequenas para repositrios com pacotes de vrios gigabytes. O <i>cache</i> 
+ * nico para todo o processo, ento as ltimas configuraes aplicadas valem para todos os repositrios acompanhados. Esta classe 
+ * gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class ObjectCache {
+
+	/**
+	 * As configuraes aplicadas ao <i>cache</i>, ou as configuraes padro do JGit caso nenhuma configurao tenha sido aplicada.
+	 */
+	private static WindowCacheConfig installed = new WindowCacheConfig();
+
+	/**
+	 * Aplica as configuraes do <i>cache</i> de objetos das configuraes da extrao. Os valores iguais a zero mantm o padro do
+	 * JGit. O <i>cache</i> somente  recriado quando as configuraes mudam, j que todos os objetos guardados no mesmo so descartados.
+	 *
+	 * @param settings As configuraes da extrao.
+	 */
+	public static synchronized void configure(ExtractionSettings settings) {
+
+		if (!settings.hasObjectCacheSettings()) {
+			return;
+		}
+
+		WindowCacheConfig config = new WindowCacheConfig();
+		if (settings.getPackedGitWindowSize() > 0) {
+			config.setPackedGitWindowSize(settings.getPackedGitWindowSize());
+		}
+		if (settings.getPackedGitLimit() > 0) {
+			config.setPackedGitLimit(settings.getPackedGitLimit());
+		}
+		if (settings.getDeltaBaseCacheLimit() > 0) {
+			config.setDeltaBaseCacheLimit(settings.getDeltaBaseCacheLimit());
+		}
+		config.setPackedGitMMAP(settings.isPackedGitMMAP());
+
+		if (config.getPackedGitWindowSize() == installed.getPackedGitWindowSize()
+				&& config.getPackedGitLimit() == installed.getPackedGitLimit()
+				&& config.getDeltaBaseCacheLimit() == installed.getDeltaBaseCacheLimit()
+				&& config.isPackedGitMMAP() == installed.isPackedGitMMAP()) {
+			return;
+		}
+
+		try {
+			config.install();
+			installed = config;
+		}
+		catch (IllegalArgumentException e) {
+			System.out.println("Invalid object cache settings. Keeping the previous settings...");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Obtm o tamanho de cada janela de leitura dos pacotes.
+	 *
+	 * @return O tamanho, em bytes.
+	 */
+	public static synchronized int getPackedGitWindowSize() {
+		return installed.getPackedGitWindowSize();
+	}
+
+	/**
+	 * Obtm o limite de memria das janelas de leitura dos pacotes.
+	 *
+	 * @return O limite, em bytes.
+	 */
+	public static synchronized long getPackedGitLimit() {
+		return installed.getPackedGitLimit();
+	}
+
+	/**
+	 * Verifica se os pacotes so lidos por meio de arquivos mapeados em memria.
+	 *
+	 * @return true se os pacotes so mapeados em memria.
+	 */
+	public static synchronized boolean isPackedGitMMAP() {
+		return installed.isPackedGitMMAP();
+	}
+
+	/**
+	 * Obtm o limite de memria do <i>cache</i> das bases dos objetos comprimidos por <i>delta</i>, de cada leitor de objetos.
+	 *
+	 * @return O limite, em bytes.
+	 */
+	public static synchronized int getDeltaBaseCacheLimit() {
+		return installed.getDeltaBaseCacheLimit();
+	}
+
+	/**
+	 * Obtm o nmero de arquivos de pacotes abertos pelo <i>cache</i>.
+	 *
+	 * @return O nmero de arquivos abertos.
+	 */
+	public static int getOpenFiles() {
+		return WindowCacheStats.getOpenFiles();
+	}
+
+	/**
+	 * Obtm a memria ocupada pelas janelas de leitura abertas pelo <i>cache</i>.
+	 *
+	 * @return A memria, em bytes.
+	 */
+	public static long getOpenBytes() {
+		return WindowCacheStats.getOpenBytes();
+	}
+
+}
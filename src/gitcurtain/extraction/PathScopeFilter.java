@@ -0,0 +1,220 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Um filtro de TreeWalk que restringe a extrao a um escopo de caminhos do repositrio, formado por prefixos includos e excludos. Um
+ * caminho est no escopo quando est dentro de algum prefixo includo (ou quando nenhum prefixo includo foi configurado) e fora de todos
+ * os prefixos excludos. Os diretrios que esto fora do escopo no so percorridos, e os diretrios que somente contm um prefixo do
+ * escopo so percorridos sem que os seus outros arquivos sejam includos.  utilizado tanto pelo RevWalk, para que os commits fora do
+ * escopo sejam ignorados, quanto pela DiffSession. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo
+ * sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class PathScopeFilter extends TreeFilter {
+
+	/**
+	 * Os prefixos includos no escopo.  vazio quando todos os caminhos esto includos.
+	 */
+	private List<PathFilter> included;
+	/**
+	 * Os prefixos excludos do escopo.
+	 */
+	private List<PathFilter> excluded;
+	/**
+	 * Indica se algum prefixo est dentro de um diretrio, caso em que o TreeWalk precisa ser recursivo.
+	 */
+	private boolean recursive;
+
+	/**
+	 * Cria um PathScopeFilter.
+	 *
+	 * @param includedPaths Os prefixos includos no escopo (e.g., "services/billing"), ou uma lista vazia para incluir todos os caminhos.
+	 * @param excludedPaths Os prefixos excludos do escopo.
+	 */
+	public PathScopeFilter(List<String> includedPaths, List<String> excludedPaths) {
+		included = createFilters(includedPaths);
+		excluded = createFilters(excludedPaths);
+		recursive = !excluded.isEmpty();
+		for (PathFilter filter : included) {
+			recursive |= filter.shouldBeRecursive();
+		}
+	}
+
+	/**
+	 * Cria o filtro das alteraes dentro do escopo de caminhos das configuraes da extrao.
+	 *
+	 * @param settings As configuraes da extrao.
+	 *
+	 * @return Um filtro que somente inclui os caminhos do escopo que foram alterados, ou TreeFilter.ANY_DIFF quando nenhum escopo foi
+	 * configurado.
+	 */
+	public static TreeFilter createChangeFilter(ExtractionSettings settings) {
+		if (!settings.hasPathScope()) {
+			return TreeFilter.ANY_DIFF;
+		}
+		return AndTreeFilter.create(new PathScopeFilter(settings.getIncludedPaths(), settings.getExcludedPaths()), TreeFilter.ANY_DIFF);
+	}
+
+	/**
+	 * Cria os filtros de uma lista de prefixos, ignorando os prefixos vazios.
+	 *
+	 * @param paths Os prefixos.
+	 *
+	 * @return Uma lista com um PathFilter para cada prefixo.
+	 */
+	private static List<PathFilter> createFilters(List<String> paths) {
+
+		List<PathFilter> filters = new ArrayList<PathFilter>();
+
+		for (String path : paths) {
+			String normalized = path.trim();
+			while (normalized.startsWith("/")) {
+				normalized = normalized.substring(1);
+			}
+			while (normalized.endsWith("/")) {
+				normalized = normalized.substring(0, normalized.length() - 1);
+			}
+			if (!normalized.isEmpty()) {
+				filters.add(PathFilter.create(normalized));
+			}
+		}
+
+		return filters;
+	}
+
+	/**
+	 * Verifica se um caminho completo de arquivo est no escopo.  utilizado quando as alteraes no so obtidas por meio de um TreeWalk.
+	 *
+	 * @param path O caminho do arquivo (e.g., "src/Main.java").
+	 *
+	 * @return true se o caminho est no escopo.
+	 */
+	public boolean includes(String path) {
+
+		for (PathFilter filter : excluded) {
+			if (isWithin(path, filter.getPath())) {
+				return false;
+			}
+		}
+
+		if (included.isEmpty()) {
+			return true;
+		}
+
+		for (PathFilter filter : included) {
+			if (isWithin(path, filter.getPath())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Verifica se um caminho  igual a um prefixo, ou est dentro do mesmo.
+	 *
+	 * @param path O caminho.
+	 * @param prefix O prefixo, sem barras no incio ou no fim.
+	 *
+	 * @return true se o caminho est dentro do prefixo.
+	 */
+	private static boolean isWithin(String path, String prefix) {
+		return path.equals(prefix) || (path.startsWith(prefix) && path.charAt(prefix.length()) == '/');
+	}
+
+	/**
+	 * Verifica se o caminho atual do TreeWalk deve ser includo. Os diretrios que contm algum prefixo includo tambm so includos,
+	 * para que o TreeWalk possa entrar nos mesmos.
+	 *
+	 * @param walker O TreeWalk.
+	 *
+	 * @return true se o caminho est no escopo, ou se  um diretrio que contm algum prefixo includo.
+	 *
+	 * @throws MissingObjectException  lanado quando algum objeto do TreeWalk no existe no repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando algum objeto do TreeWalk no  do tipo esperado.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public boolean include(TreeWalk walker) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+		return matchFilter(walker) <= 0;
+	}
+
+	/**
+	 * Verifica a posio do caminho atual do TreeWalk em relao ao escopo.
+	 *
+	 * @param walker O TreeWalk.
+	 *
+	 * @return 0 se o caminho est no escopo, -1 se o caminho  um diretrio que contm algum prefixo includo, ou 1 se o caminho est
+	 * fora do escopo.
+	 *
+	 * @throws MissingObjectException  lanado quando algum objeto do TreeWalk no existe no repositrio.
+	 * @throws IncorrectObjectTypeException  lanado quando algum objeto do TreeWalk no  do tipo esperado.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public int matchFilter(TreeWalk walker) throws MissingObjectException, IncorrectObjectTypeException, IOException {
+
+		for (PathFilter filter : excluded) {
+			if (filter.matchFilter(walker) == 0) {
+				return 1;
+			}
+		}
+
+		if (included.isEmpty()) {
+			return 0;
+		}
+
+		int result = 1;
+		for (PathFilter filter : included) {
+			int match = filter.matchFilter(walker);
+			if (match == 0) {
+				return 0;
+			}
+			if (match < 0) {
+				result = -1;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Verifica se o TreeWalk precisa ser recursivo, o que acontece quando algum prefixo est dentro de um diretrio ou quando h algum
+	 * prefixo excludo.
+	 *
+	 * @return true se o TreeWalk precisa ser recursivo.
+	 */
+	public boolean shouldBeRecursive() {
+		return recursive;
+	}
+
+	/**
+	 * Obtm uma cpia do filtro para ser utilizada por outra thread. Como o filtro no guarda nenhum estado entre os caminhos, a prpria
+	 * instncia  retornada.
+	 *
+	 * @return Este filtro.
+	 */
+	public TreeFilter clone() {
+		return this;
+	}
+
+	/**
+	 * Obtm uma descrio do filtro com os prefixos includos e excludos, utilizada nos registros do JGit.
+	 *
+	 * @return A descrio do filtro.
+	 */
+	public String toString() {
+		return "PATH_SCOPE(" + included + ", " + excluded + ")";
+	}
+
+}
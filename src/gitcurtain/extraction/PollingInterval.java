@@ -0,0 +1,81 @@
+package gitcurtain.extraction;
+
+/**
+ * Calcula o tempo de espera entre duas coletas de um repositrio. Com limites configurados, o tempo de espera se adapta  atividade
+ * recente do repositrio:  reduzido pela metade a cada coleta que encontra commits novos, e dobrado a cada coleta sem commits novos,
+ * sempre dentro dos limites. Assim, repositrios parados so consultados raramente, e repositrios movimentados continuam atualizados.
+ * Sem limites configurados, o tempo de espera  sempre o mesmo. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser
+ * utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class PollingInterval {
+
+	/**
+	 * O menor tempo de espera, em milisegundos.
+	 */
+	private long minInterval;
+	/**
+	 * O maior tempo de espera, em milisegundos.  zero quando o tempo de espera  fixo.
+	 */
+	private long maxInterval;
+	/**
+	 * O tempo de espera atual, em milisegundos.
+	 */
+	private long interval;
+
+	/**
+	 * Cria um PollingInterval.
+	 *
+	 * @param initialInterval O tempo de espera inicial, em milisegundos.
+	 * @param settings As configuraes da extrao, de onde so lidos os limites do tempo de espera.
+	 */
+	public PollingInterval(long initialInterval, ExtractionSettings settings) {
+		minInterval = settings.getMinPollInterval();
+		maxInterval = settings.getMaxPollInterval();
+		interval = isAdaptive() ? Math.max(minInterval, Math.min(maxInterval, initialInterval)) : initialInterval;
+	}
+
+	/**
+	 * Verifica se o tempo de espera se adapta  atividade do repositrio.
+	 *
+	 * @return true se o tempo de espera  adaptativo.
+	 */
+	public boolean isAdaptive() {
+		return maxInterval > 0;
+	}
+
+	/**
+	 * Obtm o tempo de espera atual.
+	 *
+	 * @return O tempo de espera, em milisegundos.
+	 */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Registra o resultado de uma coleta e calcula o prximo tempo de espera.
+	 *
+	 * @param foundCommits true se a coleta encontrou commits novos.
+	 *
+	 * @return O prximo tempo de espera, em milisegundos.
+	 */
+	public long next(boolean foundCommits) {
+
+		if (!isAdaptive()) {
+			return interval;
+		}
+
+		if (foundCommits) {
+			interval = Math.max(minInterval, interval / 2);
+		}
+		else {
+			interval = Math.min(maxInterval, Math.max(1, interval) * 2);
+		}
+
+		return interval;
+	}
+
+}
@@ -0,0 +1,209 @@
+package gitcurtain.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.StoredConfig;
+
+/**
+ * Executa a manuteno peridica do clone de um repositrio acompanhado: compacta as referncias, junta os objetos soltos e os pacotes
+ * pequenos deixados pelas coletas em um nico pacote com ndice de <i>bitmaps</i>, e remove os objetos inalcanveis antigos. Sem essa
+ * manuteno, o RevWalk e as comparaes de rvores ficam mais lentos com o passar das semanas. A manuteno somente  feita quando
+ * algum dos gatilhos das configuraes da extrao  alcanado. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser
+ * utilizada pelo sistema.
+ *
+ * Um repositrio que aponta para um espelho compartilhado  mantido pelo Git instalado no sistema, pois o GC do JGit copiaria os
+ * objetos do espelho para o pacote do prprio repositrio. Os ndices de <i>bitmaps</i> somente so gerados pelo JGit quando o JavaEWAH
+ * est no <i>classpath</i>; caso contrrio, o pacote  gerado sem os mesmos.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class RepositoryMaintenance {
+
+	/**
+	 * Indica se o JavaEWAH, utilizado pelo JGit para gerar os ndices de <i>bitmaps</i>, est disponvel.
+	 */
+	private static final boolean BITMAPS_AVAILABLE = isBitmapSupportAvailable();
+
+	/**
+	 * O repositrio acompanhado.
+	 */
+	private TrackedRepository repository;
+	/**
+	 * O nmero de objetos soltos que dispara a manuteno.  zero quando o gatilho est desativado.
+	 */
+	private int maxLooseObjects;
+	/**
+	 * O nmero de pacotes que dispara a manuteno.  zero quando o gatilho est desativado.
+	 */
+	private int maxPackFiles;
+	/**
+	 * O tempo, em milisegundos, entre duas manutenes.  zero quando o gatilho est desativado.
+	 */
+	private long interval;
+	/**
+	 * O momento, em milisegundos, da ltima manuteno, ou da criao do objeto caso nenhuma manuteno tenha sido feita.
+	 */
+	private long lastRun;
+	/**
+	 * A durao, em milisegundos, da ltima manuteno.
+	 */
+	private long lastDuration;
+	/**
+	 * O espao, em bytes, liberado pela ltima manuteno.
+	 */
+	private long lastSavedBytes;
+
+	/**
+	 * Cria um RepositoryMaintenance.
+	 *
+	 * @param repository O repositrio acompanhado.
+	 * @param settings As configuraes da extrao, de onde so lidos os gatilhos da manuteno.
+	 */
+	public RepositoryMaintenance(TrackedRepository repository, ExtractionSettings settings) {
+		this.repository = repository;
+		maxLooseObjects = settings.getMaintenanceLooseObjects();
+		maxPackFiles = settings.getMaintenancePackFiles();
+		interval = settings.getMaintenanceInterval();
+		lastRun = System.currentTimeMillis();
+		lastDuration = 0;
+		lastSavedBytes = 0;
+	}
+
+	/**
+	 * Verifica se algum gatilho da manuteno est ativo.
+	 *
+	 * @return true se a manuteno est ativa.
+	 */
+	public boolean isEnabled() {
+		return maxLooseObjects > 0 || maxPackFiles > 0 || interval > 0;
+	}
+
+	/**
+	 * Verifica se algum gatilho da manuteno foi alcanado.
+	 *
+	 * @return true se a manuteno deve ser feita.
+	 *
+	 * @throws GitAPIException  lanado quando no  possvel obter as estatsticas do repositrio.
+	 */
+	public boolean isNeeded() throws GitAPIException {
+
+		if (interval > 0 && System.currentTimeMillis() - lastRun >= interval) {
+			return true;
+		}
+		if (maxLooseObjects <= 0 && maxPackFiles <= 0) {
+			return false;
+		}
+
+		Properties statistics = repository.getGit().gc().getStatistics();
+
+		return (maxLooseObjects > 0 && getStatistic(statistics, "numberOfLooseObjects") >= maxLooseObjects)
+				|| (maxPackFiles > 0 && getStatistic(statistics, "numberOfPackFiles") >= maxPackFiles);
+	}
+
+	/**
+	 * Faz a manuteno caso algum gatilho tenha sido alcanado. A durao e o espao liberado so registrados.
+	 *
+	 * @return true se a manuteno foi feita.
+	 *
+	 * @throws GitAPIException  lanado quando ocorre um erro no GC do JGit.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public boolean runIfNeeded() throws GitAPIException, IOException {
+
+		if (!isEnabled() || !isNeeded()) {
+			return false;
+		}
+
+		Git git = repository.getGit();
+		long start = System.currentTimeMillis();
+		long sizeBefore = getObjectsSize(git.gc().getStatistics());
+
+		if (new File(git.getRepository().getDirectory(), "objects/info/alternates").isFile()) {
+			GitCommandLine.run(git.getRepository().getDirectory(), null, "gc", "--quiet");
+		}
+		else {
+			// A configurao somente  alterada em memria, j que o GC do JGit l a mesma ao ser executado. Por padro, os pacotes
+			// substitudos somente so removidos depois de uma hora, ento o gatilho do nmero de pacotes continuaria alcanado.
+			StoredConfig config = git.getRepository().getConfig();
+			config.setString(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_PRUNEPACKEXPIRE, "now");
+			if (!BITMAPS_AVAILABLE) {
+				config.setBoolean(ConfigConstants.CONFIG_PACK_SECTION, null, "buildbitmaps", false);
+			}
+			git.gc().call();
+		}
+
+		lastRun = System.currentTimeMillis();
+		lastDuration = lastRun - start;
+		lastSavedBytes = sizeBefore - getObjectsSize(git.gc().getStatistics());
+		System.out.println("Repository maintenance of " + repository.getURI() + " took " + lastDuration + " ms and saved "
+				+ lastSavedBytes + " bytes.");
+
+		return true;
+	}
+
+	/**
+	 * Verifica se o JavaEWAH est no <i>classpath</i>. Sem o mesmo, o GC do JGit falharia ao gerar os ndices de <i>bitmaps</i>.
+	 *
+	 * @return true se os ndices de <i>bitmaps</i> podem ser gerados.
+	 */
+	private static boolean isBitmapSupportAvailable() {
+		try {
+			Class.forName("com.googlecode.javaewah.EWAHCompressedBitmap", false, RepositoryMaintenance.class.getClassLoader());
+			return true;
+		}
+		catch (ClassNotFoundException e) {
+			System.out.println("JavaEWAH is not on the classpath. Repository maintenance will not build bitmap indexes.");
+			return false;
+		}
+	}
+
+	/**
+	 * Obtm uma estatstica numrica do repositrio.
+	 *
+	 * @param statistics As estatsticas do repositrio.
+	 * @param key O nome da estatstica.
+	 *
+	 * @return O valor da estatstica, ou zero caso a mesma no exista.
+	 */
+	private static long getStatistic(Properties statistics, String key) {
+		Object value = statistics.get(key);
+		return value instanceof Number ? ((Number) value).longValue() : 0;
+	}
+
+	/**
+	 * Obtm o espao ocupado pelos objetos do repositrio, soltos ou em pacotes.
+	 *
+	 * @param statistics As estatsticas do repositrio.
+	 *
+	 * @return O espao, em bytes.
+	 */
+	private static long getObjectsSize(Properties statistics) {
+		return getStatistic(statistics, "sizeOfLooseObjects") + getStatistic(statistics, "sizeOfPackedObjects");
+	}
+
+	/**
+	 * Obtm a durao da ltima manuteno.
+	 *
+	 * @return A durao, em milisegundos, ou zero caso nenhuma manuteno tenha sido feita.
+	 */
+	public long getLastDuration() {
+		return lastDuration;
+	}
+
+	/**
+	 * Obtm o espao liberado pela ltima manuteno.
+	 *
+	 * @return O espao, em bytes, ou zero caso nenhuma manuteno tenha sido feita. Pode ser negativo quando a manuteno aumentou o
+	 * espao ocupado (e.g., pelos ndices de <i>bitmaps</i>).
+	 */
+	public long getLastSavedBytes() {
+		return lastSavedBytes;
+	}
+
+}
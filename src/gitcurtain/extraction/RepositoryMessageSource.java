@@ -0,0 +1,111 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import gitcurtain.database.FileController;
+import gitcurtain.database.SQLiteConnection;
+import gitcurtain.utils.MessageSource;
+
+/**
+ * Carrega as mensagens dos commits de um repositrio acompanhado sob demanda. As mensagens so lidas primeiro do banco de dados, em uma
+ * consulta por lote, e as mensagens que no esto no banco de dados (e.g., de commits cuja gravao ainda no terminou) so lidas do
+ * banco de objetos do Git. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class RepositoryMessageSource implements MessageSource {
+
+	/**
+	 * A conexo com o banco de dados do repositrio, ou nulo quando as mensagens so lidas somente do Git.
+	 */
+	private SQLiteConnection database;
+	/**
+	 * O repositrio Git, ou nulo enquanto o mesmo no for aberto.
+	 */
+	private volatile Repository repo;
+
+	/**
+	 * Cria um RepositoryMessageSource.
+	 *
+	 * @param database A conexo com o banco de dados do repositrio, ou nulo para que as mensagens sejam lidas somente do Git.
+	 */
+	public RepositoryMessageSource(SQLiteConnection database) {
+		this.database = database;
+	}
+
+	/**
+	 * Define o repositrio Git de onde so lidas as mensagens que no esto no banco de dados.
+	 *
+	 * @param repo O repositrio Git.
+	 */
+	public void setRepository(Repository repo) {
+		this.repo = repo;
+	}
+
+	/**
+	 * Carrega as mensagens de um lote de commits, do banco de dados ou do Git.
+	 *
+	 * @param ids Os identificadores dos commits.
+	 *
+	 * @return Um Map que associa o identificador de cada commit encontrado  sua mensagem.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante a leitura dos objetos do Git.
+	 */
+	public Map<ObjectId, String> loadMessages(List<ObjectId> ids) throws IOException {
+
+		Map<ObjectId, String> messages = new HashMap<ObjectId, String>(ids.size() * 2);
+		List<ObjectId> missing = ids;
+
+		if (database != null) {
+			List<String> hashes = new ArrayList<String>(ids.size());
+			for (ObjectId id : ids) {
+				hashes.add(id.name());
+			}
+
+			HashMap<String, String> stored = FileController.getMessages(database, hashes);
+			missing = new ArrayList<ObjectId>();
+			for (ObjectId id : ids) {
+				String message = stored.get(id.name());
+				if (message != null) {
+					messages.put(id, message);
+				}
+				else {
+					missing.add(id);
+				}
+			}
+		}
+
+		Repository current = repo;
+		if (missing.isEmpty() || current == null) {
+			return messages;
+		}
+
+		RevWalk revWalk = new RevWalk(current);
+		try {
+			for (ObjectId id : missing) {
+				try {
+					messages.put(id, revWalk.parseCommit(id).getFullMessage());
+				}
+				catch (MissingObjectException e) {
+					// O commit no existe mais no repositrio (e.g., depois de um "push --force"), ento a mensagem no  encontrada.
+				}
+			}
+		}
+		finally {
+			revWalk.close();
+		}
+
+		return messages;
+	}
+
+}
@@ -0,0 +1,60 @@
+package gitcurtain.extraction;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.errors.StopWalkException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import gitcurtain.utils.CommitIdSet;
+
+/**
+ * Um filtro do RevWalk que consulta o ndice de commits j extrados. Quando o RevWalk encontra um commit j extrado, o commit  marcado
+ * como <i>uninteresting</i>, o que tambm exclui todos os seus ancestrais da caminhada. Assim, o custo de cada coleta depende somente do
+ * nmero de commits novos, mesmo em histricos com muitos <i>merges</i> ou depois de um <i>force-push</i>. Esta classe  gerenciada pelo
+ * GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class SeenCommitFilter extends RevFilter {
+
+	/**
+	 * O ndice de commits j extrados.
+	 */
+	private CommitIdSet seenCommits;
+
+	/**
+	 * Cria um filtro sobre o ndice especificado.
+	 *
+	 * @param seenCommits O ndice de commits j extrados.
+	 */
+	public SeenCommitFilter(CommitIdSet seenCommits) {
+		this.seenCommits = seenCommits;
+	}
+
+	/**
+	 * Aceita somente commits que ainda no foram extrados, podando os ancestrais dos commits j extrados.
+	 */
+	public boolean include(RevWalk walker, RevCommit cmit) throws StopWalkException, MissingObjectException, IncorrectObjectTypeException,
+			IOException {
+
+		if (seenCommits.contains(cmit)) {
+			walker.markUninteresting(cmit);
+			return false;
+		}
+		return true;
+	}
+
+	public boolean requiresCommitBody() {
+		return false;
+	}
+
+	public RevFilter clone() {
+		return this;
+	}
+
+}
@@ -0,0 +1,178 @@
+package gitcurtain.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.util.FS;
+
+/**
+ * Gerencia os espelhos <i>bare</i> compartilhados entre vrios repositrios acompanhados com um histrico em comum (e.g., vrios
+ * <i>forks</i> do mesmo projeto). Cada repositrio aponta para o diretrio de objetos do espelho por meio do arquivo
+ * "objects/info/alternates" do Git, ento os objetos do projeto original so guardados somente uma vez. Nas coletas, o JGit anuncia as
+ * referncias do espelho como objetos j existentes, ento somente os objetos exclusivos de cada repositrio so transferidos. Esta
+ * classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * Os objetos de um espelho nunca devem ser removidos (e.g., por um "git gc --prune" no espelho), pois os repositrios que apontam para o
+ * mesmo dependem deles.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class SharedObjectStore {
+
+	/**
+	 * Os <i>locks</i> de cada espelho, indexados pelo <i>path</i> cannico do mesmo, para que um espelho no seja atualizado por
+	 * vrias threads ao mesmo tempo.
+	 */
+	private static final Map<String, Object> LOCKS = new HashMap<String, Object>();
+	/**
+	 * O momento, em nanossegundos, do fim da ltima atualizao de cada espelho, indexado pelo <i>path</i> cannico do mesmo.
+	 */
+	private static final Map<String, Long> REFRESHED = new HashMap<String, Long>();
+
+	/**
+	 * Prepara um espelho compartilhado: clona o repositrio original se o espelho ainda no existe, ou busca as suas atualizaes caso
+	 * contrrio. Os repositrios preparados em seguida somente buscam os objetos que ainda no esto no espelho.
+	 *
+	 * @param path O <i>path</i> do espelho.
+	 * @param upstreamURI A URI do repositrio original.
+	 * @param token O token de acesso ao repositrio original.
+	 *
+	 * @return O diretrio de objetos do espelho.
+	 *
+	 * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio original.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public static File prepare(String path, String upstreamURI, String token) throws GitAPIException, IOException {
+
+		File mirrorFile = new File(path).getCanonicalFile();
+		long requested = System.nanoTime();
+
+		synchronized (getLock(mirrorFile.getPath())) {
+			if (RepositoryCache.FileKey.resolve(mirrorFile, FS.DETECTED) == null) {
+				Git.cloneRepository()
+					.setURI(upstreamURI)
+					.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""))
+					.setDirectory(mirrorFile)
+					.setBare(true)
+					.call()
+					.close();
+				REFRESHED.put(mirrorFile.getPath(), System.nanoTime());
+			}
+			else {
+				fetchIfStale(mirrorFile, token, requested);
+			}
+
+			Git mirror = Git.open(mirrorFile);
+			try {
+				return new File(mirror.getRepository().getDirectory(), "objects");
+			}
+			finally {
+				mirror.close();
+			}
+		}
+	}
+
+	/**
+	 * Busca as atualizaes de um espelho compartilhado j existente.  chamado antes de cada coleta dos repositrios que apontam para o
+	 * espelho, para que os commits novos do repositrio original sejam guardados somente no espelho, e no uma vez em cada repositrio.
+	 * Se o espelho foi atualizado por outro repositrio enquanto esta chamada esperava pelo <i>lock</i> do mesmo, nenhuma busca  feita.
+	 *
+	 * @param path O <i>path</i> do espelho.
+	 * @param token O token de acesso ao repositrio original.
+	 *
+	 * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio original.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public static void refresh(String path, String token) throws GitAPIException, IOException {
+
+		File mirrorFile = new File(path).getCanonicalFile();
+		long requested = System.nanoTime();
+
+		synchronized (getLock(mirrorFile.getPath())) {
+			if (RepositoryCache.FileKey.resolve(mirrorFile, FS.DETECTED) != null) {
+				fetchIfStale(mirrorFile, token, requested);
+			}
+		}
+	}
+
+	/**
+	 * Obtm o <i>lock</i> de um espelho, criando-o caso ainda no exista.
+	 *
+	 * @param key O <i>path</i> cannico do espelho.
+	 *
+	 * @return O <i>lock</i> do espelho.
+	 */
+	private static Object getLock(String key) {
+		synchronized (LOCKS) {
+			Object lock = LOCKS.get(key);
+			if (lock == null) {
+				lock = new Object();
+				LOCKS.put(key, lock);
+			}
+			return lock;
+		}
+	}
+
+	/**
+	 * Busca as atualizaes de um espelho, a no ser que o mesmo j tenha sido atualizado depois do momento especificado. O <i>lock</i>
+	 * do espelho j deve ter sido obtido.
+	 *
+	 * @param mirrorFile O diretrio cannico do espelho.
+	 * @param token O token de acesso ao repositrio original.
+	 * @param requested O momento, em nanossegundos, em que a atualizao foi pedida.
+	 *
+	 * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio original.
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private static void fetchIfStale(File mirrorFile, String token, long requested) throws GitAPIException, IOException {
+
+		Long refreshed = REFRESHED.get(mirrorFile.getPath());
+		if (refreshed != null && refreshed - requested >= 0) {
+			return;
+		}
+
+		Git mirror = Git.open(mirrorFile);
+		try {
+			mirror.fetch()
+				.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""))
+				.setRemote("origin")
+				.call();
+		}
+		finally {
+			mirror.close();
+		}
+		REFRESHED.put(mirrorFile.getPath(), System.nanoTime());
+	}
+
+	/**
+	 * Faz com que um repositrio utilize os objetos de um espelho compartilhado, adicionando o diretrio de objetos do mesmo ao arquivo
+	 * "objects/info/alternates" do repositrio. O repositrio deve ser aberto novamente para que o espelho seja considerado.
+	 *
+	 * @param repository O repositrio.
+	 * @param objectsDirectory O diretrio de objetos do espelho.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	public static void link(Repository repository, File objectsDirectory) throws IOException {
+
+		File info = new File(repository.getDirectory(), "objects/info");
+		if (!info.isDirectory() && !info.mkdirs()) {
+			throw new IOException("Could not create the directory " + info + ".");
+		}
+
+		File alternates = new File(info, "alternates");
+		String entry = objectsDirectory.getAbsolutePath() + "\n";
+		Files.write(alternates.toPath(), entry.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
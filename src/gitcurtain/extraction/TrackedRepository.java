@@ -0,0 +1,849 @@
+package gitcurtain.extraction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.LsRemoteCommand;
+import org.eclipse.jgit.api.PullCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.InvalidRemoteException;
+import org.eclipse.jgit.api.errors.TransportException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.util.FS;
+
+import gitcurtain.database.FileController;
+import gitcurtain.database.SQLiteConnection;
+import gitcurtain.database.SQLiteConnectionManager;
+import gitcurtain.exceptions.InvalidBranchException;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitIdSet;
+import gitcurtain.utils.CommitStore;
+import gitcurtain.utils.CommitView;
+import gitcurtain.utils.MessageCache;
+
+/**
+ * Representa um repositrio acompanhado pelo GitCURTAIN, junto com todo o estado associado  sua extrao: o clone local, os metadados
+ * do repositrio, o banco de dados, a lista de commits j coletados e o ndice dos seus hashes. Cada repositrio possui o seu prprio
+ * estado, o que permite que vrios repositrios sejam acompanhados pelo mesmo processo. Esta classe  gerenciada pelo GitCURTAIN e,
+ * portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class TrackedRepository {
+
+    /**
+     * O prefixo das referncias das <i>branches</i> do repositrio remoto, em um repositrio com <i>working tree</i>.
+     */
+    private static final String REMOTE_PREFIX = "refs/remotes/origin/";
+
+    /**
+     * O objeto que representa o repositrio Git.
+     */
+    private Git git;
+    /**
+     * A URI do repositrio.
+     */
+    private String uri;
+    /**
+     * O Token de autenticao do usurio.
+     */
+    private String token;
+    /**
+     * O <i>path</i> para a pasta do repositrio.
+     */
+    private String path;
+    /**
+     * A <i>branch</i> principal do repositrio.
+     */
+    private String branch;
+    /**
+     * O <i>path</i> do espelho compartilhado atualizado antes de cada coleta, ou nulo quando o repositrio no utiliza um espelho.
+     */
+    private String sharedObjectStore;
+    /**
+     * A conexo com o banco de dados onde os commits do repositrio so guardados.
+     */
+    private SQLiteConnection database;
+    /**
+     * Os commits que j existem no banco de dados, guardados em colunas.
+     */
+    private CommitStore commits;
+    /**
+     * A origem das mensagens dos commits que no esto em memria, ou nulo quando todas as mensagens so mantidas em memria.
+     */
+    private RepositoryMessageSource messageSource;
+    /**
+     * O <i>cache</i> das mensagens dos commits, ou nulo quando todas as mensagens so mantidas em memria.
+     */
+    private MessageCache messageCache;
+    /**
+     * O ndice dos hashes dos commits que j existem no banco de dados.  atualizado a cada lote de commits gravado, para que nenhum
+     * commit seja extrado duas vezes.
+     */
+    private CommitIdSet seenCommits;
+    /**
+     * O ltimo commit processado de cada <i>branch</i> acompanhada, usado para que a associao entre commits e <i>branches</i> seja
+     * atualizada somente com os commits novos de cada <i>branch</i>.
+     */
+    private HashMap<String, ObjectId> branchTips;
+    /**
+     * Os commits pendentes, ou seja, os commits ainda no extrados cujos filhos j foram extrados. So o ponto de retomada de uma
+     * extrao interrompida, j que o ndice de commits j extrados poda os ancestrais de todo commit extrado.
+     */
+    private HashSet<ObjectId> pendingCommits;
+
+    /**
+     * Cria um TrackedRepository com os commits j guardados no banco de dados especificado. O repositrio ainda no est disponvel
+     * at que o mtodo setUp seja chamado.
+     *
+     * @param databaseFilePath Uma String que contm o <i>path</i> do arquivo do banco de dados SQLite. O <i>path</i> deve conter a
+     * extenso do arquivo.
+     * @param settings As configuraes da extrao. Com um <i>cache</i> de mensagens configurado, as mensagens dos commits no so lidas
+     * do banco de dados.
+     */
+    private TrackedRepository(String databaseFilePath, ExtractionSettings settings) {
+    	database = SQLiteConnectionManager.getConnection(databaseFilePath);
+    	boolean lazyMessages = settings.getMessageCacheSize() > 0;
+    	if (lazyMessages) {
+    		messageSource = new RepositoryMessageSource(database);
+    		messageCache = new MessageCache(messageSource, settings.getMessageCacheSize());
+    	}
+    	// Os commits guardados vo direto para as colunas do CommitStore, sem que uma lista com todos os objetos Commit seja montada.
+    	int storedCount = FileController.countCommits(database);
+    	commits = new CommitStore(storedCount, messageCache);
+    	FileController.forEachCommit(database, !lazyMessages, commits::add);
+    	seenCommits = new CommitIdSet(commits.size());
+    	CommitView view = commits.snapshot();
+    	for (int i = 0; i < view.size(); i++) {
+    		seenCommits.add(view.getId(i));
+    	}
+    	pendingCommits = new HashSet<ObjectId>();
+    	for (String hash : FileController.getPendingCommits(database)) {
+    		if (ObjectId.isId(hash)) {
+    			pendingCommits.add(ObjectId.fromString(hash));
+    		}
+    	}
+    	branchTips = new HashMap<String, ObjectId>();
+    	for (Map.Entry<String, String> tip : FileController.getBranchTips(database).entrySet()) {
+    		if (ObjectId.isId(tip.getValue())) {
+    			branchTips.put(tip.getKey(), ObjectId.fromString(tip.getValue()));
+    		}
+    	}
+    }
+
+    /**
+     * Prepara um repositrio para extrao por meio da estratgia especificada: carrega os commits do banco de dados e clona o
+     * repositrio. Um repositrio <i>bare</i>  clonado com as <i>branches</i> remotas copiadas diretamente para as suas prprias
+     * <i>branches</i>, como em um espelho.
+     *
+     * Se j existe um repositrio Git no <i>path</i> especificado (e.g., de uma execuo anterior), o mesmo  reaproveitado: depois de
+     * verificar que o repositrio aponta para a mesma URI, somente os commits novos so buscados do repositrio remoto, em vez de um
+     * novo clone completo. Neste caso, o repositrio mantm o formato com que foi clonado (<i>bare</i> ou no), independente das
+     * configuraes.
+     *
+     * Com um clone raso configurado, um repositrio novo  clonado pelo Git instalado no sistema somente at a profundidade especificada.
+     * Se o clone raso falhar, o repositrio  clonado por completo pelo JGit. Com um espelho compartilhado configurado, o repositrio
+     * novo aponta para os objetos do espelho, e somente os seus objetos exclusivos so buscados. As configuraes do <i>cache</i> de
+     * objetos do JGit so aplicadas antes do clone.
+     *
+     * @param repositorySetup A estratgia que deve ser utilizada para a obteno dos metadados do repositrio.
+     * @param databaseFilePath Uma String que contm o <i>path</i> do arquivo do banco de dados SQLite. O <i>path</i> deve conter a
+     * extenso do arquivo.
+     * @param settings As configuraes da extrao, que determinam como o repositrio  clonado.
+     *
+     * @return O repositrio preparado.
+     *
+     * @throws InvalidRemoteException Quando a URI do repositrio  invlida, ou quando o repositrio j existente aponta para outra URI.
+     * @throws TransportException Quando o token de acesso ao repositrio  invlido.
+     * @throws InvalidBranchException Quando o nome da branch  invlido.
+     */
+    static TrackedRepository setUp(RepoSetupStrategy repositorySetup, String databaseFilePath, ExtractionSettings settings)
+    		throws InvalidRemoteException, TransportException, InvalidBranchException {
+
+    	ObjectCache.configure(settings);
+    	TrackedRepository repository = new TrackedRepository(databaseFilePath, settings);
+    	boolean done = false;
+
+        while (!done) {
+        	try {
+        		repository.uri = repositorySetup.getRepositoryURI();
+        		repository.token = repositorySetup.getToken();
+        		repository.path = repositorySetup.getRepositoryPath();
+        		repository.branch = repositorySetup.getBranch();
+        		repository.sharedObjectStore = settings.getSharedObjectStore();
+        		File repositoryFile = new File(repository.path);
+        		repository.git = null;
+
+        		if (RepositoryCache.FileKey.resolve(repositoryFile, FS.DETECTED) != null) {
+        			repository.git = Git.open(repositoryFile);
+        			repository.checkRemoteURI();
+        			repository.fetch();
+        		}
+        		else if (settings.getSharedObjectStore() != null) {
+        			repository.cloneShared(repositoryFile, settings);
+        		}
+        		else if (settings.getCloneDepth() > 0) {
+        			try {
+        				repository.cloneShallow(repositoryFile, settings);
+        			}
+        			catch (IOException e) {
+        				System.out.println("Shallow clone failed. Falling back to a full clone...");
+        				e.printStackTrace();
+        			}
+        		}
+
+        		if (repository.git == null) {
+        			CloneCommand clone = Git.cloneRepository();
+        			clone.setURI(repository.uri);
+        			clone.setCredentialsProvider(new UsernamePasswordCredentialsProvider(repository.token, "" ));
+        			clone.setDirectory(repositoryFile);
+        			clone.setBare(settings.isBareRepository());
+        			clone.call();
+
+        			repository.git = Git.open(repositoryFile);
+        		}
+
+        		if (repository.resolveRemoteTip() == null) {
+        			throw new InvalidBranchException("Branch name does not exist in the remote repository.");
+        		}
+
+        		StoredConfig config = repository.git.getRepository().getConfig();
+        		if (!repository.git.getRepository().isBare()) {
+        			config.setString("branch", "master", "merge", "refs/heads/" + repository.branch);
+        			config.setString("branch", "master", "remote", "origin");
+        			config.setString("remote", "origin", "fetch", "+refs/heads/*:refs/remotes/origin/*");
+        		}
+        		else if (config.getString("remote", "origin", "fetch") == null) {
+        			config.setString("remote", "origin", "fetch", "+refs/heads/*:refs/heads/*");
+        		}
+        		config.setString("remote", "origin", "url", repository.uri);
+        		config.save();
+
+        		if (repository.messageSource != null) {
+        			repository.messageSource.setRepository(repository.git.getRepository());
+        		}
+        		done = true;
+        	}
+        	catch (InvalidRemoteException e) {
+        		throw e;
+        	}
+        	catch (TransportException e) {
+        		throw e;
+        	}
+        	catch (GitAPIException e) {
+        		System.out.println("Unexpected error occured in the Git API. Retrying...");
+        		e.printStackTrace();
+        	}
+        	catch (IOException e) {
+        		System.out.println("Unexpected I/O error. Retrying...");
+        		e.printStackTrace();
+        	}
+        }
+
+        return repository;
+    }
+
+    /**
+     * Verifica se um repositrio j existente aponta para a URI especificada pela estratgia de preparao. As URIs so comparadas sem
+     * uma eventual barra ou extenso ".git" no final.
+     *
+     * @throws InvalidRemoteException Quando o repositrio aponta para outra URI.
+     */
+    private void checkRemoteURI() throws InvalidRemoteException {
+
+    	String existingURI = git.getRepository().getConfig().getString("remote", "origin", "url");
+
+    	if (existingURI == null || !normalizeURI(existingURI).equals(normalizeURI(uri))) {
+    		throw new InvalidRemoteException("The repository at " + path + " points to a different remote (" + existingURI + ").");
+    	}
+    }
+
+    /**
+     * Remove uma eventual barra ou extenso ".git" do final de uma URI.
+     *
+     * @param repositoryURI A URI do repositrio.
+     *
+     * @return A URI sem a barra ou a extenso.
+     */
+    static String normalizeURI(String repositoryURI) {
+
+    	String normalized = repositoryURI.trim();
+
+    	if (normalized.endsWith("/")) {
+    		normalized = normalized.substring(0, normalized.length() - 1);
+    	}
+    	if (normalized.endsWith(".git")) {
+    		normalized = normalized.substring(0, normalized.length() - 4);
+    	}
+
+    	return normalized;
+    }
+
+    /**
+     * Atualiza o repositrio com os commits novos do repositrio remoto. Em um repositrio <i>bare</i>, somente os objetos e as
+     * referncias das <i>branches</i> so atualizados. Nos outros repositrios, a <i>branch</i> principal tambm  mesclada na
+     * <i>working tree</i>.
+     *
+     * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio remoto.
+     */
+    public void update() throws GitAPIException {
+    	if (git.getRepository().isBare()) {
+    		fetch();
+    		return;
+    	}
+    	refreshSharedObjectStore();
+    	PullCommand pull = git.pull();
+    	pull.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
+    	pull.setRemote("origin");
+    	pull.setRemoteBranchName(branch);
+    	pull.call();
+    }
+
+    /**
+     * Atualiza as referncias remotas do repositrio, sem alterar a <i>branch</i> local nem os arquivos do clone. Se o repositrio
+     * utiliza um espelho compartilhado, o espelho  atualizado antes.
+     *
+     * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio remoto.
+     */
+    public void fetch() throws GitAPIException {
+    	refreshSharedObjectStore();
+    	FetchCommand fetch = git.fetch();
+    	fetch.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
+    	fetch.setRemote("origin");
+    	fetch.call();
+    }
+
+    /**
+     * Atualiza o espelho compartilhado do repositrio, caso exista, para que os commits novos do repositrio original sejam guardados
+     * somente no espelho. Se a atualizao falha, a coleta do repositrio continua, e os objetos que faltam so buscados pelo prprio
+     * repositrio.
+     */
+    private void refreshSharedObjectStore() {
+    	if (sharedObjectStore == null) {
+    		return;
+    	}
+    	try {
+    		SharedObjectStore.refresh(sharedObjectStore, token);
+    	}
+    	catch (GitAPIException e) {
+    		System.out.println("Unexpected error occured in the Git API while updating the shared object store " + sharedObjectStore
+    				+ ". Continuing without it...");
+    		e.printStackTrace();
+    	}
+    	catch (IOException e) {
+    		System.out.println("Unexpected I/O error while updating the shared object store " + sharedObjectStore
+    				+ ". Continuing without it...");
+    		e.printStackTrace();
+    	}
+    }
+
+    /**
+     * Cria o repositrio sobre o espelho compartilhado especificado pelas configuraes: o espelho  preparado, o repositrio  criado
+     * apontando para os objetos do mesmo e somente ento as referncias do repositrio remoto so buscadas. Como as referncias do
+     * espelho so anunciadas ao repositrio remoto como objetos j existentes, somente os objetos exclusivos do repositrio so
+     * transferidos. Em um repositrio que no  <i>bare</i>, a <i>branch</i> principal  criada e carregada na <i>working tree</i>.
+     *
+     * @param repositoryFile O diretrio do repositrio.
+     * @param settings As configuraes da extrao.
+     *
+     * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio remoto ou com o repositrio original.
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    private void cloneShared(File repositoryFile, ExtractionSettings settings) throws GitAPIException, IOException {
+
+    	File objects = SharedObjectStore.prepare(settings.getSharedObjectStore(), settings.getSharedObjectStoreURI(), token);
+
+    	Git created = Git.init().setDirectory(repositoryFile).setBare(settings.isBareRepository()).call();
+    	SharedObjectStore.link(created.getRepository(), objects);
+    	StoredConfig config = created.getRepository().getConfig();
+    	config.setString("remote", "origin", "url", uri);
+    	config.setString("remote", "origin", "fetch", settings.isBareRepository() ? "+refs/heads/*:refs/heads/*"
+    			: "+refs/heads/*:refs/remotes/origin/*");
+    	config.save();
+    	created.close();
+
+    	git = Git.open(repositoryFile);
+    	fetch();
+    	if (!git.getRepository().isBare() && resolveRemoteTip() != null) {
+    		git.checkout().setCreateBranch(true).setName(branch).setStartPoint(REMOTE_PREFIX + branch).call();
+    	}
+    }
+
+    /**
+     * Clona o repositrio remoto somente at a profundidade especificada pelas configuraes, por meio do Git instalado no sistema, j
+     * que o JGit no suporta clones rasos. Todas as <i>branches</i> so clonadas, e no somente a <i>branch</i> padro.
+     *
+     * @param repositoryFile O diretrio do clone.
+     * @param settings As configuraes da extrao.
+     *
+     * @throws IOException  lanado quando no  possvel executar o Git, ou quando o clone falha.
+     */
+    private void cloneShallow(File repositoryFile, ExtractionSettings settings) throws IOException {
+
+    	File parent = repositoryFile.getAbsoluteFile().getParentFile();
+    	if (!parent.exists() && !parent.mkdirs()) {
+    		throw new IOException("Could not create the directory " + parent + ".");
+    	}
+
+    	List<String> arguments = new ArrayList<String>();
+    	arguments.add("clone");
+    	arguments.add("--quiet");
+    	arguments.add("--depth=" + settings.getCloneDepth());
+    	arguments.add("--no-single-branch");
+    	if (settings.isBareRepository()) {
+    		arguments.add("--bare");
+    	}
+    	arguments.add(uri);
+    	arguments.add(repositoryFile.getAbsolutePath());
+
+    	GitCommandLine.run(parent, token, arguments.toArray(new String[arguments.size()]));
+    	git = Git.open(repositoryFile);
+    }
+
+    /**
+     * Verifica se o repositrio  um clone raso, ou seja, se parte do histrico ainda no foi buscada do repositrio remoto.
+     *
+     * @return true se o repositrio  um clone raso.
+     */
+    public boolean isShallow() {
+    	return new File(git.getRepository().getDirectory(), "shallow").isFile();
+    }
+
+    /**
+     * Obtm os commits na fronteira de um clone raso, cujos pais ainda no foram buscados do repositrio remoto. O JGit trata estes
+     * commits como se no tivessem pais.
+     *
+     * @return Um conjunto com os commits da fronteira, que  vazio quando o repositrio no  um clone raso.
+     *
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    public Set<ObjectId> getShallowCommits() throws IOException {
+
+    	Set<ObjectId> shallowCommits = new HashSet<ObjectId>();
+    	File shallowFile = new File(git.getRepository().getDirectory(), "shallow");
+
+    	if (!shallowFile.isFile()) {
+    		return shallowCommits;
+    	}
+    	for (String line : Files.readAllLines(shallowFile.toPath(), StandardCharsets.US_ASCII)) {
+    		if (ObjectId.isId(line.trim())) {
+    			shallowCommits.add(ObjectId.fromString(line.trim()));
+    		}
+    	}
+
+    	return shallowCommits;
+    }
+
+    /**
+     * Aprofunda um clone raso, buscando mais commits do histrico de todas as <i>branches</i>. Quando o histrico inteiro foi buscado,
+     * o repositrio deixa de ser um clone raso.
+     *
+     * @param step O nmero de commits buscados alm da fronteira atual.
+     *
+     * @throws IOException  lanado quando no  possvel executar o Git, ou quando a busca falha.
+     */
+    public void deepen(int step) throws IOException {
+    	GitCommandLine.run(new File(path), token, "fetch", "--quiet", "--deepen=" + Math.max(1, step), "origin");
+    }
+
+    /**
+     * Verifica, sem buscar nenhum objeto, se alguma <i>branch</i> acompanhada mudou no repositrio remoto desde a ltima atualizao.
+     * Somente a lista de referncias anunciada pelo repositrio remoto  consultada (como em um <i>ls-remote</i>), o que  muito mais
+     * barato do que uma coleta completa.
+     *
+     * @param patterns Os nomes, ou padres de nomes, das <i>branches</i> acompanhadas alm da <i>branch</i> principal.
+     *
+     * @return true se alguma <i>branch</i> acompanhada aponta para um commit diferente no repositrio remoto.
+     *
+     * @throws GitAPIException  lanado quando ocorre um erro na comunicao com o repositrio remoto.
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    public boolean hasRemoteChanges(List<String> patterns) throws GitAPIException, IOException {
+
+    	LsRemoteCommand lsRemote = git.lsRemote();
+    	lsRemote.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
+    	lsRemote.setRemote("origin");
+    	lsRemote.setHeads(true);
+    	String prefix = getRemotePrefix();
+
+    	for (Ref advertised : lsRemote.call()) {
+    		String name = advertised.getName().substring(Constants.R_HEADS.length());
+    		if (!name.equals(branch) && !matchesAnyBranch(name, patterns)) {
+    			continue;
+    		}
+    		Ref local = git.getRepository().exactRef(prefix + name);
+    		if (local == null || !advertised.getObjectId().equals(local.getObjectId())) {
+    			return true;
+    		}
+    	}
+
+    	return false;
+    }
+
+    /**
+     * Obtm o commit mais recente da <i>branch</i> principal no repositrio remoto, segundo a ltima atualizao feita pelo mtodo fetch.
+     *
+     * @return O identificador do commit, ou nulo se a <i>branch</i> remota no existe.
+     *
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    public ObjectId resolveRemoteTip() throws IOException {
+    	Ref ref = git.getRepository().exactRef(getRemotePrefix() + branch);
+    	if (ref == null) {
+    		return null;
+    	}
+    	return ref.getObjectId();
+    }
+
+    /**
+     * Obtm o commit mais recente de cada <i>branch</i> acompanhada no repositrio remoto, segundo a ltima atualizao das referncias
+     * remotas. A <i>branch</i> principal  sempre a primeira, e as outras so as <i>branches</i> remotas cujo nome corresponde a algum
+     * dos padres especificados.
+     *
+     * @param patterns Os nomes, ou padres de nomes, das <i>branches</i> acompanhadas alm da <i>branch</i> principal.
+     *
+     * @return Um Map que associa o nome de cada <i>branch</i> ao identificador do seu commit mais recente.
+     *
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    public Map<String, ObjectId> resolveBranchTips(List<String> patterns) throws IOException {
+
+    	Map<String, ObjectId> tips = new LinkedHashMap<String, ObjectId>();
+    	ObjectId mainTip = resolveRemoteTip();
+
+    	if (mainTip != null) {
+    		tips.put(branch, mainTip);
+    	}
+    	if (patterns.isEmpty()) {
+    		return tips;
+    	}
+
+    	String prefix = getRemotePrefix();
+    	for (Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(prefix)) {
+    		String name = ref.getName().substring(prefix.length());
+    		if (ref.isSymbolic() || tips.containsKey(name)) {
+    			continue;
+    		}
+    		if (matchesAnyBranch(name, patterns)) {
+    			tips.put(name, ref.getObjectId());
+    		}
+    	}
+
+    	return tips;
+    }
+
+    /**
+     * Obtm o prefixo das referncias que acompanham as <i>branches</i> do repositrio remoto. Em um repositrio <i>bare</i>, as
+     * <i>branches</i> remotas so copiadas diretamente para as <i>branches</i> do prprio repositrio.
+     *
+     * @return O prefixo das referncias.
+     */
+    private String getRemotePrefix() {
+    	return git.getRepository().isBare() ? Constants.R_HEADS : REMOTE_PREFIX;
+    }
+
+    /**
+     * Verifica se o nome de uma <i>branch</i> corresponde a algum dos padres especificados.
+     *
+     * @param name O nome da <i>branch</i>.
+     * @param patterns Os padres.
+     *
+     * @return true se o nome corresponde a algum dos padres.
+     */
+    private static boolean matchesAnyBranch(String name, List<String> patterns) {
+    	for (String pattern : patterns) {
+    		if (matchesBranch(name, pattern)) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+
+    /**
+     * Verifica se o nome de uma <i>branch</i> corresponde a um padro, no qual o caractere '*' representa qualquer sequncia de
+     * caracteres.
+     *
+     * @param name O nome da <i>branch</i>.
+     * @param pattern O padro.
+     *
+     * @return true se o nome corresponde ao padro.
+     */
+    private static boolean matchesBranch(String name, String pattern) {
+
+    	String[] parts = pattern.split("\\*", -1);
+    	if (parts.length == 1) {
+    		return name.equals(pattern);
+    	}
+    	if (!name.startsWith(parts[0])) {
+    		return false;
+    	}
+
+    	int position = parts[0].length();
+    	for (int i = 1; i < parts.length - 1; i++) {
+    		int found = name.indexOf(parts[i], position);
+    		if (found < 0) {
+    			return false;
+    		}
+    		position = found + parts[i].length();
+    	}
+
+    	String last = parts[parts.length - 1];
+    	return name.length() - last.length() >= position && name.endsWith(last);
+    }
+
+    /**
+     * Obtm o ltimo commit processado de uma <i>branch</i> acompanhada.
+     *
+     * @param branchName O nome da <i>branch</i>.
+     *
+     * @return O identificador do commit, ou nulo se a <i>branch</i> ainda no foi processada.
+     */
+    public ObjectId getBranchTip(String branchName) {
+    	synchronized (branchTips) {
+    		return branchTips.get(branchName);
+    	}
+    }
+
+    /**
+     * Registra no banco de dados que um conjunto de commits pertence a uma <i>branch</i> acompanhada.
+     *
+     * @param branchName O nome da <i>branch</i>.
+     * @param hashes Uma lista de Strings contendo os hashes dos commits.
+     * @param tip O novo ltimo commit processado da <i>branch</i>, ou nulo se o mesmo no deve ser atualizado.
+     */
+    public void addBranchCommits(String branchName, List<String> hashes, ObjectId tip) {
+
+    	FileController.writeBranchCommits(database, branchName, hashes, tip == null ? null : tip.name());
+    	if (tip != null) {
+    		synchronized (branchTips) {
+    			branchTips.put(branchName, tip.copy());
+    		}
+    	}
+    }
+
+    /**
+     * Remove do banco de dados todos os commits registrados em uma <i>branch</i> acompanhada, junto com o seu ltimo commit processado.
+     *  usado quando o histrico da <i>branch</i> foi reescrito, para que a associao seja refeita a partir do novo histrico.
+     *
+     * @param branchName O nome da <i>branch</i>.
+     */
+    public void removeBranchCommits(String branchName) {
+
+    	FileController.removeBranchCommits(database, branchName);
+    	synchronized (branchTips) {
+    		branchTips.remove(branchName);
+    	}
+    }
+
+    /**
+     * Obtm os hashes de todos os commits que pertencem a uma <i>branch</i> acompanhada.
+     *
+     * @param branchName O nome da <i>branch</i>.
+     *
+     * @return Um ArrayList de Strings contendo os hashes dos commits da <i>branch</i>.
+     */
+    public ArrayList<String> getCommitHashesByBranch(String branchName) {
+    	return FileController.getCommitHashesByBranch(database, branchName);
+    }
+
+    /**
+     * Adiciona um conjunto de commits  lista de commits j coletados, ao banco de dados do repositrio e ao ndice de commits j
+     * extrados.
+     *
+     * @param commitList Um ArrayList de Commits que contm os commits a serem adicionados.
+     */
+    public void addCommits(ArrayList<Commit> commitList) {
+
+    	FileController.writeCommits(database, commitList);
+    	commits.addAll(commitList);
+    	for (Commit commit : commitList) {
+    		addToIndex(commit);
+    	}
+    }
+
+    /**
+     * Adiciona um segmento de commits recm-extrados  lista de commits j coletados, ao banco de dados e ao ndice de commits j
+     * extrados, atualizando tambm os commits pendentes. O segmento e os commits pendentes so gravados na mesma transao, o que
+     * funciona como um <i>checkpoint</i>: se a extrao for interrompida, a prxima passagem retoma a partir dos commits pendentes.
+     *
+     * @param commitList Um ArrayList de Commits que contm os commits do segmento.
+     * @param addedPending Os commits que passam a ser pendentes: os pais dos commits do segmento que ainda no foram extrados.
+     * @param removedPending Os commits do segmento que eram pendentes.
+     */
+    public void addCommits(ArrayList<Commit> commitList, Set<ObjectId> addedPending, Set<ObjectId> removedPending) {
+
+    	FileController.writeCommits(database, commitList, toHashes(addedPending), toHashes(removedPending));
+    	commits.addAll(commitList);
+    	for (Commit commit : commitList) {
+    		addToIndex(commit);
+    	}
+    	synchronized (pendingCommits) {
+    		pendingCommits.removeAll(removedPending);
+    		pendingCommits.addAll(addedPending);
+    	}
+    }
+
+    /**
+     * Converte um conjunto de identificadores de commits em uma lista de hashes.
+     *
+     * @param ids Os identificadores.
+     *
+     * @return Uma lista com os hashes.
+     */
+    private static List<String> toHashes(Set<ObjectId> ids) {
+    	List<String> hashes = new ArrayList<String>(ids.size());
+    	for (ObjectId id : ids) {
+    		hashes.add(id.name());
+    	}
+    	return hashes;
+    }
+
+    /**
+     * Verifica se um commit est pendente, ou seja, se ainda no foi extrado embora algum de seus filhos j tenha sido.
+     *
+     * @param id O identificador do commit.
+     *
+     * @return true se o commit est pendente.
+     */
+    public boolean isPending(AnyObjectId id) {
+    	synchronized (pendingCommits) {
+    		return pendingCommits.contains(id);
+    	}
+    }
+
+    /**
+     * Obtm os commits pendentes, ou seja, os commits ainda no extrados cujos filhos j foram extrados.
+     *
+     * @return Uma lista com os identificadores dos commits pendentes.
+     */
+    public List<ObjectId> getPendingCommits() {
+    	synchronized (pendingCommits) {
+    		return new ArrayList<ObjectId>(pendingCommits);
+    	}
+    }
+
+    /**
+     * Adiciona o hash de um commit ao ndice de commits j extrados.
+     *
+     * @param commit O commit a ser adicionado ao ndice.
+     */
+    private void addToIndex(Commit commit) {
+    	seenCommits.add(ObjectId.fromString(commit.getHash()));
+    }
+
+    /**
+     * Obtm o objeto que representa o repositrio Git.
+     *
+     * @return O repositrio Git.
+     */
+    public Git getGit() {
+    	return git;
+    }
+
+    /**
+     * Obtm a URI do repositrio.
+     *
+     * @return A URI do repositrio.
+     */
+    public String getURI() {
+    	return uri;
+    }
+
+    /**
+     * Obtm o Token de autenticao do usurio.
+     *
+     * @return O Token de autenticao.
+     */
+    public String getToken() {
+    	return token;
+    }
+
+    /**
+     * Obtm o <i>path</i> para a pasta do repositrio.
+     *
+     * @return O <i>path</i> do repositrio.
+     */
+    public String getPath() {
+    	return path;
+    }
+
+    /**
+     * Obtm o nome da <i>branch</i> principal do repositrio.
+     *
+     * @return O nome da <i>branch</i>.
+     */
+    public String getBranch() {
+    	return branch;
+    }
+
+    /**
+     * Obtm o ndice dos commits que j foram extrados do repositrio.
+     *
+     * @return O ndice de commits j extrados.
+     */
+    public CommitIdSet getSeenCommits() {
+    	return seenCommits;
+    }
+
+    /**
+     * Obtm uma cpia da lista atual de commits j coletados do repositrio.  equivalente  funo getCommitSnapshot.
+     *
+     * @return Um ArrayList de Commits que contm os commits coletados no momento da chamada.
+     *
+     * @deprecated A lista no acompanha os lotes adicionados depois da chamada. Utilize a funo getCommitSnapshot, ou a funo
+     * getCommitView para no converter cada commit em um objeto Commit.
+     */
+    @Deprecated
+    public ArrayList<Commit> getAllCommits() {
+    	return getCommitSnapshot();
+    }
+
+    /**
+     * Obtm uma cpia da lista atual de commits j coletados do repositrio, que pode ser percorrida com segurana enquanto novos lotes
+     * de commits ainda esto sendo adicionados. Os commits so convertidos a partir das colunas do CommitStore a cada chamada, ento a
+     * funo getCommitView deve ser preferida.
+     *
+     * @return Um ArrayList de Commits que contm os commits coletados no momento da chamada.
+     */
+    public ArrayList<Commit> getCommitSnapshot() {
+    	return commits.snapshot().toList();
+    }
+
+    /**
+     * Obtm uma cpia instantnea dos commits j coletados do repositrio, que l diretamente as colunas do CommitStore e pode ser
+     * percorrida com segurana enquanto novos lotes de commits ainda esto sendo adicionados.
+     *
+     * @return A cpia instantnea dos commits coletados no momento da chamada.
+     */
+    public CommitView getCommitView() {
+    	return commits.snapshot();
+    }
+
+    /**
+     * Obtm o <i>cache</i> das mensagens dos commits, de onde podem ser lidos o nmero de consultas encontradas e no encontradas.
+     *
+     * @return O <i>cache</i> das mensagens, ou nulo caso todas as mensagens sejam mantidas em memria.
+     */
+    public MessageCache getMessageCache() {
+    	return messageCache;
+    }
+}
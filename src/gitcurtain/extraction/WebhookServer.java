@@ -0,0 +1,310 @@
+package gitcurtain.extraction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Um servidor HTTP embutido que recebe notificaes de <i>push</i> (<i>webhooks</i>) de servios como GitHub e GitLab, e antecipa a
+ * coleta dos repositrios correspondentes. Uma notificao corresponde a um repositrio registrado quando o corpo da requisio menciona
+ * a URI do mesmo (e.g., o campo "clone_url" do GitHub). A coleta peridica continua ativa, ento uma notificao perdida somente atrasa a
+ * coleta at o prximo tempo de espera.
+ *
+ * O servidor somente aceita requisies POST, e responde 202 quando a notificao corresponde a algum repositrio registrado e 404
+ * caso contrrio. Por padro, o servidor somente  acessvel pela prpria mquina (<i>loopback</i>). Para receber notificaes de
+ * outras mquinas, o endereo deve ser especificado, junto com um segredo compartilhado: com um segredo, toda notificao deve ter o
+ * cabealho "X-Hub-Signature-256" com a assinatura HMAC-SHA256 do corpo, como enviada pelo GitHub, e as notificaes sem uma
+ * assinatura vlida so recusadas com 401 antes de qualquer coleta. Para ser utilizado com um nico repositrio, o servidor deve ser
+ * iniciado pelo mtodo startWebhookServer da classe ExtractionController. Com o ExtractionScheduler, cada repositrio deve ser
+ * registrado com o mtodo requestExtraction do mesmo.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class WebhookServer {
+
+	/**
+	 * O tamanho mximo, em bytes, do corpo de uma notificao.
+	 */
+	private static final int MAX_PAYLOAD_SIZE = 4 * 1024 * 1024;
+	/**
+	 * O cabealho com a assinatura do corpo de uma notificao.
+	 */
+	private static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+	/**
+	 * O prefixo do valor do cabealho de assinatura.
+	 */
+	private static final String SIGNATURE_PREFIX = "sha256=";
+
+	/**
+	 * O servidor HTTP.
+	 */
+	private HttpServer server;
+	/**
+	 * A thread que atende as requisies.
+	 */
+	private ExecutorService executor;
+	/**
+	 * As aes executadas para cada repositrio registrado, indexadas pela URI normalizada do mesmo.
+	 */
+	private Map<String, List<Runnable>> repositories;
+	/**
+	 * A chave da assinatura das notificaes, ou nulo quando as notificaes no so assinadas.
+	 */
+	private SecretKeySpec secretKey;
+
+	/**
+	 * Cria um WebhookServer acessvel somente pela prpria mquina, sem verificao de assinatura. O servidor somente comea a receber
+	 * notificaes depois de uma chamada ao mtodo start.
+	 *
+	 * @param port A porta onde o servidor recebe as notificaes. Com a porta 0, uma porta livre qualquer  utilizada.
+	 * @param path O <i>path</i> onde o servidor recebe as notificaes (e.g., /webhook).
+	 *
+	 * @throws IOException  lanado quando no  possvel utilizar a porta especificada.
+	 */
+	public WebhookServer(int port, String path) throws IOException {
+		this(null, port, path, null);
+	}
+
+	/**
+	 * Cria um WebhookServer no endereo especificado. O servidor somente comea a receber notificaes depois de uma chamada ao mtodo
+	 * start.
+	 *
+	 * @param bindAddress O endereo onde o servidor recebe as notificaes (e.g., 0.0.0.0 para todas as interfaces), ou nulo para
+	 * somente a prpria mquina.
+	 * @param port A porta onde o servidor recebe as notificaes. Com a porta 0, uma porta livre qualquer  utilizada.
+	 * @param path O <i>path</i> onde o servidor recebe as notificaes (e.g., /webhook).
+	 * @param secret O segredo compartilhado com o servio que envia as notificaes, ou nulo para aceitar notificaes sem assinatura.
+	 *
+	 * @throws IOException  lanado quando no  possvel utilizar o endereo ou a porta especificados.
+	 */
+	public WebhookServer(String bindAddress, int port, String path, String secret) throws IOException {
+		repositories = new LinkedHashMap<String, List<Runnable>>();
+		if (secret != null && !secret.isEmpty()) {
+			secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+		}
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "gitcurtain-webhook");
+			thread.setDaemon(true);
+			return thread;
+		});
+		InetAddress address = bindAddress == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bindAddress);
+		server = HttpServer.create(new InetSocketAddress(address, port), 0);
+		server.createContext(path, this::handle);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Registra uma ao que deve ser executada sempre que uma notificao de <i>push</i> menciona o repositrio especificado.
+	 *
+	 * @param repositoryURI A URI do repositrio.
+	 * @param onPush A ao executada a cada notificao. Deve retornar rapidamente, e normalmente somente pede uma coleta.
+	 */
+	public void register(String repositoryURI, Runnable onPush) {
+		String key = TrackedRepository.normalizeURI(repositoryURI);
+		synchronized (repositories) {
+			List<Runnable> actions = repositories.get(key);
+			if (actions == null) {
+				actions = new ArrayList<Runnable>();
+				repositories.put(key, actions);
+			}
+			actions.add(onPush);
+		}
+	}
+
+	/**
+	 * Inicia o servidor.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Encerra o servidor.
+	 */
+	public void stop() {
+		server.stop(0);
+		executor.shutdown();
+	}
+
+	/**
+	 * Obtm o endereo onde o servidor recebe as notificaes.
+	 *
+	 * @return O endereo.
+	 */
+	public InetAddress getAddress() {
+		return server.getAddress().getAddress();
+	}
+
+	/**
+	 * Obtm a porta onde o servidor recebe as notificaes.
+	 *
+	 * @return O nmero da porta.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Atende uma requisio HTTP, executando as aes de todos os repositrios mencionados pela notificao. Com um segredo configurado,
+	 * a assinatura da notificao  verificada antes de qualquer ao.
+	 *
+	 * @param exchange A requisio.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+
+		try {
+			if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			byte[] body = readBody(exchange.getRequestBody());
+			if (body == null) {
+				exchange.sendResponseHeaders(413, -1);
+				return;
+			}
+			if (secretKey != null && !isSigned(body, exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER))) {
+				exchange.sendResponseHeaders(401, -1);
+				return;
+			}
+
+			// As barras escapadas do JSON ("\/") so convertidas em barras simples.
+			String payload = new String(body, StandardCharsets.UTF_8).replace("\\/", "/");
+
+			List<Runnable> matched = new ArrayList<Runnable>();
+			synchronized (repositories) {
+				for (Map.Entry<String, List<Runnable>> repository : repositories.entrySet()) {
+					if (mentions(payload, repository.getKey())) {
+						matched.addAll(repository.getValue());
+					}
+				}
+			}
+
+			for (Runnable action : matched) {
+				action.run();
+			}
+			exchange.sendResponseHeaders(matched.isEmpty() ? 404 : 202, -1);
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Verifica a assinatura de uma notificao, comparando-a em tempo constante com a assinatura HMAC-SHA256 do corpo.
+	 *
+	 * @param body O corpo da notificao.
+	 * @param signature O valor do cabealho de assinatura, ou nulo se a notificao no foi assinada.
+	 *
+	 * @return true se a assinatura  vlida.
+	 */
+	private boolean isSigned(byte[] body, String signature) {
+
+		if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+			return false;
+		}
+
+		byte[] expected;
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(secretKey);
+			expected = mac.doFinal(body);
+		}
+		catch (GeneralSecurityException e) {
+			System.out.println("Could not verify the webhook signature.");
+			e.printStackTrace();
+			return false;
+		}
+
+		return MessageDigest.isEqual(toHex(expected).getBytes(StandardCharsets.US_ASCII),
+				signature.substring(SIGNATURE_PREFIX.length()).toLowerCase().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Converte um vetor de bytes em uma String hexadecimal.
+	 *
+	 * @param bytes Os bytes.
+	 *
+	 * @return A String hexadecimal, em letras minsculas.
+	 */
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte value : bytes) {
+			hex.append(Character.forDigit((value >> 4) & 0xF, 16));
+			hex.append(Character.forDigit(value & 0xF, 16));
+		}
+
+		return hex.toString();
+	}
+
+	/**
+	 * L o corpo de uma notificao.
+	 *
+	 * @param body O corpo da requisio.
+	 *
+	 * @return O corpo da notificao, ou nulo se o mesmo ultrapassa o tamanho mximo.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+	 */
+	private static byte[] readBody(InputStream body) throws IOException {
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+
+		while ((read = body.read(chunk)) != -1) {
+			buffer.write(chunk, 0, read);
+			if (buffer.size() > MAX_PAYLOAD_SIZE) {
+				return null;
+			}
+		}
+
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Verifica se uma notificao menciona uma URI. A URI somente  considerada mencionada quando no  seguida por outros caracteres
+	 * do nome do repositrio, para que um repositrio "projeto" no corresponda a uma notificao do repositrio "projeto2".
+	 *
+	 * @param payload O corpo da notificao.
+	 * @param uri A URI normalizada do repositrio.
+	 *
+	 * @return true se a notificao menciona a URI.
+	 */
+	private static boolean mentions(String payload, String uri) {
+
+		int index = payload.indexOf(uri);
+
+		while (index >= 0) {
+			int end = index + uri.length();
+			if (end == payload.length() || "\"/.?#".indexOf(payload.charAt(end)) >= 0) {
+				return true;
+			}
+			index = payload.indexOf(uri, index + 1);
+		}
+
+		return false;
+	}
+
+}
@@ -3,6 +3,7 @@ package gitcurtain.metrics;
 import java.util.ArrayList;
 
 import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitView;
 import gitcurtain.utils.MetricResult;
 
 /**
@@ -48,6 +49,17 @@ public class Metric {
         return metricFunction.executeMetric(commits);
     }
 
+    /**
+     * Executa a mtrica sobre uma cpia instantnea dos commits, retornando um valor customizado MetricResult.
+     * 
+     * @param commits A cpia instantnea dos commits a serem analisados pela mtrica.
+     * 
+     * @return Um valor customizado MetricResult. Mais informaes sobre MetricResult esto na documentao da interface MetricResult.
+     */
+    public MetricResult executeMetric(CommitView commits) {
+        return metricFunction.executeMetric(commits);
+    }
+    
     /**
      * Obtm o ID nico da mtrica.
      * 
@@ -3,6 +3,7 @@ package gitcurtain.metrics;
 import java.util.ArrayList;
 
 import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitView;
 import gitcurtain.utils.MetricResult;
 
 /**
@@ -104,6 +105,28 @@ public class MetricController {
         return resultList;
     }
     
+    /**
+     * Executa todas as mtricas da lista de mtricas sobre uma cpia instantnea dos commits, em ordem FIFO.  a variao utilizada pelo
+     * MetricThread, que l os commits diretamente das colunas onde os mesmos so guardados. Esta funo  gerenciada pelo GitCURTAIN e,
+     * portanto, no deve ser utilizada pelo sistema.
+     * 
+     * @param commits A cpia instantnea dos commits que sero utilizados para clculo de mtricas.
+     * 
+     * @return Um ArrayList de MetricResults, com os resultados de cada uma das mtricas.
+     */
+    public static ArrayList<MetricResult> executeMetrics(CommitView commits) {
+    	
+        ArrayList<MetricResult> resultList = new ArrayList<MetricResult>();
+        MetricResult newResult;
+
+        for (Metric metric : metricList) {
+            newResult = metric.executeMetric(commits);
+            resultList.add(newResult);
+        }
+
+        return resultList;
+    }
+    
     /**
      * Inicia a thread de clculo de mtricas do repositrio. Esta funo deve ser chamada por todo sistema que utiliza GitCURTAIN,
      * durante o processo de inicializao.
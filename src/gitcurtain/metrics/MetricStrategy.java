@@ -1,8 +1,12 @@
 package gitcurtain.metrics;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
 
 import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitVariables;
+import gitcurtain.utils.CommitView;
 import gitcurtain.utils.MetricResult;
 
 /**
@@ -27,5 +31,31 @@ public interface MetricStrategy {
      * clculo destes valores.
      */
     public MetricResult executeMetric(ArrayList<Commit> commits);
+    
+    /**
+     * Executa os clculos da mtrica sobre uma cpia instantnea dos commits, que l os dados diretamente das colunas onde os commits so
+     * guardados.  a variao utilizada pelo MetricThread. Por padro, os commits so convertidos em uma lista de Commits e passados 
+     * outra variao desta funo. As estratgias que percorrem muitos commits devem sobrescrever esta variao, para que nenhum objeto
+     * seja criado por commit.
+     * 
+     * @param commits A cpia instantnea de todos os commits.
+     * 
+     * @return O resultado da execuo da mtrica, contendo os valores finais e a lista de commits que realmente foram utilizados para o
+     * clculo destes valores.
+     */
+    public default MetricResult executeMetric(CommitView commits) {
+    	return executeMetric(commits.toList(getRequiredVariables()));
+    }
+    
+    /**
+     * Declara quais dados dos commits so lidos pela estratgia. Quando os commits so convertidos em uma lista de Commits para a
+     * variao padro de executeMetric, somente os dados declarados so preenchidos, e os demais ficam nulos. Por padro, todos os
+     * dados so declarados.
+     * 
+     * @return O conjunto de dados lidos pela estratgia.
+     */
+    public default Set<CommitVariables> getRequiredVariables() {
+    	return EnumSet.allOf(CommitVariables.class);
+    }
 
 }
\ No newline at end of file
@@ -2,7 +2,7 @@ package gitcurtain.metrics;
 
 import java.util.ArrayList;
 
-import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitView;
 import gitcurtain.utils.ExtractionMetricsSync;
 import gitcurtain.utils.MetricResult;
 import gitcurtain.utils.MetricsVisSync;
@@ -18,9 +18,9 @@ import gitcurtain.utils.MetricsVisSync;
 public class MetricThread extends Thread {
 	
 	/**
-	 * A lista de commits a serem analisados.
+	 * A cpia instantnea dos commits a serem analisados.
 	 */
-	private ArrayList<Commit> commits;
+	private CommitView commits;
 	/**
 	 * A lista de resultados que ser gerada aps a execuo das mtricas.
 	 */
@@ -71,7 +71,7 @@ public class MetricThread extends Thread {
 				}
 			
 				while (commits == null) {
-					commits = emSyncLock.getCommitList();
+					commits = emSyncLock.getCommitView();
 					if (commits == null) {
 						sleep(DURATION);
 					}
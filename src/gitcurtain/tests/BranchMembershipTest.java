@@ -0,0 +1,105 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.CommitExtractor;
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.TrackedRepository;
+
+public class BranchMembershipTest extends TestParent {
+
+	private TestRepository source;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+	private TrackedRepository repository;
+	private CommitExtractor extractor;
+
+	@Before
+	public void createRepositories() throws Exception {
+		source = new TestRepository("gitcurtain-branches-source");
+		workDirectory = Files.createTempDirectory("gitcurtain-branches").toFile();
+		scheduler = new ExtractionScheduler(1, 1);
+	}
+
+	@After
+	public void deleteRepositories() throws IOException {
+		scheduler.shutdown();
+		if (repository != null) {
+			repository.getGit().close();
+		}
+		source.delete();
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testSharedCommitsAreStoredOnce() throws Exception {
+
+		RevCommit initial = source.commitFile("README.md", "Initial commit");
+		RevCommit shared = source.commitFile("Main.java", "Add main");
+		source.getGit().branchCreate().setName("release/1.0").call();
+		RevCommit mainline = source.commitFile("Feature.java", "Add feature");
+		source.getGit().checkout().setName("release/1.0").call();
+		RevCommit fix = source.commitFile("Fix.java", "Fix release");
+		source.getGit().checkout().setName("master").call();
+
+		track();
+		extractor.extractBranches();
+
+		Assert.assertEquals(4, repository.getCommitView().size());
+		Assert.assertEquals(hashes(initial, shared, mainline), new HashSet<String>(repository.getCommitHashesByBranch("master")));
+		Assert.assertEquals(hashes(initial, shared, fix), new HashSet<String>(repository.getCommitHashesByBranch("release/1.0")));
+	}
+
+	@Test
+	public void testForcePushRebuildsMembership() throws Exception {
+
+		RevCommit initial = source.commitFile("README.md", "Initial commit");
+		RevCommit rewritten = source.commitFile("Main.java", "Add main");
+
+		track();
+		extractor.extractBranches();
+		Assert.assertEquals(hashes(initial, rewritten), new HashSet<String>(repository.getCommitHashesByBranch("master")));
+
+		source.getGit().reset().setMode(ResetType.HARD).setRef(initial.name()).call();
+		RevCommit replacement = source.commitFile("App.java", "Add app");
+		repository.fetch();
+		extractor.extractBranches();
+
+		Assert.assertTrue(repository.getGit().getRepository().getObjectDatabase().has(rewritten));
+		Assert.assertEquals(hashes(initial, replacement), new HashSet<String>(repository.getCommitHashesByBranch("master")));
+		Assert.assertEquals(replacement, repository.getBranchTip("master"));
+	}
+
+	private void track() throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setTrackedBranches(Arrays.asList("release/*"));
+
+		TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone").getPath(), source.getURI(), "",
+				"master");
+		repository = scheduler.register(setup, new File(workDirectory, "commits.db").getPath(), 0, settings, null);
+		extractor = new CommitExtractor(repository, settings, null, null);
+	}
+
+	private static Set<String> hashes(RevCommit... commits) {
+		Set<String> hashes = new HashSet<String>();
+		for (RevCommit commit : commits) {
+			hashes.add(commit.name());
+		}
+		return hashes;
+	}
+
+}
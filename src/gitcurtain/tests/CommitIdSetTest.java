@@ -0,0 +1,62 @@
+package gitcurtain.tests;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import gitcurtain.utils.CommitIdSet;
+
+public class CommitIdSetTest extends TestParent {
+
+	@Test
+	public void testAddAndContains() {
+
+		CommitIdSet set = new CommitIdSet();
+		ObjectId id = ObjectId.fromString("29932f3915935d773dc8d52c292cadd81c81071d");
+
+		Assert.assertFalse(set.contains(id));
+		Assert.assertTrue(set.add(id));
+		Assert.assertTrue(set.contains(id));
+		Assert.assertFalse(set.add(id));
+		Assert.assertEquals(1, set.size());
+	}
+
+	@Test
+	public void testZeroIdIsRejected() {
+
+		CommitIdSet set = new CommitIdSet();
+
+		Assert.assertFalse(set.add(ObjectId.zeroId()));
+		Assert.assertFalse(set.contains(ObjectId.zeroId()));
+		Assert.assertEquals(0, set.size());
+	}
+
+	@Test
+	public void testGrowthKeepsAllIds() {
+
+		CommitIdSet set = new CommitIdSet(4);
+		HashSet<ObjectId> expected = new HashSet<ObjectId>();
+		Random random = new Random(42);
+		byte[] raw = new byte[20];
+
+		for (int i = 0; i < 50000; i++) {
+			random.nextBytes(raw);
+			ObjectId id = ObjectId.fromRaw(raw);
+			Assert.assertEquals(expected.add(id), set.add(id));
+		}
+
+		Assert.assertEquals(expected.size(), set.size());
+		for (ObjectId id : expected) {
+			Assert.assertTrue(set.contains(id));
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			random.nextBytes(raw);
+			Assert.assertFalse(set.contains(ObjectId.fromRaw(raw)));
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package gitcurtain.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitStore;
+import gitcurtain.utils.CommitVariables;
+import gitcurtain.utils.CommitView;
+
+public class CommitStoreTest extends TestParent {
+
+	@Test
+	public void testCommitsAreReadBack() throws Exception {
+
+		CommitStore store = new CommitStore();
+		Commit commit = createCommit("29932f3915935d773dc8d52c292cadd81c81071d", "Alice", 1000, "src/Main.java", "README.md");
+		store.add(commit);
+
+		CommitView view = store.snapshot();
+		Commit readBack = view.getCommit(0);
+
+		Assert.assertEquals(1, view.size());
+		for (CommitVariables variable : CommitVariables.values()) {
+			Assert.assertEquals(commit.getVariableByEnum(variable), readBack.getVariableByEnum(variable));
+		}
+	}
+
+	@Test
+	public void testRepeatedValuesShareIds() {
+
+		CommitStore store = new CommitStore();
+		store.add(createCommit("29932f3915935d773dc8d52c292cadd81c81071d", "Alice", 1000, "src/Main.java"));
+		store.add(createCommit("4feb1fb0f20eb2aa50e63abe21e54aaf64b1d88b", "Alice", 2000, "docs/guide.md", "src/Main.java"));
+
+		CommitView view = store.snapshot();
+
+		Assert.assertEquals(view.getAuthorId(0), view.getAuthorId(1));
+		Assert.assertEquals(view.getFileId(0, 0), view.getFileId(1, 1));
+		Assert.assertTrue(view.getFileId(0, 0) != view.getFileId(1, 0));
+		Assert.assertEquals(2000, view.getCommitTime(1));
+	}
+
+	@Test
+	public void testSnapshotIsNotChangedByLaterCommits() {
+
+		CommitStore store = new CommitStore(1);
+		store.add(createCommit("29932f3915935d773dc8d52c292cadd81c81071d", "Alice", 1000, "src/Main.java"));
+		CommitView view = store.snapshot();
+
+		for (int i = 0; i < 100; i++) {
+			store.add(createCommit(String.format("%040x", i + 1), "Bob", i, "src/File" + i + ".java"));
+		}
+
+		Assert.assertEquals(1, view.size());
+		Assert.assertEquals("29932f3915935d773dc8d52c292cadd81c81071d", view.getHash(0));
+		Assert.assertEquals("src/Main.java", view.getPath(view.getFileId(0, 0)));
+		Assert.assertEquals(101, store.snapshot().size());
+	}
+
+	private Commit createCommit(String hash, String author, long time, String... files) {
+		return new Commit("Message of " + hash, hash, author, "Committer", new Date(time), new Date(time),
+				new ArrayList<String>(Arrays.asList(files)));
+	}
+
+}
@@ -0,0 +1,80 @@
+package gitcurtain.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitStore;
+import gitcurtain.utils.CommitTimeline;
+import gitcurtain.utils.CommitView;
+
+public class CommitTimelineTest extends TestParent {
+
+	@Test
+	public void testLatestIsTheMostRecentCommit() {
+
+		CommitStore store = new CommitStore();
+		Assert.assertEquals(-1, store.snapshot().getLatest());
+
+		store.add(createCommit(1, 3000));
+		store.add(createCommit(2, 1000));
+		store.add(createCommit(3, 3000));
+		store.add(createCommit(4, 2000));
+
+		CommitView view = store.snapshot();
+
+		Assert.assertEquals(2, view.getLatest());
+		Assert.assertEquals(view.getLatest(), view.getTimeline().getLatest());
+		Assert.assertEquals(1, view.getTimeline().getEarliest());
+	}
+
+	@Test
+	public void testRangeQueries() {
+
+		CommitStore store = new CommitStore();
+		long[] times = { 5000, 1000, 4000, 2000, 3000, 2000 };
+		for (int i = 0; i < times.length; i++) {
+			store.add(createCommit(i + 1, times[i]));
+		}
+
+		CommitTimeline timeline = store.snapshot().getTimeline();
+
+		Assert.assertArrayEquals(new int[] { 1, 3, 5, 4, 2, 0 }, timeline.getBetween(0, 10000));
+		Assert.assertArrayEquals(new int[] { 3, 5, 4 }, timeline.getBetween(2000, 4000));
+		Assert.assertArrayEquals(new int[0], timeline.getBetween(6000, 7000));
+		Assert.assertEquals(1, timeline.rankOf(1500));
+	}
+
+	@Test
+	public void testTimelineIsExtendedAndOlderSnapshotsAreKept() {
+
+		CommitStore store = new CommitStore(1);
+		store.add(createCommit(1, 2000));
+		store.add(createCommit(2, 1000));
+		CommitView older = store.snapshot();
+
+		store.add(createCommit(3, 1500));
+		CommitView newer = store.snapshot();
+		Assert.assertArrayEquals(new int[] { 1, 2, 0 }, newer.getTimeline().getBetween(0, 10000));
+
+		for (int i = 0; i < 100; i++) {
+			store.add(createCommit(i + 4, 500 + i));
+		}
+
+		Assert.assertArrayEquals(new int[] { 1, 0 }, older.getTimeline().getBetween(0, 10000));
+		Assert.assertEquals(3, newer.getTimeline().size());
+		Assert.assertEquals(103, store.snapshot().getTimeline().size());
+		Assert.assertEquals(3, store.snapshot().getTimeline().get(0));
+		Assert.assertEquals(0, store.snapshot().getLatest());
+	}
+
+	private Commit createCommit(int id, long time) {
+		return new Commit("Message " + id, String.format("%040x", id), "Author", "Committer", new Date(time), new Date(time),
+				new ArrayList<String>(Arrays.asList("src/File" + id + ".java")));
+	}
+
+}
@@ -0,0 +1,134 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.database.FileController;
+import gitcurtain.database.SQLiteConnectionManager;
+import gitcurtain.extraction.CommitBatchListener;
+import gitcurtain.extraction.CommitExtractor;
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.TrackedRepository;
+import gitcurtain.utils.CommitView;
+
+public class ExtractionCheckpointTest extends TestParent {
+
+	private TestRepository source;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+	private TrackedRepository repository;
+	private Set<String> allHashes;
+
+	@Before
+	public void createRepositories() throws Exception {
+
+		source = new TestRepository("gitcurtain-checkpoint-source");
+		workDirectory = Files.createTempDirectory("gitcurtain-checkpoint").toFile();
+
+		for (int i = 0; i < 6; i++) {
+			source.commitFile("src/File" + i + ".java", "Add file " + i);
+		}
+		source.getGit().branchCreate().setName("feature").call();
+		source.getGit().checkout().setName("feature").call();
+		for (int i = 0; i < 4; i++) {
+			source.commitFile("feature/File" + i + ".java", "Add feature file " + i);
+		}
+		source.getGit().checkout().setName("master").call();
+		for (int i = 6; i < 10; i++) {
+			source.commitFile("src/File" + i + ".java", "Add file " + i);
+		}
+		source.getGit().merge().include(source.getRepository().findRef("feature")).setFastForward(FastForwardMode.NO_FF)
+				.setCommit(true).setMessage("Merge feature").call();
+
+		allHashes = new HashSet<String>();
+		RevWalk revWalk = new RevWalk(source.getRepository());
+		revWalk.markStart(revWalk.parseCommit(source.getRepository().resolve("HEAD")));
+		for (RevCommit commit : revWalk) {
+			allHashes.add(commit.name());
+		}
+		revWalk.close();
+	}
+
+	@After
+	public void deleteRepositories() throws IOException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+		if (repository != null) {
+			repository.getGit().close();
+		}
+		source.delete();
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testInterruptedExtractionResumesFromCheckpoint() throws Exception {
+
+		int[] batches = new int[1];
+		CommitBatchListener failing = (tracked, batch) -> {
+			if (++batches[0] == 2) {
+				throw new IllegalStateException("Simulated crash");
+			}
+		};
+
+		open();
+		try {
+			new CommitExtractor(repository, createSettings(), null, failing).extractBranches();
+			Assert.fail();
+		}
+		catch (IllegalStateException e) {
+		}
+		Assert.assertEquals(6, repository.getCommitView().size());
+		Assert.assertFalse(repository.getPendingCommits().isEmpty());
+
+		open();
+		Assert.assertEquals(6, repository.getCommitView().size());
+		int resumed = new CommitExtractor(repository, createSettings(), null, null).extractBranches();
+
+		CommitView view = repository.getCommitView();
+		Set<String> extracted = new HashSet<String>();
+		for (int i = 0; i < view.size(); i++) {
+			Assert.assertTrue(extracted.add(view.getHash(i)));
+		}
+		Assert.assertEquals(allHashes.size() - 6, resumed);
+		Assert.assertEquals(allHashes, extracted);
+		Assert.assertTrue(repository.getPendingCommits().isEmpty());
+		Assert.assertTrue(FileController.getPendingCommits(SQLiteConnectionManager.getConnection(getDatabasePath())).isEmpty());
+	}
+
+	private void open() throws Exception {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			repository.getGit().close();
+		}
+
+		scheduler = new ExtractionScheduler(1, 1);
+		TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone").getPath(), source.getURI(), "",
+				"master");
+		repository = scheduler.register(setup, getDatabasePath(), 0, createSettings(), null);
+	}
+
+	private ExtractionSettings createSettings() {
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setBatchSize(3);
+		return settings;
+	}
+
+	private String getDatabasePath() {
+		return new File(workDirectory, "commits.db").getPath();
+	}
+
+}
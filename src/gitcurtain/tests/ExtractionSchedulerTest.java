@@ -0,0 +1,165 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.errors.NotSupportedException;
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchConnection;
+import org.eclipse.jgit.transport.PushConnection;
+import org.eclipse.jgit.transport.Transport;
+import org.eclipse.jgit.transport.TransportProtocol;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.TrackedRepository;
+
+public class ExtractionSchedulerTest extends TestParent {
+
+	private static final String SCHEME = "gitcurtain-slow";
+
+	private SlowProtocol protocol;
+	private List<TestRepository> sources;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+
+	@Before
+	public void createRepositories() throws Exception {
+
+		protocol = new SlowProtocol();
+		Transport.register(protocol);
+
+		sources = new ArrayList<TestRepository>();
+		for (int i = 0; i < 4; i++) {
+			TestRepository source = new TestRepository("gitcurtain-scheduler-source");
+			source.commitFile("README.md", "Initial commit");
+			sources.add(source);
+		}
+		workDirectory = Files.createTempDirectory("gitcurtain-scheduler").toFile();
+	}
+
+	@After
+	public void deleteRepositories() throws Exception {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(10000);
+			for (TrackedRepository repository : scheduler.getRepositories()) {
+				repository.getGit().close();
+			}
+		}
+		Transport.unregister(protocol);
+		for (TestRepository source : sources) {
+			source.delete();
+		}
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testConcurrentFetchesNeverExceedPermits() throws Exception {
+
+		scheduler = new ExtractionScheduler(4, 2);
+		for (int i = 0; i < sources.size(); i++) {
+			String uri = SCHEME + "://" + sources.get(i).getDirectory().getAbsolutePath();
+			TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone" + i).getPath(), uri, "",
+					"master");
+			scheduler.register(setup, new File(workDirectory, "commits" + i + ".db").getPath(), 10, new ExtractionSettings(), null);
+		}
+
+		protocol.reset();
+		scheduler.start();
+		long deadline = System.currentTimeMillis() + 10000;
+		while (protocol.connections.get() < 16 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		scheduler.shutdown();
+		scheduler.awaitTermination(10000);
+
+		Assert.assertTrue(protocol.connections.get() >= 16);
+		Assert.assertEquals(2, protocol.maxActive.get());
+	}
+
+	private static class SlowProtocol extends TransportProtocol {
+
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicInteger maxActive = new AtomicInteger();
+		private final AtomicInteger connections = new AtomicInteger();
+
+		public void reset() {
+			maxActive.set(0);
+			connections.set(0);
+		}
+
+		public String getName() {
+			return "Slow local";
+		}
+
+		public Set<String> getSchemes() {
+			return Collections.singleton(SCHEME);
+		}
+
+		public Transport open(URIish uri, Repository local, String remoteName) throws NotSupportedException, TransportException {
+			try {
+				return new SlowTransport(local, uri, this);
+			}
+			catch (URISyntaxException e) {
+				throw new NotSupportedException(e.getMessage(), e);
+			}
+		}
+
+	}
+
+	// A abertura de cada conexo de busca demora um pouco, para que as coletas de vrios repositrios se sobreponham.
+	private static class SlowTransport extends Transport {
+
+		private Transport delegate;
+		private SlowProtocol protocol;
+
+		private SlowTransport(Repository local, URIish uri, SlowProtocol protocol) throws URISyntaxException, NotSupportedException,
+				TransportException {
+			super(local, uri);
+			this.protocol = protocol;
+			delegate = Transport.open(local, new URIish(new File(uri.getPath()).toURI().toString()));
+		}
+
+		public FetchConnection openFetch() throws NotSupportedException, TransportException {
+
+			protocol.connections.incrementAndGet();
+			int current = protocol.active.incrementAndGet();
+			protocol.maxActive.accumulateAndGet(current, Math::max);
+
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				protocol.active.decrementAndGet();
+			}
+
+			return delegate.openFetch();
+		}
+
+		public PushConnection openPush() throws NotSupportedException, TransportException {
+			throw new NotSupportedException("Push is not supported.");
+		}
+
+		public void close() {
+			delegate.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package gitcurtain.tests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.FirstParentWalk;
+import gitcurtain.utils.CommitIdSet;
+
+public class FirstParentWalkTest extends TestParent {
+
+	private TestRepository repository;
+	private RevCommit initial;
+	private RevCommit mainline;
+	private RevCommit merge;
+
+	@Before
+	public void createRepository() throws Exception {
+		repository = new TestRepository("gitcurtain-first-parent");
+
+		initial = repository.commitFile("README.md", "Initial commit");
+		repository.getGit().branchCreate().setName("feature").call();
+		repository.getGit().checkout().setName("feature").call();
+		repository.commitFile("feature/One.java", "Add first feature file");
+		repository.commitFile("feature/Two.java", "Add second feature file");
+		repository.getGit().checkout().setName("master").call();
+		mainline = repository.commitFile("Main.java", "Add main");
+
+		Ref feature = repository.getRepository().findRef("feature");
+		repository.getGit().merge().include(feature).setFastForward(FastForwardMode.NO_FF).setCommit(true).setMessage("Merge feature")
+				.call();
+		merge = new RevWalk(repository.getRepository()).parseCommit(repository.getRepository().resolve("HEAD"));
+	}
+
+	@After
+	public void deleteRepository() throws IOException {
+		repository.delete();
+	}
+
+	@Test
+	public void testOnlyFirstParentsAreWalked() throws Exception {
+		Assert.assertEquals(Arrays.asList(merge, mainline, initial), walk(new CommitIdSet()));
+	}
+
+	@Test
+	public void testWalkStopsAtSeenCommit() throws Exception {
+
+		CommitIdSet seenCommits = new CommitIdSet();
+		seenCommits.add(mainline);
+
+		Assert.assertEquals(Arrays.asList(merge), walk(seenCommits));
+	}
+
+	private List<RevCommit> walk(CommitIdSet seenCommits) throws IOException {
+
+		RevWalk revWalk = new RevWalk(repository.getRepository());
+		FirstParentWalk firstParentWalk = new FirstParentWalk(revWalk, seenCommits, 0, null);
+		firstParentWalk.markStart(revWalk.parseCommit(merge));
+
+		List<RevCommit> commits = new ArrayList<RevCommit>();
+		RevCommit current;
+		while ((current = firstParentWalk.next()) != null) {
+			commits.add(current);
+		}
+		firstParentWalk.close();
+		revWalk.close();
+
+		return commits;
+	}
+
+}
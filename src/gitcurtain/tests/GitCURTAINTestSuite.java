@@ -6,13 +6,31 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+	BranchMembershipTest.class,
+	CommitIdSetTest.class,
+	CommitStoreTest.class,
+	CommitTimelineTest.class,
+	ExtractionCheckpointTest.class,
+	ExtractionSchedulerTest.class,
+	FirstParentWalkTest.class,
+	GitLogBackendTest.class,
 	KeywordFilePathTest.class,
+	LineStatsTest.class,
+	MessageCacheTest.class,
 	MetricControllerTest.class,
+	PathDictionaryTest.class,
+	PathScopeFilterTest.class,
+	PollingIntervalTest.class,
 	RepositoryBranchTest.class,
 	RepositoryFilePathTest.class,
+	RepositoryMaintenanceTest.class,
 	GitAuthenticationTokenTest.class,
 	RepositoryURITest.class,
-	WaitTimeBetweenExtractionsTest.class
+	SelfAffirmedRefactoringMetricTest.class,
+	SharedObjectStoreTest.class,
+	ShallowCloneTest.class,
+	WaitTimeBetweenExtractionsTest.class,
+	WebhookServerTest.class
 })
 
 public class GitCURTAINTestSuite {
@@ -0,0 +1,139 @@
+package gitcurtain.tests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.exceptions.InvalidEnumIDException;
+import gitcurtain.extraction.DiffMode;
+import gitcurtain.extraction.ExtractionBackend;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.GitLogBackend;
+import gitcurtain.extraction.JGitBackend;
+import gitcurtain.extraction.LineStatsCache;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitVariables;
+
+public class GitLogBackendTest extends TestParent {
+
+	private TestRepository repository;
+	private List<ObjectId> commitIds;
+
+	@Before
+	public void createRepository() throws Exception {
+		repository = new TestRepository("gitcurtain-git-log");
+		Git git = repository.getGit();
+
+		repository.writeFile("src/Main.java", "class Main {\n}\n");
+		repository.writeFile("docs/guide.md", "# Guide\n\nFirst steps.\n");
+		repository.commit("Initial commit\n\nAdds the main class and the guide.\n");
+
+		git.branchCreate().setName("feature").call();
+		git.checkout().setName("feature").call();
+		repository.writeFile("src/Feature.java", "class Feature {\n}\n");
+		repository.commit("Add feature");
+		git.checkout().setName("master").call();
+
+		git.rm().addFilepattern("docs/guide.md").call();
+		repository.writeFile("docs/manual.md", "# Guide\n\nFirst steps.\nNext steps.\n");
+		repository.writeFile("logo.png", new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, 0 });
+		repository.commit("Rename the guide");
+
+		git.rm().addFilepattern("src/Main.java").call();
+		repository.writeFile("src/App.java", "class App {\n}\n");
+		repository.commit("Replace main");
+
+		git.merge().include(repository.getRepository().findRef("feature")).setFastForward(FastForwardMode.NO_FF).setCommit(true)
+				.setMessage("Merge feature").call();
+		repository.commit("Empty commit");
+
+		commitIds = new ArrayList<ObjectId>();
+		RevWalk revWalk = new RevWalk(repository.getRepository());
+		revWalk.markStart(revWalk.parseCommit(repository.getRepository().resolve("HEAD")));
+		for (RevCommit current : revWalk) {
+			commitIds.add(current.copy());
+		}
+		revWalk.close();
+	}
+
+	@After
+	public void deleteRepository() throws IOException {
+		repository.delete();
+	}
+
+	@Test
+	public void testParityWithJGit() throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setLineStats(true, 1024 * 1024, 100);
+
+		assertParity(settings);
+	}
+
+	@Test
+	public void testParityWithoutRenamesInScope() throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setDiffMode(DiffMode.PATH_ONLY);
+		settings.setPathScope(Arrays.asList("src"), Arrays.asList("src/Feature.java"));
+
+		assertParity(settings);
+	}
+
+	private void assertParity(ExtractionSettings settings) throws Exception {
+
+		List<Commit> expected = materialize(new JGitBackend(repository.getRepository(), settings, null, createCache(settings)));
+		List<Commit> actual = materialize(new GitLogBackend(repository.getRepository(), settings, createCache(settings)));
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			for (CommitVariables variable : Arrays.asList(CommitVariables.HASH, CommitVariables.MESSAGE, CommitVariables.AUTHOR,
+					CommitVariables.COMMITTER, CommitVariables.COMMITDATE, CommitVariables.AUTHORINGDATE)) {
+				Assert.assertEquals(expected.get(i).getVariableByEnum(variable), actual.get(i).getVariableByEnum(variable));
+			}
+			Assert.assertEquals(getFileStats(expected.get(i)), getFileStats(actual.get(i)));
+		}
+	}
+
+	private LineStatsCache createCache(ExtractionSettings settings) {
+		return settings.isLineStats() ? new LineStatsCache(settings.getLineStatsCacheSize()) : null;
+	}
+
+	private List<Commit> materialize(ExtractionBackend backend) throws IOException {
+		try {
+			return backend.materialize(commitIds);
+		}
+		finally {
+			backend.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, String> getFileStats(Commit commit) throws InvalidEnumIDException {
+
+		List<String> modifiedFiles = (List<String>) commit.getVariableByEnum(CommitVariables.MODIFIEDFILES);
+		List<Integer> addedLines = (List<Integer>) commit.getVariableByEnum(CommitVariables.ADDEDLINES);
+		List<Integer> deletedLines = (List<Integer>) commit.getVariableByEnum(CommitVariables.DELETEDLINES);
+
+		Map<String, String> fileStats = new TreeMap<String, String>();
+		for (int i = 0; i < modifiedFiles.size(); i++) {
+			fileStats.put(modifiedFiles.get(i), addedLines == null ? "" : addedLines.get(i) + "/" + deletedLines.get(i));
+		}
+
+		return fileStats;
+	}
+
+}
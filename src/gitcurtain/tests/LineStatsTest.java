@@ -0,0 +1,109 @@
+package gitcurtain.tests;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.DiffSession;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.LineStatsCache;
+
+public class LineStatsTest extends TestParent {
+
+	private TestRepository repository;
+	private LineStatsCache cache;
+
+	@Before
+	public void createRepository() throws Exception {
+		repository = new TestRepository("gitcurtain-line-stats");
+		cache = new LineStatsCache(100);
+	}
+
+	@After
+	public void deleteRepository() throws IOException {
+		repository.delete();
+	}
+
+	@Test
+	public void testLinesAreCounted() throws Exception {
+
+		repository.writeFile("Main.java", "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+		RevCommit initial = repository.commit("Add main");
+		repository.writeFile("Main.java", "a\nx\nc\nd\n".getBytes(StandardCharsets.UTF_8));
+		RevCommit change = repository.commit("Change main");
+
+		Assert.assertArrayEquals(new int[] { 3, 0 }, countLines(null, initial));
+		Assert.assertArrayEquals(new int[] { 2, 1 }, countLines(initial, change));
+	}
+
+	@Test
+	public void testBinaryFilesAreSkipped() throws Exception {
+
+		repository.writeFile("logo.png", new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, 0, 0, 13 });
+		RevCommit commit = repository.commit("Add logo");
+
+		Assert.assertNull(countLines(null, commit));
+	}
+
+	@Test
+	public void testDeletedBinaryFileIsServedFromCache() throws Exception {
+
+		repository.writeFile("logo.png", new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, 0, 0, 13 });
+		RevCommit added = repository.commit("Add logo");
+		repository.getGit().rm().addFilepattern("logo.png").call();
+		RevCommit deleted = repository.commit("Remove logo");
+
+		Assert.assertNull(countLines(null, added));
+		long hits = cache.getHits();
+		Assert.assertNull(countLines(added, deleted));
+		Assert.assertEquals(hits + 1, cache.getHits());
+	}
+
+	@Test
+	public void testRevertIsServedFromCache() throws Exception {
+
+		repository.writeFile("Main.java", "a\nb\n".getBytes(StandardCharsets.UTF_8));
+		RevCommit initial = repository.commit("Add main");
+		repository.writeFile("Main.java", "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+		RevCommit change = repository.commit("Change main");
+		repository.writeFile("Main.java", "a\nb\n".getBytes(StandardCharsets.UTF_8));
+		RevCommit revert = repository.commit("Revert change");
+
+		Assert.assertArrayEquals(new int[] { 1, 0 }, countLines(initial, change));
+		long hits = cache.getHits();
+		Assert.assertArrayEquals(new int[] { 0, 1 }, countLines(change, revert));
+		Assert.assertEquals(hits + 1, cache.getHits());
+	}
+
+	private int[] countLines(RevCommit parent, RevCommit commit) throws IOException {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setLineStats(true, 1024 * 1024, 100);
+
+		ObjectReader reader = repository.getRepository().newObjectReader();
+		RevWalk revWalk = new RevWalk(reader);
+		DiffSession diffSession = new DiffSession(reader, repository.getRepository().getConfig(), settings, cache);
+
+		try {
+			List<DiffEntry> diffs = diffSession.scan(parent == null ? null : revWalk.parseCommit(parent),
+					revWalk.parseCommit(commit));
+			Assert.assertEquals(1, diffs.size());
+			return diffSession.countLines(diffs.get(0));
+		}
+		finally {
+			diffSession.close();
+			revWalk.close();
+			reader.close();
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package gitcurtain.tests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.RepositoryMessageSource;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitStore;
+import gitcurtain.utils.CommitView;
+import gitcurtain.utils.MessageCache;
+import gitcurtain.utils.MessageSource;
+
+public class MessageCacheTest extends TestParent {
+
+	private TestRepository repository;
+	private List<RevCommit> revCommits;
+
+	@Before
+	public void createRepository() throws Exception {
+		repository = new TestRepository("gitcurtain-messages");
+
+		revCommits = new ArrayList<RevCommit>();
+		for (int i = 0; i < 3; i++) {
+			revCommits.add(repository.commit("Commit number " + i + "\n\nWith a body.\n"));
+		}
+	}
+
+	@After
+	public void deleteRepository() throws IOException {
+		repository.delete();
+	}
+
+	@Test
+	public void testPrefetchedMessagesAreHits() {
+
+		CountingSource source = new CountingSource();
+		MessageCache cache = new MessageCache(source, 1024);
+		List<ObjectId> ids = createIds(10);
+
+		cache.prefetch(ids);
+		for (ObjectId id : ids) {
+			Assert.assertEquals("Message of " + id.name(), cache.get(id));
+		}
+
+		Assert.assertEquals(1, source.calls);
+		Assert.assertEquals(10, cache.getHits());
+		Assert.assertEquals(10, cache.getMisses());
+	}
+
+	@Test
+	public void testCacheIsBoundedBySize() {
+
+		CountingSource source = new CountingSource();
+		int messageLength = ("Message of " + ObjectId.zeroId().name()).length();
+		MessageCache cache = new MessageCache(source, messageLength * 4);
+		List<ObjectId> ids = createIds(10);
+
+		for (ObjectId id : ids) {
+			cache.get(id);
+		}
+		Assert.assertEquals(messageLength * 4, cache.getSize());
+
+		cache.get(ids.get(9));
+		cache.get(ids.get(0));
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(11, cache.getMisses());
+	}
+
+	@Test
+	public void testMessagesAreLoadedFromGit() {
+
+		RepositoryMessageSource source = new RepositoryMessageSource(null);
+		source.setRepository(repository.getRepository());
+		CommitStore store = new CommitStore(16, new MessageCache(source, 1024));
+
+		for (RevCommit revCommit : revCommits) {
+			store.add(new Commit(null, revCommit.name(), "Author", "Committer", revCommit.getCommitterIdent().getWhen(),
+					revCommit.getAuthorIdent().getWhen(), new ArrayList<String>()));
+		}
+
+		CommitView view = store.snapshot();
+		view.prefetchMessages(0, view.size());
+		for (int i = 0; i < view.size(); i++) {
+			Assert.assertEquals(revCommits.get(i).getFullMessage(), view.getMessage(i));
+		}
+		Assert.assertNull(new MessageCache(source, 16).get(ObjectId.fromString("29932f3915935d773dc8d52c292cadd81c81071d")));
+	}
+
+	private List<ObjectId> createIds(int count) {
+		ObjectId[] ids = new ObjectId[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = ObjectId.fromString(String.format("%040x", i + 1));
+		}
+		return Arrays.asList(ids);
+	}
+
+	private static class CountingSource implements MessageSource {
+
+		private int calls;
+
+		public Map<ObjectId, String> loadMessages(List<ObjectId> ids) {
+			calls++;
+			Map<ObjectId, String> messages = new HashMap<ObjectId, String>();
+			for (ObjectId id : ids) {
+				messages.put(id, "Message of " + id.name());
+			}
+			return messages;
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package gitcurtain.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gitcurtain.database.SQLiteConnection;
+import gitcurtain.database.SQLiteConnectionManager;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitVariables;
+import gitcurtain.utils.PathDictionary;
+
+public class PathDictionaryTest extends TestParent {
+
+	@Test
+	public void testPathsAreReadBack() {
+
+		PathDictionary dictionary = new PathDictionary();
+
+		for (String path : Arrays.asList("src/main/java/Main.java", "README.md", "/dev/null", "docs//guide.md", "build/", "")) {
+			Assert.assertEquals(path, dictionary.get(dictionary.intern(path)));
+		}
+	}
+
+	@Test
+	public void testEqualPathsShareIds() {
+
+		PathDictionary dictionary = new PathDictionary();
+		int main = dictionary.intern("src/main/java/Main.java");
+		int util = dictionary.intern("src/main/java/Util.java");
+
+		Assert.assertEquals(main, dictionary.intern("src/main/java/Main.java"));
+		Assert.assertTrue(main != util);
+		Assert.assertEquals(dictionary.getParent(main), dictionary.getParent(util));
+		Assert.assertEquals(dictionary.lookup("src/main/java"), dictionary.getParent(main));
+		Assert.assertEquals(-1, dictionary.lookup("src/test/java/MainTest.java"));
+		Assert.assertEquals(-1, dictionary.lookup("src/main/java/Main"));
+	}
+
+	@Test
+	public void testGrowthKeepsAllPaths() {
+
+		PathDictionary dictionary = new PathDictionary();
+		int[] ids = new int[5000];
+
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = dictionary.intern("src/module" + (i % 50) + "/File" + i + ".java");
+		}
+		for (int i = 0; i < ids.length; i++) {
+			Assert.assertEquals("src/module" + (i % 50) + "/File" + i + ".java", dictionary.get(ids[i]));
+			Assert.assertEquals(ids[i], dictionary.lookup("src/module" + (i % 50) + "/File" + i + ".java"));
+		}
+	}
+
+	@Test
+	public void testCommitSerializationKeepsPaths() throws Exception {
+
+		Commit commit = new Commit("Message", "29932f3915935d773dc8d52c292cadd81c81071d", "Author", "Committer", new Date(0), new Date(0),
+				new ArrayList<String>(Arrays.asList("src/Main.java", "README.md")));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(commit);
+		out.close();
+		Commit copy = (Commit) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		Assert.assertEquals(commit.getVariableByEnum(CommitVariables.MODIFIEDFILES), copy.getVariableByEnum(CommitVariables.MODIFIEDFILES));
+		Assert.assertEquals(commit.getFileId(0), copy.getFileId(0));
+		Assert.assertEquals("src/Main.java", PathDictionary.getGlobal().get(copy.getFileId(0)));
+	}
+
+	@Test
+	public void testNewPathsAreReadBackOnTheSameConnection() throws Exception {
+
+		File directory = Files.createTempDirectory("gitcurtain-paths").toFile();
+		try {
+			SQLiteConnection database = SQLiteConnectionManager.getConnection(new File(directory, "commits.db").getPath());
+			ArrayList<String> first = new ArrayList<String>(Arrays.asList("x/one.txt", "x/two.txt"));
+			ArrayList<String> second = new ArrayList<String>();
+			for (int i = 0; i < 40; i++) {
+				second.add("y/File" + i + ".java");
+			}
+
+			database.insert(new ArrayList<Commit>(Arrays.asList(new Commit("First", "29932f3915935d773dc8d52c292cadd81c81071d", "Author",
+					"Committer", new Date(0), new Date(0), first))), Collections.<String>emptyList(), Collections.<String>emptyList());
+			Assert.assertEquals(first, database.getAllCommits().get(0).getModifiedFiles());
+
+			database.insert(new ArrayList<Commit>(Arrays.asList(new Commit("Second", "5bd8c9b1d1f0e8d5a3b2a4c9e7f6d5c4b3a29180", "Author",
+					"Committer", new Date(1000), new Date(1000), second))), Collections.<String>emptyList(), Collections.<String>emptyList());
+			for (Commit commit : database.getAllCommits()) {
+				Assert.assertEquals(commit.getMessage().equals("First") ? first : second, commit.getModifiedFiles());
+			}
+		}
+		finally {
+			TestRepository.delete(directory);
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.CommitExtractor;
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.PathScopeFilter;
+import gitcurtain.extraction.TrackedRepository;
+import gitcurtain.utils.CommitView;
+
+public class PathScopeFilterTest extends TestParent {
+
+	private TestRepository repository;
+
+	@Before
+	public void createRepository() throws Exception {
+		repository = new TestRepository("gitcurtain-scope");
+	}
+
+	@After
+	public void deleteRepository() throws IOException {
+		repository.delete();
+	}
+
+	@Test
+	public void testOnlyScopedPathsAreWalked() throws Exception {
+
+		repository.writeFile("README.md", "README.md");
+		repository.writeFile("src/Main.java", "src/Main.java");
+		repository.writeFile("src/generated/Parser.java", "src/generated/Parser.java");
+		repository.writeFile("srcx/Other.java", "srcx/Other.java");
+		RevCommit commit = repository.commit("Initial commit");
+
+		TreeWalk treeWalk = new TreeWalk(repository.getRepository());
+		treeWalk.addTree(commit.getTree());
+		treeWalk.setRecursive(true);
+		treeWalk.setFilter(new PathScopeFilter(Arrays.asList("src/"), Arrays.asList("src/generated")));
+
+		List<String> paths = new ArrayList<String>();
+		while (treeWalk.next()) {
+			paths.add(treeWalk.getPathString());
+		}
+		treeWalk.close();
+
+		Assert.assertEquals(Arrays.asList("src/Main.java"), paths);
+	}
+
+	@Test
+	public void testCommitsOutsideScopeAreSkipped() throws Exception {
+
+		RevCommit inScope = repository.commitFile("src/Main.java", "Add main");
+		repository.commitFile("docs/guide.md", "Add guide");
+		RevCommit generated = repository.commitFile("src/generated/Parser.java", "Regenerate parser");
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setPathScope(Arrays.asList("src"), Arrays.asList("src/generated"));
+
+		RevWalk revWalk = new RevWalk(repository.getRepository());
+		revWalk.setTreeFilter(PathScopeFilter.createChangeFilter(settings));
+		revWalk.markStart(revWalk.parseCommit(generated));
+
+		List<RevCommit> commits = new ArrayList<RevCommit>();
+		for (RevCommit current : revWalk) {
+			commits.add(current);
+		}
+		revWalk.close();
+
+		Assert.assertEquals(Collections.singletonList(inScope), commits);
+	}
+
+	@Test
+	public void testScopedExtractionLeavesNoPendingCommits() throws Exception {
+
+		Set<String> expected = new HashSet<String>();
+		for (int i = 0; i < 6; i++) {
+			expected.add(repository.commitFile("src/File" + i + ".java", "Add file " + i).name());
+			repository.commitFile("docs/Guide" + i + ".md", "Add guide " + i);
+		}
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setPathScope(Arrays.asList("src"), Collections.<String>emptyList());
+		settings.setBatchSize(2);
+
+		File workDirectory = Files.createTempDirectory("gitcurtain-scope-extraction").toFile();
+		ExtractionScheduler scheduler = new ExtractionScheduler(1, 1);
+		TrackedRepository tracked = null;
+		try {
+			TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone").getPath(), repository.getURI(),
+					"", "master");
+			tracked = scheduler.register(setup, new File(workDirectory, "commits.db").getPath(), 0, settings, null);
+			Assert.assertEquals(expected.size(), new CommitExtractor(tracked, settings, null, null).extractBranches());
+
+			CommitView view = tracked.getCommitView();
+			Set<String> extracted = new HashSet<String>();
+			for (int i = 0; i < view.size(); i++) {
+				extracted.add(view.getHash(i));
+			}
+			Assert.assertEquals(expected, extracted);
+			Assert.assertTrue(tracked.getPendingCommits().isEmpty());
+		}
+		finally {
+			scheduler.shutdown();
+			if (tracked != null) {
+				tracked.getGit().close();
+			}
+			TestRepository.delete(workDirectory);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package gitcurtain.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.PollingInterval;
+
+public class PollingIntervalTest extends TestParent {
+
+	@Test
+	public void testFixedIntervalByDefault() {
+
+		PollingInterval interval = new PollingInterval(5000, new ExtractionSettings());
+
+		Assert.assertFalse(interval.isAdaptive());
+		Assert.assertEquals(5000, interval.next(true));
+		Assert.assertEquals(5000, interval.next(false));
+	}
+
+	@Test
+	public void testAdaptiveIntervalStaysWithinBounds() {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setPollIntervalBounds(1000, 8000);
+		PollingInterval interval = new PollingInterval(100000, settings);
+
+		Assert.assertEquals(8000, interval.getInterval());
+		Assert.assertEquals(4000, interval.next(true));
+		Assert.assertEquals(2000, interval.next(true));
+		Assert.assertEquals(1000, interval.next(true));
+		Assert.assertEquals(1000, interval.next(true));
+		Assert.assertEquals(2000, interval.next(false));
+		Assert.assertEquals(4000, interval.next(false));
+		Assert.assertEquals(8000, interval.next(false));
+		Assert.assertEquals(8000, interval.next(false));
+	}
+
+	@Test
+	public void testAdaptiveIntervalGrowsFromZero() {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setPollIntervalBounds(0, 10);
+		PollingInterval interval = new PollingInterval(0, settings);
+
+		Assert.assertEquals(2, interval.next(false));
+		Assert.assertEquals(1, interval.next(true));
+	}
+
+}
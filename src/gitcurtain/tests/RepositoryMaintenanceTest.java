@@ -0,0 +1,109 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.RepositoryMaintenance;
+import gitcurtain.extraction.TrackedRepository;
+
+public class RepositoryMaintenanceTest extends TestParent {
+
+	private TestRepository source;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+	private TrackedRepository repository;
+
+	@Before
+	public void createRepositories() throws Exception {
+		source = new TestRepository("gitcurtain-maintenance-source");
+		source.commitFile("README.md", "Initial commit");
+		workDirectory = Files.createTempDirectory("gitcurtain-maintenance").toFile();
+		scheduler = new ExtractionScheduler(1, 1);
+	}
+
+	@After
+	public void deleteRepositories() throws IOException {
+		scheduler.shutdown();
+		if (repository != null) {
+			repository.getGit().close();
+		}
+		source.delete();
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testMaintenanceRunsWhenLooseObjectsReachTheTrigger() throws Exception {
+
+		RepositoryMaintenance maintenance = track(10, 0);
+		Assert.assertEquals(0, getStatistic("numberOfLooseObjects"));
+
+		// Cada commit local cria trs objetos soltos: o arquivo, a rvore e o commit.
+		for (int i = 0; i < 3; i++) {
+			commitLocally("File" + i + ".java");
+		}
+		Assert.assertEquals(9, getStatistic("numberOfLooseObjects"));
+		Assert.assertFalse(maintenance.runIfNeeded());
+
+		commitLocally("File3.java");
+		Assert.assertEquals(12, getStatistic("numberOfLooseObjects"));
+		Assert.assertTrue(maintenance.runIfNeeded());
+		Assert.assertEquals(0, getStatistic("numberOfLooseObjects"));
+		Assert.assertFalse(maintenance.runIfNeeded());
+	}
+
+	@Test
+	public void testMaintenanceRunsWhenPackFilesReachTheTrigger() throws Exception {
+
+		RepositoryMaintenance maintenance = track(0, 3);
+		Assert.assertEquals(1, getStatistic("numberOfPackFiles"));
+
+		// Cada coleta de commits novos cria um pacote.
+		source.commitFile("First.java", "Add first file");
+		repository.fetch();
+		Assert.assertEquals(2, getStatistic("numberOfPackFiles"));
+		Assert.assertFalse(maintenance.runIfNeeded());
+
+		source.commitFile("Second.java", "Add second file");
+		repository.fetch();
+		Assert.assertEquals(3, getStatistic("numberOfPackFiles"));
+		Assert.assertTrue(maintenance.runIfNeeded());
+		Assert.assertTrue(getStatistic("numberOfPackFiles") < 3);
+		Assert.assertFalse(maintenance.runIfNeeded());
+	}
+
+	private RepositoryMaintenance track(int looseObjects, int packFiles) throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setMaintenanceTriggers(looseObjects, packFiles, 0);
+
+		TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone").getPath(), source.getURI(), "",
+				"master");
+		repository = scheduler.register(setup, new File(workDirectory, "commits.db").getPath(), 0, settings, null);
+		return new RepositoryMaintenance(repository, settings);
+	}
+
+	private void commitLocally(String path) throws Exception {
+		Git git = repository.getGit();
+		Files.write(new File(git.getRepository().getWorkTree(), path).toPath(), path.getBytes(StandardCharsets.UTF_8));
+		git.add().addFilepattern(path).call();
+		git.commit().setMessage("Add " + path).setAuthor("GitCURTAIN", "gitcurtain@example.com")
+				.setCommitter("GitCURTAIN", "gitcurtain@example.com").call();
+	}
+
+	private long getStatistic(String key) throws Exception {
+		Properties statistics = repository.getGit().gc().getStatistics();
+		return ((Number) statistics.get(key)).longValue();
+	}
+
+}
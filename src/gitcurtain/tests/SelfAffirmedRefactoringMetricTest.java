@@ -0,0 +1,73 @@
+package gitcurtain.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.defaults.SelfAffirmedRefactoringMetric;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitStore;
+import gitcurtain.utils.CommitView;
+
+public class SelfAffirmedRefactoringMetricTest extends TestParent {
+
+	private SelfAffirmedRefactoringMetric metric;
+	private ArrayList<Commit> commits;
+
+	@Before
+	public void loadKeywords() throws Exception {
+		metric = new SelfAffirmedRefactoringMetric("test_outfiles/keywords.txt");
+		metric.loadKeywordList();
+
+		commits = new ArrayList<Commit>();
+		commits.add(createCommit("29932f3915935d773dc8d52c292cadd81c81071d", "Refactor the parser"));
+		commits.add(createCommit("4feb1fb0f20eb2aa50e63abe21e54aaf64b1d88b", "Add a new endpoint"));
+		commits.add(createCommit("8f1d1b5c5e0b9e3f1f3a5a2d3c7e1b0a9d8c7b6a", "Reduce complexity of the scheduler"));
+		commits.add(createCommit("29932f3915935d773dc8d52c292cadd81c81071d", "Refactor the parser"));
+	}
+
+	@Test
+	public void testCommitsAreClassified() {
+
+		HashMap<?, ?> values = (HashMap<?, ?>) metric.executeMetric(commits).getValues();
+
+		Assert.assertEquals(Arrays.asList("29932f3915935d773dc8d52c292cadd81c81071d", "8f1d1b5c5e0b9e3f1f3a5a2d3c7e1b0a9d8c7b6a"),
+				values.get("SAR"));
+		Assert.assertEquals(Arrays.asList("4feb1fb0f20eb2aa50e63abe21e54aaf64b1d88b"), values.get("Non SAR"));
+	}
+
+	@Test
+	public void testViewMatchesList() {
+
+		CommitStore store = new CommitStore();
+		store.addAll(commits);
+		CommitView view = store.snapshot();
+
+		Assert.assertEquals(metric.executeMetric(commits).getValues(), metric.executeMetric(view).getValues());
+	}
+
+	@Test
+	public void testProjectionFillsOnlyRequiredVariables() {
+
+		CommitStore store = new CommitStore();
+		store.addAll(commits);
+		Commit projected = store.snapshot().toList(metric.getRequiredVariables()).get(0);
+
+		Assert.assertEquals("Refactor the parser", projected.getMessage());
+		Assert.assertEquals("29932f3915935d773dc8d52c292cadd81c81071d", projected.getHash());
+		Assert.assertNull(projected.getAuthor());
+		Assert.assertNull(projected.getCommitDate());
+		Assert.assertEquals(0, projected.getFileCount());
+	}
+
+	private Commit createCommit(String hash, String message) {
+		return new Commit(message, hash, "Author", "Committer", new Date(0), new Date(0),
+				new ArrayList<String>(Arrays.asList("src/Main.java")));
+	}
+
+}
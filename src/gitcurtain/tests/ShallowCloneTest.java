@@ -0,0 +1,101 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.CommitExtractor;
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.TrackedRepository;
+import gitcurtain.utils.Commit;
+import gitcurtain.utils.CommitView;
+
+public class ShallowCloneTest extends TestParent {
+
+	private TestRepository source;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+	private TrackedRepository repository;
+	private List<RevCommit> history;
+
+	@Before
+	public void createRepositories() throws Exception {
+
+		source = new TestRepository("gitcurtain-shallow-source");
+		workDirectory = Files.createTempDirectory("gitcurtain-shallow").toFile();
+		scheduler = new ExtractionScheduler(1, 1);
+
+		history = new ArrayList<RevCommit>();
+		for (int i = 0; i < 8; i++) {
+			history.add(source.commitFile("src/File" + i + ".java", "Add file " + i));
+		}
+	}
+
+	@After
+	public void deleteRepositories() throws IOException {
+		scheduler.shutdown();
+		if (repository != null) {
+			repository.getGit().close();
+		}
+		source.delete();
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testBoundaryCommitsAreExtractedAfterDeepening() throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setShallowClone(3, 2);
+
+		// O Git somente respeita o --depth em clones locais com uma URI file://.
+		TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, "clone").getPath(),
+				source.getDirectory().toPath().toUri().toString(), "", "master");
+		repository = scheduler.register(setup, new File(workDirectory, "commits.db").getPath(), 0, settings, null);
+		CommitExtractor extractor = new CommitExtractor(repository, settings, null, null);
+
+		Assert.assertTrue(repository.isShallow());
+		RevCommit boundary = history.get(5);
+		Assert.assertTrue(repository.getShallowCommits().contains(boundary));
+
+		Assert.assertEquals(2, extractor.extractBranches());
+		Assert.assertEquals(Arrays.asList(boundary.copy()), repository.getPendingCommits());
+		Assert.assertEquals(0, extractor.backfill());
+
+		Assert.assertTrue(extractor.deepen());
+		Assert.assertFalse(repository.getShallowCommits().contains(boundary));
+		Assert.assertEquals(2, extractor.backfill());
+		Assert.assertEquals(Arrays.asList("src/File5.java"), findCommit(boundary).getModifiedFiles());
+
+		while (extractor.backfill() > 0 || extractor.deepen()) {
+		}
+
+		Assert.assertFalse(repository.isShallow());
+		Assert.assertTrue(repository.getPendingCommits().isEmpty());
+		Assert.assertEquals(history.size(), repository.getCommitView().size());
+		for (int i = 0; i < history.size(); i++) {
+			Assert.assertEquals(Arrays.asList("src/File" + i + ".java"), findCommit(history.get(i)).getModifiedFiles());
+		}
+	}
+
+	private Commit findCommit(RevCommit commit) {
+		CommitView view = repository.getCommitView();
+		for (int i = 0; i < view.size(); i++) {
+			if (view.getHash(i).equals(commit.name())) {
+				return view.getCommit(i);
+			}
+		}
+		Assert.fail("Commit " + commit.name() + " was not extracted");
+		return null;
+	}
+
+}
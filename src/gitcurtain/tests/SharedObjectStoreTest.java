@@ -0,0 +1,160 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.CommitExtractor;
+import gitcurtain.extraction.ExtractionScheduler;
+import gitcurtain.extraction.ExtractionSettings;
+import gitcurtain.extraction.TrackedRepository;
+
+public class SharedObjectStoreTest extends TestParent {
+
+	private TestRepository upstream;
+	private TestRepository firstFork;
+	private TestRepository secondFork;
+	private File workDirectory;
+	private ExtractionScheduler scheduler;
+	private List<TrackedRepository> repositories;
+	private List<RevCommit> upstreamCommits;
+
+	@Before
+	public void createRepositories() throws Exception {
+
+		upstream = new TestRepository("gitcurtain-shared-upstream");
+		upstreamCommits = new ArrayList<RevCommit>();
+		for (int i = 0; i < 5; i++) {
+			upstreamCommits.add(upstream.commitFile("src/File" + i + ".java", "Add file " + i));
+		}
+		firstFork = new TestRepository("gitcurtain-shared-first", upstream.getURI());
+		secondFork = new TestRepository("gitcurtain-shared-second", upstream.getURI());
+
+		workDirectory = Files.createTempDirectory("gitcurtain-shared").toFile();
+		scheduler = new ExtractionScheduler(1, 1);
+		repositories = new ArrayList<TrackedRepository>();
+	}
+
+	@After
+	public void deleteRepositories() throws IOException {
+		scheduler.shutdown();
+		for (TrackedRepository repository : repositories) {
+			repository.getGit().close();
+		}
+		upstream.delete();
+		firstFork.delete();
+		secondFork.delete();
+		TestRepository.delete(workDirectory);
+	}
+
+	@Test
+	public void testForksOnlyStoreTheirOwnObjects() throws Exception {
+
+		RevCommit firstOwn = firstFork.commitFile("first/Feature.java", "Add first feature");
+		List<RevCommit> secondOwn = new ArrayList<RevCommit>();
+		for (int i = 0; i < 3; i++) {
+			secondOwn.add(secondFork.commitFile("second/Feature" + i + ".java", "Add second feature " + i));
+		}
+
+		TrackedRepository first = track("first", firstFork);
+		TrackedRepository second = track("second", secondFork);
+		File mirrorObjects = new File(workDirectory, "mirror.git/objects").getCanonicalFile();
+
+		for (TrackedRepository repository : repositories) {
+			File alternates = new File(repository.getGit().getRepository().getDirectory(), "objects/info/alternates");
+			Assert.assertEquals(mirrorObjects.getPath(), new String(Files.readAllBytes(alternates.toPath()), StandardCharsets.UTF_8).trim());
+		}
+
+		for (RevCommit commit : upstreamCommits) {
+			Assert.assertFalse(isStoredLocally(first, commit));
+			Assert.assertFalse(isStoredLocally(second, commit));
+			Assert.assertFalse(isStoredLocally(second, commit.getTree()));
+		}
+		Assert.assertTrue(isStoredLocally(first, firstOwn));
+		Assert.assertFalse(isStoredLocally(second, firstOwn));
+		for (RevCommit commit : secondOwn) {
+			Assert.assertTrue(isStoredLocally(second, commit));
+			Assert.assertTrue(isStoredLocally(second, commit.getTree()));
+		}
+
+		Assert.assertEquals(upstreamCommits.size() + 1, new CommitExtractor(first, new ExtractionSettings(), null, null).extractBranches());
+		Assert.assertEquals(upstreamCommits.size() + secondOwn.size(),
+				new CommitExtractor(second, new ExtractionSettings(), null, null).extractBranches());
+		Assert.assertEquals(upstreamCommits.size() + secondOwn.size(), second.getCommitView().size());
+		for (int i = 0; i < second.getCommitView().size(); i++) {
+			Assert.assertEquals(1, second.getCommitView().getFileCount(i));
+		}
+	}
+
+	@Test
+	public void testUpstreamCommitsPushedLaterAreStoredInTheMirror() throws Exception {
+
+		TrackedRepository first = track("first", firstFork);
+		TrackedRepository second = track("second", secondFork);
+
+		RevCommit later = upstream.commitFile("src/Later.java", "Add later file");
+		for (TestRepository fork : Arrays.asList(firstFork, secondFork)) {
+			fork.getGit().pull().call();
+		}
+		first.fetch();
+		second.fetch();
+
+		Git mirror = Git.open(new File(workDirectory, "mirror.git"));
+		try {
+			Assert.assertTrue(mirror.getRepository().getObjectDatabase().has(later));
+		}
+		finally {
+			mirror.close();
+		}
+		for (TrackedRepository repository : repositories) {
+			Assert.assertEquals(later, repository.resolveRemoteTip());
+			Assert.assertFalse(isStoredLocally(repository, later));
+			Assert.assertFalse(isStoredLocally(repository, later.getTree()));
+		}
+	}
+
+	private TrackedRepository track(String name, TestRepository fork) throws Exception {
+
+		ExtractionSettings settings = new ExtractionSettings();
+		settings.setSharedObjectStore(new File(workDirectory, "mirror.git").getPath(), upstream.getURI());
+
+		TestValueRepositoryData setup = new TestValueRepositoryData(new File(workDirectory, name).getPath(), fork.getURI(), "", "master");
+		TrackedRepository repository = scheduler.register(setup, new File(workDirectory, name + ".db").getPath(), 0, settings, null);
+		repositories.add(repository);
+		return repository;
+	}
+
+	private static boolean isStoredLocally(TrackedRepository repository, ObjectId id) throws IOException {
+
+		// O arquivo de alternates  escondido enquanto o repositrio  aberto, ento somente os objetos do prprio clone so encontrados.
+		File alternates = new File(repository.getGit().getRepository().getDirectory(), "objects/info/alternates");
+		File hidden = new File(alternates.getPath() + ".hidden");
+		Files.move(alternates.toPath(), hidden.toPath());
+
+		try {
+			Git local = Git.open(repository.getGit().getRepository().getDirectory());
+			try {
+				return local.getRepository().getObjectDatabase().has(id);
+			}
+			finally {
+				local.close();
+			}
+		}
+		finally {
+			Files.move(hidden.toPath(), alternates.toPath());
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package gitcurtain.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.util.FileUtils;
+
+public class TestRepository {
+
+	private File directory;
+	private Git git;
+
+	public TestRepository(String prefix) throws Exception {
+		directory = Files.createTempDirectory(prefix).toFile();
+		git = Git.init().setDirectory(directory).call();
+	}
+
+	public TestRepository(String prefix, String sourceURI) throws Exception {
+		directory = Files.createTempDirectory(prefix).toFile();
+		git = Git.cloneRepository().setURI(sourceURI).setDirectory(directory).call();
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public Git getGit() {
+		return git;
+	}
+
+	public Repository getRepository() {
+		return git.getRepository();
+	}
+
+	public String getURI() {
+		return directory.toURI().toString();
+	}
+
+	public void writeFile(String path, byte[] content) throws IOException {
+		File file = new File(directory, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content);
+	}
+
+	public void writeFile(String path, String content) throws IOException {
+		writeFile(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public RevCommit commit(String message) throws Exception {
+		git.add().addFilepattern(".").call();
+		return git.commit().setMessage(message).setAuthor("GitCURTAIN", "gitcurtain@example.com")
+				.setCommitter("GitCURTAIN", "gitcurtain@example.com").call();
+	}
+
+	public RevCommit commitFile(String path, String message) throws Exception {
+		writeFile(path, path);
+		return commit(message);
+	}
+
+	public void delete() throws IOException {
+		git.close();
+		delete(directory);
+	}
+
+	public static void delete(File directory) throws IOException {
+		FileUtils.delete(directory, FileUtils.RECURSIVE | FileUtils.SKIP_MISSING);
+	}
+
+}
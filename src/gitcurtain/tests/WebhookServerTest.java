@@ -0,0 +1,140 @@
+package gitcurtain.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import gitcurtain.extraction.ExtractionTrigger;
+import gitcurtain.extraction.WebhookServer;
+
+public class WebhookServerTest extends TestParent {
+
+	private WebhookServer server;
+	private AtomicInteger pushes;
+
+	@Before
+	public void startServer() throws IOException {
+
+		pushes = new AtomicInteger();
+		server = new WebhookServer(0, "/webhook");
+		server.register("https://github.com/owner/project.git", () -> pushes.incrementAndGet());
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	private int send(String method, String payload) throws IOException {
+		return send(server, method, payload, null);
+	}
+
+	private int send(WebhookServer target, String method, String payload, String signature) throws IOException {
+
+		URL url = new URL("http://127.0.0.1:" + target.getPort() + "/webhook");
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod(method);
+		if (signature != null) {
+			connection.setRequestProperty("X-Hub-Signature-256", signature);
+		}
+
+		if (payload != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			OutputStream body = connection.getOutputStream();
+			body.write(payload.getBytes(StandardCharsets.UTF_8));
+			body.close();
+		}
+
+		int status = connection.getResponseCode();
+		connection.disconnect();
+		return status;
+	}
+
+	@Test
+	public void testPushForRegisteredRepository() throws IOException {
+
+		String payload = "{\"ref\":\"refs/heads/master\",\"repository\":{\"clone_url\":\"https:\\/\\/github.com\\/owner\\/project.git\"}}";
+
+		Assert.assertEquals(202, send("POST", payload));
+		Assert.assertEquals(1, pushes.get());
+	}
+
+	@Test
+	public void testPushForOtherRepository() throws IOException {
+
+		String payload = "{\"ref\":\"refs/heads/master\",\"repository\":{\"clone_url\":\"https://github.com/owner/project2.git\"}}";
+
+		Assert.assertEquals(404, send("POST", payload));
+		Assert.assertEquals(0, pushes.get());
+	}
+
+	@Test
+	public void testOnlyPostIsAccepted() throws IOException {
+
+		Assert.assertEquals(405, send("GET", null));
+		Assert.assertEquals(0, pushes.get());
+	}
+
+	@Test
+	public void testServerOnlyListensOnLoopbackByDefault() {
+		Assert.assertTrue(server.getAddress().isLoopbackAddress());
+	}
+
+	@Test
+	public void testOnlySignedPushesAreAccepted() throws Exception {
+
+		WebhookServer signedServer = new WebhookServer("127.0.0.1", 0, "/webhook", "secret");
+		signedServer.register("https://github.com/owner/project.git", () -> pushes.incrementAndGet());
+		signedServer.start();
+		String payload = "{\"repository\":{\"clone_url\":\"https://github.com/owner/project.git\"}}";
+
+		try {
+			Assert.assertEquals(401, send(signedServer, "POST", payload, null));
+			Assert.assertEquals(401, send(signedServer, "POST", payload, sign("other", payload)));
+			Assert.assertEquals(0, pushes.get());
+			Assert.assertEquals(202, send(signedServer, "POST", payload, sign("secret", payload)));
+			Assert.assertEquals(1, pushes.get());
+		}
+		finally {
+			signedServer.stop();
+		}
+	}
+
+	private static String sign(String secret, String payload) throws Exception {
+
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		StringBuilder signature = new StringBuilder("sha256=");
+		for (byte value : mac.doFinal(payload.getBytes(StandardCharsets.UTF_8))) {
+			signature.append(String.format("%02x", value));
+		}
+		return signature.toString();
+	}
+
+	@Test
+	public void testBurstIsCoalesced() throws InterruptedException {
+
+		ExtractionTrigger trigger = new ExtractionTrigger(50);
+
+		trigger.request();
+		trigger.request();
+		trigger.request();
+
+		Assert.assertTrue(trigger.await(10000));
+		Assert.assertFalse(trigger.await(50));
+	}
+
+}
@@ -3,9 +3,13 @@ package gitcurtain.utils;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 
 import gitcurtain.exceptions.InvalidEnumIDException;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
@@ -42,9 +46,21 @@ public class Commit implements Serializable {
      */
     private Date authoringDate;
     /**
-     * A lista de arquivos que foram modificados pelo commit.
+     * Os identificadores, no PathDictionary global, dos arquivos que foram modificados pelo commit.  nulo quando o commit no tem a
+     * lista de arquivos modificados. Como os identificadores somente valem enquanto o sistema est em execuo, a serializao do commit
+     * guarda os caminhos.
      */
-    private ArrayList<String> modifiedFiles;
+    private transient int[] modifiedFileIds;
+    /**
+     * O nmero de linhas adicionadas em cada arquivo modificado, na mesma ordem da lista de arquivos modificados. Um arquivo binrio ou
+     * grande demais tem o valor -1.  nulo quando as linhas no foram contadas.
+     */
+    private int[] addedLines;
+    /**
+     * O nmero de linhas removidas em cada arquivo modificado, na mesma ordem da lista de arquivos modificados. Um arquivo binrio ou
+     * grande demais tem o valor -1.  nulo quando as linhas no foram contadas.
+     */
+    private int[] deletedLines;
 
     /**
      * Cria um novo commit com os dados especificados. Este construtor  gerenciado pelo GitCURTAIN e, portanto, no deve ser invocado pelo
@@ -59,13 +75,61 @@ public class Commit implements Serializable {
      * @param modifiedFiles A lista de arquivos que foram modificados pelo commit.
      */
     public Commit(String message, String hash, String author, String committer, Date commitDate, Date authoringDate, ArrayList<String> modifiedFiles) {
+        this(message, hash, author, committer, commitDate, authoringDate, modifiedFiles, null, null);
+    }
+
+    /**
+     * Cria um novo commit com os dados especificados, incluindo o nmero de linhas adicionadas e removidas em cada arquivo modificado.
+     * Este construtor  gerenciado pelo GitCURTAIN e, portanto, no deve ser invocado pelo sistema.
+     * 
+     * @param message A mensagem do commit.
+     * @param hash O hash identificador do commit.
+     * @param author O autor do commit (i.e., a pessoa que fez as mudanas).
+     * @param committer A pessoa que executou o commit (i.e., a pessoa que enviou as mudanas ao repositrio).
+     * @param commitDate A data em que o commit foi executado (i.e., a data em que as mudanas foram enviadas ao repositrio).
+     * @param authoringDate A data de autoria do commit (i.e., a data em que as mudanas foram feitas).
+     * @param modifiedFiles A lista de arquivos que foram modificados pelo commit.
+     * @param addedLines O nmero de linhas adicionadas em cada arquivo modificado, ou nulo caso as linhas no tenham sido contadas.
+     * @param deletedLines O nmero de linhas removidas em cada arquivo modificado, ou nulo caso as linhas no tenham sido contadas.
+     */
+    public Commit(String message, String hash, String author, String committer, Date commitDate, Date authoringDate,
+    		ArrayList<String> modifiedFiles, int[] addedLines, int[] deletedLines) {
+        this.message = message;
+        this.hash = hash;
+        this.author = author;
+        this.committer = committer;
+        this.commitDate = commitDate;
+        this.authoringDate = authoringDate;
+        this.modifiedFileIds = internPaths(modifiedFiles);
+        this.addedLines = addedLines;
+        this.deletedLines = deletedLines;
+    }
+
+    /**
+     * Cria um novo commit a partir dos identificadores dos arquivos modificados no PathDictionary global, sem consultar os caminhos.
+     * Este construtor  gerenciado pelo GitCURTAIN e, portanto, no deve ser invocado pelo sistema.
+     * 
+     * @param message A mensagem do commit.
+     * @param hash O hash identificador do commit.
+     * @param author O autor do commit.
+     * @param committer A pessoa que executou o commit.
+     * @param commitDate A data em que o commit foi executado.
+     * @param authoringDate A data de autoria do commit.
+     * @param modifiedFileIds Os identificadores dos arquivos que foram modificados pelo commit.
+     * @param addedLines O nmero de linhas adicionadas em cada arquivo modificado, ou nulo caso as linhas no tenham sido contadas.
+     * @param deletedLines O nmero de linhas removidas em cada arquivo modificado, ou nulo caso as linhas no tenham sido contadas.
+     */
+    Commit(String message, String hash, String author, String committer, Date commitDate, Date authoringDate, int[] modifiedFileIds,
+    		int[] addedLines, int[] deletedLines) {
         this.message = message;
         this.hash = hash;
         this.author = author;
         this.committer = committer;
         this.commitDate = commitDate;
         this.authoringDate = authoringDate;
-        this.modifiedFiles = modifiedFiles;
+        this.modifiedFileIds = modifiedFileIds;
+        this.addedLines = addedLines;
+        this.deletedLines = deletedLines;
     }
 
     /**
@@ -74,7 +138,9 @@ public class Commit implements Serializable {
      * 
      * @param enumID O valor do Enum que corresponde ao dado que deve ser obtido do commit.
      * 
-     * @return Um objeto da classe Object com o dado que corresponde ao valor do Enum.
+     * @return Um objeto da classe Object com o dado que corresponde ao valor do Enum. A lista de arquivos modificados  montada a partir
+     * do PathDictionary global a cada chamada, e as listas de linhas adicionadas e removidas tambm so montadas a cada chamada. As mtricas devem preferir os mtodos tipados (e.g., getMessage, getCommitTime, getFileId),
+     * que no precisam de converses nem do tratamento desta exceo.
      * 
      * @throws InvalidEnumIDException  lanado quando o valor do Enum no corresponde a nenhum dos dados contidos no commit.
      */
@@ -93,33 +159,238 @@ public class Commit implements Serializable {
             case AUTHORINGDATE:
                 return authoringDate;
             case MODIFIEDFILES:
-                return modifiedFiles;
+                return getModifiedFiles();
+            case ADDEDLINES:
+                return toList(addedLines);
+            case DELETEDLINES:
+                return toList(deletedLines);
             default:
                 throw new InvalidEnumIDException("Variable " + enumID + " does not correlate to a Commit variable.");
         }
     }
     
     /**
-     * Comparator para permitir ordenao por data de commit.
+     * Obtm a mensagem do commit.
+     * 
+     * @return A mensagem do commit.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Obtm o hash identificador do commit.
+     * 
+     * @return O hash do commit (e.g., 29932f3915935d773dc8d52c292cadd81c81071d).
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Obtm o autor do commit (i.e., a pessoa que fez as mudanas).
+     * 
+     * @return O nome do autor.
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * Obtm a pessoa que executou o commit (i.e., a pessoa que enviou as mudanas ao repositrio).
+     * 
+     * @return O nome da pessoa.
+     */
+    public String getCommitter() {
+        return committer;
+    }
+
+    /**
+     * Obtm a data em que o commit foi executado.
+     * 
+     * @return A data, ou nulo caso o commit no tenha essa informao.
+     */
+    public Date getCommitDate() {
+        return commitDate;
+    }
+
+    /**
+     * Obtm a data de autoria do commit.
+     * 
+     * @return A data, ou nulo caso o commit no tenha essa informao.
+     */
+    public Date getAuthoringDate() {
+        return authoringDate;
+    }
+
+    /**
+     * Obtm a data em que o commit foi executado, sem criar nenhum objeto.
+     * 
+     * @return A data, em milisegundos, ou Long.MIN_VALUE caso o commit no tenha essa informao.
+     */
+    public long getCommitTime() {
+        return commitDate == null ? Long.MIN_VALUE : commitDate.getTime();
+    }
+
+    /**
+     * Obtm a data de autoria do commit, sem criar nenhum objeto.
+     * 
+     * @return A data, em milisegundos, ou Long.MIN_VALUE caso o commit no tenha essa informao.
+     */
+    public long getAuthoringTime() {
+        return authoringDate == null ? Long.MIN_VALUE : authoringDate.getTime();
+    }
+
+    /**
+     * Obtm o nmero de arquivos modificados pelo commit.
+     * 
+     * @return O nmero de arquivos modificados.
+     */
+    public int getFileCount() {
+        return modifiedFileIds == null ? 0 : modifiedFileIds.length;
+    }
+
+    /**
+     * Obtm o identificador de um arquivo modificado pelo commit no PathDictionary global. Dois arquivos tm o mesmo identificador se, e
+     * somente se, os seus caminhos so iguais.
+     * 
+     * @param index A posio do arquivo na lista de arquivos modificados.
+     * 
+     * @return O identificador do arquivo.
+     */
+    public int getFileId(int index) {
+        return modifiedFileIds[index];
+    }
+
+    /**
+     * Verifica se as linhas dos arquivos modificados pelo commit foram contadas.
+     * 
+     * @return true se as linhas foram contadas.
+     */
+    public boolean hasLineStats() {
+        return addedLines != null && deletedLines != null;
+    }
+
+    /**
+     * Obtm o nmero de linhas adicionadas em um arquivo modificado pelo commit.
+     * 
+     * @param index A posio do arquivo na lista de arquivos modificados.
+     * 
+     * @return O nmero de linhas adicionadas, ou -1 caso as linhas do arquivo no tenham sido contadas.
+     */
+    public int getAddedLines(int index) {
+        return hasLineStats() ? addedLines[index] : -1;
+    }
+
+    /**
+     * Obtm o nmero de linhas removidas em um arquivo modificado pelo commit.
+     * 
+     * @param index A posio do arquivo na lista de arquivos modificados.
+     * 
+     * @return O nmero de linhas removidas, ou -1 caso as linhas do arquivo no tenham sido contadas.
+     */
+    public int getDeletedLines(int index) {
+        return hasLineStats() ? deletedLines[index] : -1;
+    }
+
+    /**
+     * Obtm a lista de arquivos modificados pelo commit, montada a partir do PathDictionary global. As mtricas que percorrem muitos
+     * commits devem preferir os mtodos getFileCount e getFileId, que no criam nenhum objeto.
+     * 
+     * @return Uma nova lista com os caminhos dos arquivos modificados, ou nulo caso o commit no tenha a lista.
+     */
+    public ArrayList<String> getModifiedFiles() {
+
+        if (modifiedFileIds == null) {
+            return null;
+        }
+
+        PathDictionary paths = PathDictionary.getGlobal();
+        ArrayList<String> modifiedFiles = new ArrayList<String>(modifiedFileIds.length);
+        for (int fileId : modifiedFileIds) {
+            modifiedFiles.add(paths.get(fileId));
+        }
+
+        return modifiedFiles;
+    }
+
+    /**
+     * Converte as contagens de linhas de cada arquivo modificado em uma lista, para o acesso genrico de getVariableByEnum.
+     * 
+     * @param lines As contagens de linhas, ou nulo.
+     * 
+     * @return Uma nova lista com as contagens, ou nulo caso as linhas no tenham sido contadas.
+     */
+    private static ArrayList<Integer> toList(int[] lines) {
+
+        if (lines == null) {
+            return null;
+        }
+
+        ArrayList<Integer> list = new ArrayList<Integer>(lines.length);
+        for (int count : lines) {
+            list.add(count);
+        }
+
+        return list;
+    }
+
+    /**
+     * Converte uma lista de caminhos nos seus identificadores no PathDictionary global.
+     * 
+     * @param modifiedFiles A lista de caminhos, ou nulo.
+     * 
+     * @return Os identificadores dos caminhos, ou nulo caso a lista seja nula.
+     */
+    private static int[] internPaths(List<String> modifiedFiles) {
+
+        if (modifiedFiles == null) {
+            return null;
+        }
+
+        PathDictionary paths = PathDictionary.getGlobal();
+        int[] fileIds = new int[modifiedFiles.size()];
+        for (int i = 0; i < fileIds.length; i++) {
+            fileIds[i] = paths.intern(modifiedFiles.get(i));
+        }
+
+        return fileIds;
+    }
+
+    /**
+     * Serializa o commit, guardando os caminhos dos arquivos modificados no lugar dos seus identificadores.
+     * 
+     * @param out O fluxo de sada.
+     * 
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(getModifiedFiles());
+    }
+
+    /**
+     * L um commit serializado, convertendo os caminhos dos arquivos modificados nos seus identificadores.
+     * 
+     * @param in O fluxo de entrada.
+     * 
+     * @throws IOException  lanado quando ocorre um erro durante alguma operao de entrada e sada de dados.
+     * @throws ClassNotFoundException  lanado quando a classe de algum objeto serializado no  encontrada.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        modifiedFileIds = internPaths((List<String>) in.readObject());
+    }
+    
+    /**
+     * Comparator para permitir ordenao por data de commit. Os commits sem data ficam antes de todos os demais, e os commits com a
+     * mesma data so considerados iguais.
      */
     public static Comparator<Commit> CommitComparatorByCommitDate = new Comparator<Commit>() {
     	
     	public int compare(Commit c1, Commit c2) {
-    		try {
-    			Date c1Date = (Date) c1.getVariableByEnum(CommitVariables.AUTHORINGDATE);
-				Date c2Date = (Date) c2.getVariableByEnum(CommitVariables.AUTHORINGDATE);
-				if (c1Date.after(c2Date)) {
-					return 1;
-				}
-				else {
-					return -1;
-				}
-			} catch (InvalidEnumIDException e) {
-				System.out.println("An unexpected error ocurred while accessing commit data. Please try again later, and double check"
-						+ " the Enum variables used for any access to commit data.");
-				e.printStackTrace();
-			}
-			return 0;
+    		return Long.compare(c1.getCommitTime(), c2.getCommitTime());
     	}
     };
 
@@ -0,0 +1,162 @@
+package gitcurtain.utils;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Um conjunto compacto de identificadores de commits (ObjectIds de 20 bytes). Os identificadores so guardados diretamente em um nico
+ * vetor de inteiros, com endereamento aberto e sondagem linear, sem nenhum objeto por elemento. Como os identificadores so hashes
+ * SHA-1, os prprios bits do identificador j servem como hash. Esta classe no  <i>thread-safe</i>.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class CommitIdSet {
+
+	/**
+	 * O nmero de inteiros usados por cada identificador.
+	 */
+	private static final int WORDS = 5;
+
+	/**
+	 * A tabela de identificadores. Cada posio ocupa WORDS inteiros consecutivos, e uma posio com todos os inteiros iguais a zero
+	 * est vazia.
+	 */
+	private int[] table;
+	/**
+	 * O nmero de posies da tabela.  sempre uma potncia de dois.
+	 */
+	private int capacity;
+	/**
+	 * O nmero de identificadores guardados.
+	 */
+	private int size;
+
+	/**
+	 * Cria um conjunto vazio.
+	 */
+	public CommitIdSet() {
+		this(1024);
+	}
+
+	/**
+	 * Cria um conjunto vazio, com espao para o nmero especificado de identificadores sem precisar ser redimensionado.
+	 *
+	 * @param expectedSize O nmero esperado de identificadores.
+	 */
+	public CommitIdSet(int expectedSize) {
+		capacity = 16;
+		while (capacity * 3 < expectedSize * 4) {
+			capacity <<= 1;
+		}
+		table = new int[capacity * WORDS];
+	}
+
+	/**
+	 * Adiciona um identificador ao conjunto. O identificador nulo (todos os bytes iguais a zero) no pode ser adicionado.
+	 *
+	 * @param id O identificador do commit.
+	 *
+	 * @return true se o identificador foi adicionado, ou false se ele j estava no conjunto ou  o identificador nulo.
+	 */
+	public boolean add(AnyObjectId id) {
+
+		if (ObjectId.zeroId().equals(id)) {
+			return false;
+		}
+		if ((size + 1) * 4 > capacity * 3) {
+			grow();
+		}
+
+		int slot = findSlot(table, capacity, id);
+		if (!isEmpty(table, slot)) {
+			return false;
+		}
+
+		id.copyRawTo(table, slot * WORDS);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Verifica se um identificador est no conjunto.
+	 *
+	 * @param id O identificador do commit.
+	 *
+	 * @return true se o identificador est no conjunto.
+	 */
+	public boolean contains(AnyObjectId id) {
+		return !isEmpty(table, findSlot(table, capacity, id));
+	}
+
+	/**
+	 * Obtm o nmero de identificadores no conjunto.
+	 *
+	 * @return O nmero de identificadores.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Encontra a posio do identificador na tabela, ou a posio vazia onde ele deve ser inserido.
+	 *
+	 * @param table A tabela.
+	 * @param capacity O nmero de posies da tabela.
+	 * @param id O identificador.
+	 *
+	 * @return O ndice da posio.
+	 */
+	private static int findSlot(int[] table, int capacity, AnyObjectId id) {
+
+		int mask = capacity - 1;
+		int slot = id.hashCode() & mask;
+
+		while (!isEmpty(table, slot) && id.compareTo(table, slot * WORDS) != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Verifica se uma posio da tabela est vazia.
+	 *
+	 * @param table A tabela.
+	 * @param slot O ndice da posio.
+	 *
+	 * @return true se a posio est vazia.
+	 */
+	private static boolean isEmpty(int[] table, int slot) {
+
+		int offset = slot * WORDS;
+
+		for (int i = 0; i < WORDS; i++) {
+			if (table[offset + i] != 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Dobra o nmero de posies da tabela, reinserindo todos os identificadores.
+	 */
+	private void grow() {
+
+		int newCapacity = capacity << 1;
+		int[] newTable = new int[newCapacity * WORDS];
+
+		for (int slot = 0; slot < capacity; slot++) {
+			if (!isEmpty(table, slot)) {
+				ObjectId id = ObjectId.fromRaw(table, slot * WORDS);
+				System.arraycopy(table, slot * WORDS, newTable, findSlot(newTable, newCapacity, id) * WORDS, WORDS);
+			}
+		}
+
+		table = newTable;
+		capacity = newCapacity;
+	}
+
+}
@@ -0,0 +1,336 @@
+package gitcurtain.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Guarda os commits coletados de um repositrio em colunas, em vez de um objeto Commit por commit: os hashes ficam em um nico vetor
+ * de bytes (20 bytes por commit), as datas em vetores de long, os autores e as pessoas que executaram os commits como identificadores
+ * de um dicionrio de nomes, e os arquivos modificados de todos os commits como identificadores do PathDictionary global, em um
+ * nico vetor compartilhado. Assim, cada commit ocupa algumas dezenas de bytes alm da sua mensagem, em vez de centenas.
+ *
+ * Com um MessageCache, as mensagens no so mantidas nas colunas: somente as mensagens lidas recentemente ficam no <i>cache</i>, e as
+ * demais so carregadas sob demanda, ento a memria utilizada no depende do volume total de mensagens.
+ *
+ * Os commits somente podem ser adicionados, nunca removidos. A leitura  feita por meio de um CommitView, uma cpia instantnea que
+ * no copia as colunas e pode ser percorrida enquanto novos commits so adicionados. Esta classe  gerenciada pelo GitCURTAIN e,
+ * portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class CommitStore {
+
+	/**
+	 * O nmero de bytes de cada hash.
+	 */
+	static final int HASH_LENGTH = 20;
+
+	/**
+	 * O nmero de commits guardados.
+	 */
+	private int size;
+	/**
+	 * Os hashes dos commits, com HASH_LENGTH bytes por commit.
+	 */
+	private byte[] hashes;
+	/**
+	 * As datas em que os commits foram executados, em milisegundos.
+	 */
+	private long[] commitDates;
+	/**
+	 * As datas de autoria dos commits, em milisegundos.
+	 */
+	private long[] authoringDates;
+	/**
+	 * Os identificadores dos autores dos commits no dicionrio de nomes.
+	 */
+	private int[] authorIds;
+	/**
+	 * Os identificadores das pessoas que executaram os commits no dicionrio de nomes.
+	 */
+	private int[] committerIds;
+	/**
+	 * As mensagens dos commits. As posies so nulas quando as mensagens so guardadas no MessageCache.
+	 */
+	private String[] messages;
+	/**
+	 * A posio do primeiro arquivo modificado de cada commit no vetor de arquivos. Os arquivos do commit i vo da posio fileOffsets[i]
+	 * at a posio fileOffsets[i + 1], exclusive.
+	 */
+	private int[] fileOffsets;
+	/**
+	 * Os identificadores dos arquivos modificados de todos os commits no PathDictionary global.
+	 */
+	private int[] fileIds;
+	/**
+	 * O nmero de linhas adicionadas em cada arquivo modificado, na mesma ordem do vetor de arquivos.  nulo enquanto nenhum commit com
+	 * linhas contadas for adicionado.
+	 */
+	private int[] addedLines;
+	/**
+	 * O nmero de linhas removidas em cada arquivo modificado, na mesma ordem do vetor de arquivos.  nulo enquanto nenhum commit com
+	 * linhas contadas for adicionado.
+	 */
+	private int[] deletedLines;
+	/**
+	 * O nmero de arquivos modificados guardados.
+	 */
+	private int fileCount;
+	/**
+	 * Indica, para cada commit, se as linhas dos seus arquivos modificados foram contadas.
+	 */
+	private boolean[] lineStats;
+	/**
+	 * O dicionrio dos nomes dos autores e das pessoas que executaram os commits.
+	 */
+	private StringDictionary names;
+	/**
+	 * O <i>cache</i> das mensagens dos commits, ou nulo quando as mensagens so mantidas nas colunas.
+	 */
+	private MessageCache messageCache;
+	/**
+	 * A posio do commit executado mais recentemente, ou -1 caso no haja commits. Entre commits com a mesma data,  o ltimo
+	 * adicionado.
+	 */
+	private int latest;
+	/**
+	 * As posies dos commits em ordem cronolgica, do ndice construdo por ltimo. O vetor  substitudo a cada atualizao, ento os
+	 * ndices j entregues nunca so alterados.
+	 */
+	private int[] timelineOrder;
+	/**
+	 * O nmero de commits do ndice construdo por ltimo.
+	 */
+	private int timelineSize;
+
+	/**
+	 * Cria um CommitStore vazio.
+	 */
+	public CommitStore() {
+		this(1024);
+	}
+
+	/**
+	 * Cria um CommitStore vazio, com espao para o nmero especificado de commits sem precisar ser redimensionado, e que mantm as
+	 * mensagens dos commits nas colunas.
+	 *
+	 * @param expectedSize O nmero esperado de commits.
+	 */
+	public CommitStore(int expectedSize) {
+		this(expectedSize, null);
+	}
+
+	/**
+	 * Cria um CommitStore vazio, com espao para o nmero especificado de commits sem precisar ser redimensionado.
+	 *
+	 * @param expectedSize O nmero esperado de commits.
+	 * @param messageCache O <i>cache</i> das mensagens dos commits, ou nulo para que as mensagens sejam mantidas nas colunas. As
+	 * mensagens dos commits adicionados so guardadas no <i>cache</i>, e as mensagens descartadas so carregadas da origem do mesmo.
+	 */
+	public CommitStore(int expectedSize, MessageCache messageCache) {
+		int capacity = Math.max(expectedSize, 16);
+		hashes = new byte[capacity * HASH_LENGTH];
+		commitDates = new long[capacity];
+		authoringDates = new long[capacity];
+		authorIds = new int[capacity];
+		committerIds = new int[capacity];
+		messages = new String[capacity];
+		lineStats = new boolean[capacity];
+		fileOffsets = new int[capacity + 1];
+		fileIds = new int[capacity * 4];
+		names = new StringDictionary();
+		this.messageCache = messageCache;
+		latest = -1;
+		timelineOrder = new int[0];
+		timelineSize = 0;
+	}
+
+	/**
+	 * Adiciona um conjunto de commits ao final do CommitStore.
+	 *
+	 * @param commitList Os commits a serem adicionados.
+	 */
+	public synchronized void addAll(Collection<Commit> commitList) {
+		for (Commit commit : commitList) {
+			add(commit);
+		}
+	}
+
+	/**
+	 * Adiciona um commit ao final do CommitStore.
+	 *
+	 * @param commit O commit a ser adicionado.
+	 */
+	public synchronized void add(Commit commit) {
+
+		int files = commit.getFileCount();
+		boolean withLineStats = commit.hasLineStats();
+
+		ensureCapacity(size + 1, fileCount + files, withLineStats);
+
+		ObjectId id = ObjectId.fromString(commit.getHash());
+		id.copyRawTo(hashes, size * HASH_LENGTH);
+		commitDates[size] = commit.getCommitTime();
+		authoringDates[size] = commit.getAuthoringTime();
+		authorIds[size] = names.intern(commit.getAuthor());
+		committerIds[size] = names.intern(commit.getCommitter());
+		if (messageCache == null) {
+			messages[size] = commit.getMessage();
+		}
+		else if (commit.getMessage() != null) {
+			messageCache.put(id, commit.getMessage());
+		}
+		lineStats[size] = withLineStats;
+		if (latest < 0 || commitDates[size] >= commitDates[latest]) {
+			latest = size;
+		}
+
+		for (int i = 0; i < files; i++) {
+			fileIds[fileCount] = commit.getFileId(i);
+			if (withLineStats) {
+				addedLines[fileCount] = commit.getAddedLines(i);
+				deletedLines[fileCount] = commit.getDeletedLines(i);
+			}
+			fileCount++;
+		}
+
+		size++;
+		fileOffsets[size] = fileCount;
+	}
+
+	/**
+	 * Garante que as colunas tenham espao para o nmero especificado de commits e de arquivos modificados. As colunas cheias so
+	 * substitudas por cpias com o dobro do tamanho, ento as colunas das cpias instantneas j criadas nunca so alteradas.
+	 *
+	 * @param commits O nmero de commits.
+	 * @param files O nmero de arquivos modificados.
+	 * @param withLineStats Indica se as colunas das contagens de linhas so necessrias.
+	 */
+	private void ensureCapacity(int commits, int files, boolean withLineStats) {
+
+		if (commits > commitDates.length) {
+			int capacity = Math.max(commits, commitDates.length * 2);
+			hashes = Arrays.copyOf(hashes, capacity * HASH_LENGTH);
+			commitDates = Arrays.copyOf(commitDates, capacity);
+			authoringDates = Arrays.copyOf(authoringDates, capacity);
+			authorIds = Arrays.copyOf(authorIds, capacity);
+			committerIds = Arrays.copyOf(committerIds, capacity);
+			messages = Arrays.copyOf(messages, capacity);
+			lineStats = Arrays.copyOf(lineStats, capacity);
+			fileOffsets = Arrays.copyOf(fileOffsets, capacity + 1);
+		}
+		if (files > fileIds.length) {
+			int capacity = Math.max(files, fileIds.length * 2);
+			fileIds = Arrays.copyOf(fileIds, capacity);
+			if (addedLines != null) {
+				addedLines = Arrays.copyOf(addedLines, capacity);
+				deletedLines = Arrays.copyOf(deletedLines, capacity);
+			}
+		}
+		if (withLineStats && addedLines == null) {
+			addedLines = new int[fileIds.length];
+			deletedLines = new int[fileIds.length];
+		}
+	}
+
+	/**
+	 * Obtm o nmero de commits guardados.
+	 *
+	 * @return O nmero de commits.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Cria uma cpia instantnea dos commits guardados. A cpia compartilha as colunas do CommitStore, sem copi-las, e os commits
+	 * adicionados depois no fazem parte da mesma.
+	 *
+	 * @return A cpia instantnea.
+	 */
+	public synchronized CommitView snapshot() {
+		return new CommitView(size, hashes, commitDates, authoringDates, authorIds, committerIds, messages, fileOffsets, fileIds,
+				addedLines, deletedLines, lineStats, names, messageCache, latest, this);
+	}
+
+	/**
+	 * Obtm o ndice cronolgico dos primeiros commits guardados. O ndice  mantido entre as chamadas: somente os commits adicionados
+	 * desde a ltima chamada so ordenados, e ento intercalados com o ndice anterior. Funo usada pelo CommitView.
+	 *
+	 * @param count O nmero de commits do ndice, que corresponde ao tamanho da cpia instantnea.
+	 *
+	 * @return O ndice cronolgico dos commits.
+	 */
+	synchronized CommitTimeline getTimeline(int count) {
+
+		if (count > timelineSize) {
+			int[] added = new int[count - timelineSize];
+			for (int i = 0; i < added.length; i++) {
+				added[i] = timelineSize + i;
+			}
+			sortByDate(added);
+
+			int[] merged = new int[count];
+			int i = 0;
+			int j = 0;
+			for (int k = 0; k < count; k++) {
+				if (j == added.length || (i < timelineSize && commitDates[timelineOrder[i]] <= commitDates[added[j]])) {
+					merged[k] = timelineOrder[i++];
+				}
+				else {
+					merged[k] = added[j++];
+				}
+			}
+			timelineOrder = merged;
+			timelineSize = count;
+		}
+
+		if (count == timelineSize) {
+			return new CommitTimeline(timelineOrder, count, commitDates);
+		}
+
+		// A cpia instantnea  anterior ao ndice, ento os commits adicionados depois dela so removidos.
+		int[] filtered = new int[count];
+		int filteredSize = 0;
+		for (int i = 0; i < timelineSize; i++) {
+			if (timelineOrder[i] < count) {
+				filtered[filteredSize++] = timelineOrder[i];
+			}
+		}
+
+		return new CommitTimeline(filtered, count, commitDates);
+	}
+
+	/**
+	 * Ordena um vetor de posies de commits pela data em que os commits foram executados, mantendo a ordem original entre commits com a
+	 * mesma data.
+	 *
+	 * @param positions As posies dos commits.
+	 */
+	private void sortByDate(int[] positions) {
+
+		int[] buffer = new int[positions.length];
+
+		for (int width = 1; width < positions.length; width *= 2) {
+			for (int start = 0; start < positions.length; start += width * 2) {
+				int middle = Math.min(start + width, positions.length);
+				int end = Math.min(start + width * 2, positions.length);
+				int i = start;
+				int j = middle;
+				for (int k = start; k < end; k++) {
+					if (j == end || (i < middle && commitDates[positions[i]] <= commitDates[positions[j]])) {
+						buffer[k] = positions[i++];
+					}
+					else {
+						buffer[k] = positions[j++];
+					}
+				}
+			}
+			System.arraycopy(buffer, 0, positions, 0, positions.length);
+		}
+	}
+
+}
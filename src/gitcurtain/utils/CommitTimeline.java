@@ -0,0 +1,123 @@
+package gitcurtain.utils;
+
+/**
+ * Um ndice dos commits de um CommitView em ordem cronolgica, pela data em que foram executados. Os commits com a mesma data ficam na
+ * ordem em que foram adicionados, e os commits sem data ficam antes de todos os demais. O ndice guarda somente as posies dos
+ * commits, em um vetor de inteiros ordenado, ento o commit mais recente  obtido em tempo constante e os commits de um intervalo de
+ * datas so encontrados por busca binria, sem ordenar os commits a cada consulta. Um ndice nunca muda, e pode ser lido por vrias
+ * threads ao mesmo tempo.  uma classe utilitria que pode, e deve, ser utilizada por extenses customizadas do GitCURTAIN.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class CommitTimeline {
+
+	/**
+	 * As posies dos commits, em ordem cronolgica. Somente as primeiras size posies fazem parte do ndice.
+	 */
+	private final int[] order;
+	/**
+	 * O nmero de commits do ndice.
+	 */
+	private final int size;
+	/**
+	 * As datas em que os commits foram executados, indexadas pelas posies dos commits.
+	 */
+	private final long[] commitDates;
+
+	/**
+	 * Cria um ndice sobre um vetor de posies j ordenado. Este construtor  gerenciado pelo GitCURTAIN e, portanto, no deve ser
+	 * invocado pelo sistema.
+	 *
+	 * @param order As posies dos commits, em ordem cronolgica.
+	 * @param size O nmero de commits do ndice.
+	 * @param commitDates As datas em que os commits foram executados.
+	 */
+	CommitTimeline(int[] order, int size, long[] commitDates) {
+		this.order = order;
+		this.size = size;
+		this.commitDates = commitDates;
+	}
+
+	/**
+	 * Obtm o nmero de commits do ndice.
+	 *
+	 * @return O nmero de commits.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Obtm a posio do commit de uma determinada ordem cronolgica.
+	 *
+	 * @param rank A ordem cronolgica do commit, a partir de zero para o commit mais antigo.
+	 *
+	 * @return A posio do commit no CommitView.
+	 */
+	public int get(int rank) {
+		return order[rank];
+	}
+
+	/**
+	 * Obtm a posio do commit mais antigo.
+	 *
+	 * @return A posio do commit no CommitView, ou -1 caso no haja commits.
+	 */
+	public int getEarliest() {
+		return size == 0 ? -1 : order[0];
+	}
+
+	/**
+	 * Obtm a posio do commit mais recente.
+	 *
+	 * @return A posio do commit no CommitView, ou -1 caso no haja commits.
+	 */
+	public int getLatest() {
+		return size == 0 ? -1 : order[size - 1];
+	}
+
+	/**
+	 * Obtm a ordem cronolgica do primeiro commit executado na data especificada ou depois dela.
+	 *
+	 * @param time A data, em milisegundos.
+	 *
+	 * @return A ordem cronolgica do commit, ou o nmero de commits caso todos tenham sido executados antes da data.
+	 */
+	public int rankOf(long time) {
+
+		int low = 0;
+		int high = size;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (commitDates[order[middle]] < time) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Obtm as posies dos commits executados em um intervalo de datas, em ordem cronolgica.
+	 *
+	 * @param from O incio do intervalo, em milisegundos, inclusive.
+	 * @param to O fim do intervalo, em milisegundos, exclusive.
+	 *
+	 * @return As posies dos commits no CommitView.
+	 */
+	public int[] getBetween(long from, long to) {
+
+		int start = rankOf(from);
+		int end = Math.max(start, rankOf(to));
+		int[] positions = new int[end - start];
+		System.arraycopy(order, start, positions, 0, positions.length);
+
+		return positions;
+	}
+
+}
@@ -15,6 +15,8 @@ public enum CommitVariables {
     COMMITTER,
     COMMITDATE,
     AUTHORINGDATE,
-    MODIFIEDFILES
+    MODIFIEDFILES,
+    ADDEDLINES,
+    DELETEDLINES
     
 }
\ No newline at end of file
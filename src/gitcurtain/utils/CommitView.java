@@ -0,0 +1,476 @@
+package gitcurtain.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Uma cpia instantnea dos commits de um CommitStore, que l diretamente as colunas do mesmo, sem copi-las. Os dados de cada commit
+ * so obtidos pela sua posio, e os valores numricos (datas, identificadores de nomes e de caminhos, contagens de linhas) so lidos
+ * sem a criao de nenhum objeto. As mtricas que percorrem muitos commits devem preferir estes mtodos  converso em objetos Commit.
+ * Uma cpia nunca muda, e pode ser lida por vrias threads ao mesmo tempo.  uma classe utilitria que pode, e deve, ser utilizada por
+ * extenses customizadas do GitCURTAIN.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class CommitView {
+
+	/**
+	 * O nmero de mensagens carregadas por lote quando os commits so percorridos em ordem.
+	 */
+	public static final int PREFETCH_BATCH = 512;
+
+	/**
+	 * Todos os dados de um commit.
+	 */
+	private static final Set<CommitVariables> ALL_VARIABLES = Collections.unmodifiableSet(EnumSet.allOf(CommitVariables.class));
+
+	/**
+	 * O nmero de commits da cpia.
+	 */
+	private final int size;
+	/**
+	 * Os hashes dos commits.
+	 */
+	private final byte[] hashes;
+	/**
+	 * As datas em que os commits foram executados, em milisegundos.
+	 */
+	private final long[] commitDates;
+	/**
+	 * As datas de autoria dos commits, em milisegundos.
+	 */
+	private final long[] authoringDates;
+	/**
+	 * Os identificadores dos autores dos commits.
+	 */
+	private final int[] authorIds;
+	/**
+	 * Os identificadores das pessoas que executaram os commits.
+	 */
+	private final int[] committerIds;
+	/**
+	 * As mensagens dos commits. As posies so nulas quando as mensagens so guardadas no MessageCache.
+	 */
+	private final String[] messages;
+	/**
+	 * A posio do primeiro arquivo modificado de cada commit no vetor de arquivos.
+	 */
+	private final int[] fileOffsets;
+	/**
+	 * Os identificadores dos arquivos modificados de todos os commits.
+	 */
+	private final int[] fileIds;
+	/**
+	 * O nmero de linhas adicionadas em cada arquivo modificado, ou nulo caso nenhum commit tenha linhas contadas.
+	 */
+	private final int[] addedLines;
+	/**
+	 * O nmero de linhas removidas em cada arquivo modificado, ou nulo caso nenhum commit tenha linhas contadas.
+	 */
+	private final int[] deletedLines;
+	/**
+	 * Indica, para cada commit, se as linhas dos seus arquivos modificados foram contadas.
+	 */
+	private final boolean[] lineStats;
+	/**
+	 * O dicionrio dos nomes.
+	 */
+	private final StringDictionary names;
+	/**
+	 * O <i>cache</i> das mensagens dos commits, ou nulo quando as mensagens so mantidas nas colunas.
+	 */
+	private final MessageCache messageCache;
+	/**
+	 * A posio do commit executado mais recentemente, ou -1 caso no haja commits.
+	 */
+	private final int latest;
+	/**
+	 * O CommitStore de onde a cpia foi criada, que mantm o ndice cronolgico dos commits.
+	 */
+	private final CommitStore store;
+	/**
+	 * O ndice cronolgico dos commits da cpia, ou nulo enquanto no for obtido.
+	 */
+	private volatile CommitTimeline timeline;
+
+	/**
+	 * Cria uma cpia instantnea sobre as colunas de um CommitStore. Este construtor  gerenciado pelo GitCURTAIN e, portanto, no deve
+	 * ser invocado pelo sistema.
+	 *
+	 * @param size O nmero de commits da cpia.
+	 * @param hashes Os hashes dos commits.
+	 * @param commitDates As datas em que os commits foram executados.
+	 * @param authoringDates As datas de autoria dos commits.
+	 * @param authorIds Os identificadores dos autores.
+	 * @param committerIds Os identificadores das pessoas que executaram os commits.
+	 * @param messages As mensagens dos commits.
+	 * @param fileOffsets A posio do primeiro arquivo modificado de cada commit.
+	 * @param fileIds Os identificadores dos arquivos modificados.
+	 * @param addedLines O nmero de linhas adicionadas em cada arquivo modificado, ou nulo.
+	 * @param deletedLines O nmero de linhas removidas em cada arquivo modificado, ou nulo.
+	 * @param lineStats Indica, para cada commit, se as linhas foram contadas.
+	 * @param names O dicionrio dos nomes.
+	 * @param messageCache O <i>cache</i> das mensagens, ou nulo.
+	 * @param latest A posio do commit executado mais recentemente, ou -1 caso no haja commits.
+	 * @param store O CommitStore de onde a cpia foi criada.
+	 */
+	CommitView(int size, byte[] hashes, long[] commitDates, long[] authoringDates, int[] authorIds, int[] committerIds,
+			String[] messages, int[] fileOffsets, int[] fileIds, int[] addedLines, int[] deletedLines, boolean[] lineStats,
+			StringDictionary names, MessageCache messageCache, int latest, CommitStore store) {
+		this.size = size;
+		this.hashes = hashes;
+		this.commitDates = commitDates;
+		this.authoringDates = authoringDates;
+		this.authorIds = authorIds;
+		this.committerIds = committerIds;
+		this.messages = messages;
+		this.fileOffsets = fileOffsets;
+		this.fileIds = fileIds;
+		this.addedLines = addedLines;
+		this.deletedLines = deletedLines;
+		this.lineStats = lineStats;
+		this.names = names;
+		this.messageCache = messageCache;
+		this.latest = latest;
+		this.store = store;
+	}
+
+	/**
+	 * Obtm o nmero de commits da cpia.
+	 *
+	 * @return O nmero de commits.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Obtm o identificador de um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O identificador do commit.
+	 */
+	public ObjectId getId(int index) {
+		return ObjectId.fromRaw(hashes, index * CommitStore.HASH_LENGTH);
+	}
+
+	/**
+	 * Obtm o hash identificador de um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O hash do commit (e.g., 29932f3915935d773dc8d52c292cadd81c81071d).
+	 */
+	public String getHash(int index) {
+		return getId(index).name();
+	}
+
+	/**
+	 * Obtm a data em que um commit foi executado.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return A data, em milisegundos.
+	 */
+	public long getCommitTime(int index) {
+		return commitDates[index];
+	}
+
+	/**
+	 * Obtm a posio do commit executado mais recentemente, em tempo constante. Entre commits com a mesma data,  o ltimo adicionado.
+	 *
+	 * @return A posio do commit, ou -1 caso a cpia no tenha commits.
+	 */
+	public int getLatest() {
+		return latest;
+	}
+
+	/**
+	 * Obtm o ndice cronolgico dos commits da cpia, que permite obter os commits de um intervalo de datas por busca binria. O ndice
+	 *  mantido pelo CommitStore entre as cpias, ento somente os commits adicionados desde o ltimo ndice so ordenados.
+	 *
+	 * @return O ndice cronolgico dos commits.
+	 */
+	public CommitTimeline getTimeline() {
+
+		CommitTimeline current = timeline;
+		if (current == null) {
+			current = store.getTimeline(size);
+			timeline = current;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Obtm a data de autoria de um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return A data, em milisegundos.
+	 */
+	public long getAuthoringTime(int index) {
+		return authoringDates[index];
+	}
+
+	/**
+	 * Obtm o identificador do autor de um commit. Dois commits tm o mesmo identificador de autor se, e somente se, os nomes dos seus
+	 * autores so iguais.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O identificador do autor, ou -1 caso o commit no tenha autor.
+	 */
+	public int getAuthorId(int index) {
+		return authorIds[index];
+	}
+
+	/**
+	 * Obtm o identificador da pessoa que executou um commit, no mesmo dicionrio dos autores.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O identificador da pessoa, ou -1 caso o commit no tenha essa informao.
+	 */
+	public int getCommitterId(int index) {
+		return committerIds[index];
+	}
+
+	/**
+	 * Obtm o nome associado a um identificador de autor ou de pessoa que executou um commit.
+	 *
+	 * @param nameId O identificador do nome.
+	 *
+	 * @return O nome.
+	 */
+	public String getName(int nameId) {
+		return names.get(nameId);
+	}
+
+	/**
+	 * Obtm o autor de um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O nome do autor.
+	 */
+	public String getAuthor(int index) {
+		return names.get(authorIds[index]);
+	}
+
+	/**
+	 * Obtm a pessoa que executou um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O nome da pessoa.
+	 */
+	public String getCommitter(int index) {
+		return names.get(committerIds[index]);
+	}
+
+	/**
+	 * Obtm a mensagem de um commit. Quando as mensagens so guardadas no MessageCache, a mensagem  carregada sob demanda caso no esteja
+	 * no <i>cache</i>, ento a leitura de muitas mensagens deve ser precedida pelo mtodo prefetchMessages.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return A mensagem do commit, ou nulo caso a mesma no possa ser carregada.
+	 */
+	public String getMessage(int index) {
+
+		if (messages[index] != null || messageCache == null) {
+			return messages[index];
+		}
+
+		return messageCache.get(getId(index));
+	}
+
+	/**
+	 * Carrega em um nico lote as mensagens de um intervalo de commits que ainda no esto no MessageCache. No faz nada quando as
+	 * mensagens so mantidas nas colunas. O intervalo deve caber no <i>cache</i>; as mtricas devem percorrer os commits em intervalos
+	 * de at PREFETCH_BATCH commits.
+	 *
+	 * @param from A posio do primeiro commit do intervalo.
+	 * @param to A posio seguinte  do ltimo commit do intervalo.
+	 */
+	public void prefetchMessages(int from, int to) {
+
+		if (messageCache == null) {
+			return;
+		}
+
+		List<ObjectId> ids = new ArrayList<ObjectId>(to - from);
+		for (int i = from; i < to; i++) {
+			if (messages[i] == null) {
+				ids.add(getId(i));
+			}
+		}
+		messageCache.prefetch(ids);
+	}
+
+	/**
+	 * Obtm o nmero de arquivos modificados por um commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O nmero de arquivos modificados.
+	 */
+	public int getFileCount(int index) {
+		return fileOffsets[index + 1] - fileOffsets[index];
+	}
+
+	/**
+	 * Obtm o identificador de um arquivo modificado por um commit no PathDictionary global. Dois arquivos tm o mesmo identificador se,
+	 * e somente se, os seus caminhos so iguais, ento os arquivos podem ser comparados pelos identificadores.
+	 *
+	 * @param index A posio do commit.
+	 * @param file A posio do arquivo entre os arquivos modificados pelo commit.
+	 *
+	 * @return O identificador do arquivo.
+	 */
+	public int getFileId(int index, int file) {
+		return fileIds[fileOffsets[index] + file];
+	}
+
+	/**
+	 * Obtm o caminho associado a um identificador de arquivo.
+	 *
+	 * @param fileId O identificador do arquivo.
+	 *
+	 * @return O caminho do arquivo.
+	 */
+	public String getPath(int fileId) {
+		return PathDictionary.getGlobal().get(fileId);
+	}
+
+	/**
+	 * Verifica se as linhas dos arquivos modificados por um commit foram contadas.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return true se as linhas foram contadas.
+	 */
+	public boolean hasLineStats(int index) {
+		return lineStats[index];
+	}
+
+	/**
+	 * Obtm o nmero de linhas adicionadas em um arquivo modificado por um commit.
+	 *
+	 * @param index A posio do commit.
+	 * @param file A posio do arquivo entre os arquivos modificados pelo commit.
+	 *
+	 * @return O nmero de linhas adicionadas, ou -1 caso as linhas no tenham sido contadas.
+	 */
+	public int getAddedLines(int index, int file) {
+		return lineStats[index] ? addedLines[fileOffsets[index] + file] : -1;
+	}
+
+	/**
+	 * Obtm o nmero de linhas removidas em um arquivo modificado por um commit.
+	 *
+	 * @param index A posio do commit.
+	 * @param file A posio do arquivo entre os arquivos modificados pelo commit.
+	 *
+	 * @return O nmero de linhas removidas, ou -1 caso as linhas no tenham sido contadas.
+	 */
+	public int getDeletedLines(int index, int file) {
+		return lineStats[index] ? deletedLines[fileOffsets[index] + file] : -1;
+	}
+
+	/**
+	 * Converte um commit da cpia em um objeto Commit.
+	 *
+	 * @param index A posio do commit.
+	 *
+	 * @return O Commit equivalente.
+	 */
+	public Commit getCommit(int index) {
+		return getCommit(index, ALL_VARIABLES);
+	}
+
+	/**
+	 * Converte um commit da cpia em um objeto Commit, preenchendo somente os dados especificados. Os demais dados ficam nulos.
+	 *
+	 * @param index A posio do commit.
+	 * @param variables Os dados a serem preenchidos.
+	 *
+	 * @return O Commit equivalente, com os dados especificados.
+	 */
+	public Commit getCommit(int index, Set<CommitVariables> variables) {
+
+		int[] modifiedFileIds = null;
+		int[] added = null;
+		int[] deleted = null;
+
+		if (variables.contains(CommitVariables.MODIFIEDFILES)) {
+			modifiedFileIds = Arrays.copyOfRange(fileIds, fileOffsets[index], fileOffsets[index + 1]);
+		}
+		if (lineStats[index] && (variables.contains(CommitVariables.ADDEDLINES) || variables.contains(CommitVariables.DELETEDLINES))) {
+			added = Arrays.copyOfRange(addedLines, fileOffsets[index], fileOffsets[index + 1]);
+			deleted = Arrays.copyOfRange(deletedLines, fileOffsets[index], fileOffsets[index + 1]);
+		}
+
+		return new Commit(
+				variables.contains(CommitVariables.MESSAGE) ? getMessage(index) : null,
+				variables.contains(CommitVariables.HASH) ? getHash(index) : null,
+				variables.contains(CommitVariables.AUTHOR) ? getAuthor(index) : null,
+				variables.contains(CommitVariables.COMMITTER) ? getCommitter(index) : null,
+				variables.contains(CommitVariables.COMMITDATE) ? toDate(commitDates[index]) : null,
+				variables.contains(CommitVariables.AUTHORINGDATE) ? toDate(authoringDates[index]) : null,
+				modifiedFileIds, added, deleted);
+	}
+
+	/**
+	 * Converte todos os commits da cpia em objetos Commit. Deve ser utilizado somente por quem ainda precisa de uma lista de Commits,
+	 * j que cria vrios objetos para cada commit.
+	 *
+	 * @return Um ArrayList de Commits, na ordem da cpia.
+	 */
+	public ArrayList<Commit> toList() {
+		return toList(ALL_VARIABLES);
+	}
+
+	/**
+	 * Converte todos os commits da cpia em objetos Commit, preenchendo somente os dados especificados.  a projeo utilizada pelas
+	 * mtricas que declaram os dados que leem, para que os demais dados no sejam copiados.
+	 *
+	 * @param variables Os dados a serem preenchidos.
+	 *
+	 * @return Um ArrayList de Commits, na ordem da cpia.
+	 */
+	public ArrayList<Commit> toList(Set<CommitVariables> variables) {
+
+		ArrayList<Commit> commitList = new ArrayList<Commit>(size);
+		for (int i = 0; i < size; i++) {
+			if (i % PREFETCH_BATCH == 0 && variables.contains(CommitVariables.MESSAGE)) {
+				prefetchMessages(i, Math.min(i + PREFETCH_BATCH, size));
+			}
+			commitList.add(getCommit(i, variables));
+		}
+
+		return commitList;
+	}
+
+	/**
+	 * Converte uma data em milisegundos em um objeto Date.
+	 *
+	 * @param millis A data em milisegundos, ou Long.MIN_VALUE para uma data nula.
+	 *
+	 * @return A data.
+	 */
+	private static Date toDate(long millis) {
+		return millis == Long.MIN_VALUE ? null : new Date(millis);
+	}
+
+}
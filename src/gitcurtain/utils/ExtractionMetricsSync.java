@@ -1,7 +1,5 @@
 package gitcurtain.utils;
 
-import java.util.ArrayList;
-
 /**
  * Objeto que permite a sincronizao entre a ExtractionThread e a MetricThread. Serve simultaneamente como um <i>lock</i> para garantir
  * sincronia assim como a forma de transmisso de dados entre as threads. Para permitir a passagem de dados, o objeto  um <i>singleton</i>.
@@ -17,9 +15,9 @@ public class ExtractionMetricsSync {
 	private static ExtractionMetricsSync syncLock;
 	
 	/**
-	 * A lista de commits que ser transferida entre a ExtractionThread e a MetricThread.
+	 * A cpia instantnea dos commits que ser transferida entre a ExtractionThread e a MetricThread.
 	 */
-	private ArrayList<Commit> commitList;
+	private CommitView commitView;
 	/**
 	 * Uma varivel que representa quando uma nova lista de commits est disponvel.
 	 */
@@ -33,7 +31,7 @@ public class ExtractionMetricsSync {
 	 * Cria uma instncia do ExtractionMetricsSync. Somente pode ser invocado pelo mtodo getInstance.
 	 */
 	private ExtractionMetricsSync() {
-		commitList = null;
+		commitView = null;
 		ready = false;
 	}
 	
@@ -50,28 +48,28 @@ public class ExtractionMetricsSync {
 	}
 	
 	/**
-	 * Atualiza a lista de commits compartilhada e manda um sinal de incio ao MetricThread.
+	 * Atualiza a cpia instantnea dos commits compartilhada e manda um sinal de incio ao MetricThread.
 	 * 
-	 * @param newList Um ArrayList de Commits com os novos commits a serem enviados ao MetricThread.
+	 * @param newView A cpia instantnea com os novos commits a serem enviados ao MetricThread.
 	 */
-	public void setCommitList(ArrayList<Commit> newList) {
+	public void setCommitView(CommitView newView) {
 		synchronized(LOCK) {
-			commitList = newList;
+			commitView = newView;
 			ready = true;
 			LOCK.notify();
 		}
 	}
 	
 	/**
-	 * Obtm a lista mais recentemente atualizada de commits.
+	 * Obtm a cpia instantnea mais recentemente atualizada dos commits.
 	 * 
-	 * @return Um ArrayList de Commits com a lista mais atualizada de commits coletados.
+	 * @return A cpia instantnea mais atualizada dos commits coletados.
 	 */
-	public ArrayList<Commit> getCommitList() {
+	public CommitView getCommitView() {
 		synchronized(LOCK) {
 			if (ready) {
 				ready = false;
-				return commitList;
+				return commitView;
 			}
 			else {
 				return null;
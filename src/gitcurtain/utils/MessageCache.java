@@ -0,0 +1,186 @@
+package gitcurtain.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Guarda as mensagens de commits lidas recentemente, carregando as demais de um MessageSource sob demanda. O tamanho do <i>cache</i> 
+ * limitado pelo nmero total de caracteres das mensagens guardadas, e no pelo nmero de mensagens, ento a memria utilizada no
+ * depende do volume total de mensagens do repositrio. As mensagens menos utilizadas so descartadas quando o limite  ultrapassado. As
+ * mtricas que percorrem muitos commits devem carregar as mensagens em lotes por meio do mtodo prefetch, em vez de uma consulta por
+ * mensagem. O <i>cache</i>  compartilhado por todas as threads de um repositrio e, portanto,  <i>thread-safe</i>. Esta classe 
+ * gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class MessageCache {
+
+	/**
+	 * A origem das mensagens que no esto no <i>cache</i>.
+	 */
+	private MessageSource source;
+	/**
+	 * As mensagens guardadas, na ordem do ltimo acesso.
+	 */
+	private LinkedHashMap<ObjectId, String> entries;
+	/**
+	 * O nmero mximo de caracteres guardados.
+	 */
+	private long maxChars;
+	/**
+	 * O nmero de caracteres guardados.
+	 */
+	private long chars;
+	/**
+	 * O nmero de consultas encontradas no <i>cache</i>.
+	 */
+	private long hits;
+	/**
+	 * O nmero de mensagens que no estavam no <i>cache</i> e foram carregadas da origem.
+	 */
+	private long misses;
+
+	/**
+	 * Cria um MessageCache.
+	 *
+	 * @param source A origem das mensagens que no esto no <i>cache</i>.
+	 * @param maxChars O nmero mximo de caracteres guardados.
+	 */
+	public MessageCache(MessageSource source, long maxChars) {
+		this.source = source;
+		this.maxChars = maxChars;
+		entries = new LinkedHashMap<ObjectId, String>(16, 0.75f, true);
+	}
+
+	/**
+	 * Obtm a mensagem de um commit, carregando-a da origem caso ainda no esteja no <i>cache</i>.
+	 *
+	 * @param id O identificador do commit.
+	 *
+	 * @return A mensagem do commit, ou nulo caso a mesma no seja encontrada na origem.
+	 */
+	public String get(ObjectId id) {
+
+		synchronized (this) {
+			String message = entries.get(id);
+			if (message != null) {
+				hits++;
+				return message;
+			}
+		}
+
+		return load(Collections.singletonList(id)).get(id);
+	}
+
+	/**
+	 * Carrega em um nico lote as mensagens de um conjunto de commits que ainda no esto no <i>cache</i>. O lote deve caber no
+	 * <i>cache</i>, caso contrrio as primeiras mensagens do lote so descartadas antes de serem lidas.
+	 *
+	 * @param ids Os identificadores dos commits.
+	 */
+	public void prefetch(List<ObjectId> ids) {
+
+		List<ObjectId> missing = new ArrayList<ObjectId>();
+
+		synchronized (this) {
+			for (ObjectId id : ids) {
+				if (!entries.containsKey(id)) {
+					missing.add(id);
+				}
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			load(missing);
+		}
+	}
+
+	/**
+	 * Guarda a mensagem de um commit (e.g., de um commit recm-extrado).
+	 *
+	 * @param id O identificador do commit.
+	 * @param message A mensagem do commit.
+	 */
+	public synchronized void put(ObjectId id, String message) {
+
+		String previous = entries.put(id, message);
+		if (previous != null) {
+			chars -= previous.length();
+		}
+		chars += message.length();
+
+		Iterator<String> eldest = entries.values().iterator();
+		while (chars > maxChars && eldest.hasNext()) {
+			chars -= eldest.next().length();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Carrega as mensagens de um lote de commits da origem e as guarda no <i>cache</i>. A origem  consultada fora da sincronizao,
+	 * para que as demais threads continuem lendo o <i>cache</i> durante o carregamento.
+	 *
+	 * @param ids Os identificadores dos commits.
+	 *
+	 * @return Um Map com as mensagens carregadas.
+	 */
+	private Map<ObjectId, String> load(List<ObjectId> ids) {
+
+		Map<ObjectId, String> messages;
+
+		try {
+			messages = source.loadMessages(ids);
+		}
+		catch (IOException e) {
+			System.out.println("An unexpected error occurred while loading commit messages. Please try again later, and check the"
+					+ " repository and the database for potential errors.");
+			e.printStackTrace();
+			return Collections.emptyMap();
+		}
+
+		synchronized (this) {
+			misses += ids.size();
+			for (Map.Entry<ObjectId, String> message : messages.entrySet()) {
+				put(message.getKey(), message.getValue());
+			}
+		}
+
+		return messages;
+	}
+
+	/**
+	 * Obtm o nmero de consultas encontradas no <i>cache</i>.
+	 *
+	 * @return O nmero de consultas encontradas.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Obtm o nmero de mensagens que no estavam no <i>cache</i> e foram carregadas da origem, seja por consultas ou por lotes.
+	 *
+	 * @return O nmero de mensagens carregadas.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Obtm o nmero de caracteres guardados no <i>cache</i>.
+	 *
+	 * @return O nmero de caracteres.
+	 */
+	public synchronized long getSize() {
+		return chars;
+	}
+
+}
@@ -0,0 +1,30 @@
+package gitcurtain.utils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Uma interface que define de onde so carregadas as mensagens dos commits quando as mesmas no so mantidas em memria. As mensagens so
+ * carregadas em lotes pelo MessageCache,  medida que so lidas pelas mtricas.
+ *
+ * @author Vincius Soares
+ *
+ */
+public interface MessageSource {
+
+	/**
+	 * Carrega as mensagens de um lote de commits.
+	 *
+	 * @param ids Os identificadores dos commits.
+	 *
+	 * @return Um Map que associa o identificador de cada commit encontrado  sua mensagem. Os commits que no foram encontrados no
+	 * fazem parte do Map.
+	 *
+	 * @throws IOException  lanado quando ocorre um erro durante o carregamento das mensagens.
+	 */
+	public Map<ObjectId, String> loadMessages(List<ObjectId> ids) throws IOException;
+
+}
@@ -0,0 +1,278 @@
+package gitcurtain.utils;
+
+import java.util.Arrays;
+
+/**
+ * Um dicionrio de caminhos de arquivos, compartilhado por todos os repositrios, que associa cada caminho distinto a um identificador
+ * inteiro. Os caminhos so guardados em uma rvore de prefixos (<i>trie</i>) dividida nos separadores "/": cada n guarda somente o
+ * identificador do seu diretrio pai e o nome do seu ltimo segmento, e os nomes dos segmentos so guardados somente uma vez. Assim, um
+ * prefixo longo como "src/main/java/com/empresa/"  guardado uma nica vez, e no uma vez para cada arquivo abaixo dele. Dois caminhos
+ * tm o mesmo identificador se, e somente se, so iguais, ento as mtricas baseadas em arquivos podem comparar os identificadores em
+ * vez das Strings. Os diretrios que contm os caminhos tambm recebem identificadores.
+ *
+ * A adio de caminhos  sincronizada, e a leitura de um identificador j atribudo pode ser feita por qualquer thread sem
+ * sincronizao. Os identificadores somente valem enquanto o sistema est em execuo, e no devem ser guardados fora dele.  uma classe
+ * utilitria que pode, e deve, ser utilizada por extenses customizadas do GitCURTAIN.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class PathDictionary {
+
+	/**
+	 * O dicionrio utilizado por todos os commits do sistema.
+	 */
+	private static final PathDictionary GLOBAL = new PathDictionary();
+
+	/**
+	 * O dicionrio dos nomes dos segmentos.
+	 */
+	private StringDictionary segments;
+	/**
+	 * Os ns da rvore, indexados pelos seus identificadores, com dois inteiros por n: o identificador do diretrio pai (ou -1 na raiz)
+	 * e o identificador do nome do segmento. O vetor  substitudo por uma cpia maior quando fica cheio, ento os ns j atribudos
+	 * nunca mudam de posio.
+	 */
+	private volatile int[] nodes;
+	/**
+	 * O nmero de ns da rvore.
+	 */
+	private int size;
+	/**
+	 * As chaves da tabela de filhos, que combinam o identificador do pai e o identificador do nome do segmento.
+	 */
+	private long[] childKeys;
+	/**
+	 * Os identificadores dos filhos, na mesma posio das suas chaves. Uma posio com o valor -1 est vazia.
+	 */
+	private int[] childIds;
+	/**
+	 * O nmero de posies da tabela de filhos.  sempre uma potncia de dois.
+	 */
+	private int capacity;
+
+	/**
+	 * Cria um dicionrio vazio. O sistema deve utilizar o dicionrio global, obtido pelo mtodo getGlobal, para que os identificadores
+	 * sejam os mesmos em todos os commits.
+	 */
+	public PathDictionary() {
+		segments = new StringDictionary();
+		nodes = new int[256];
+		size = 0;
+		capacity = 256;
+		childKeys = new long[capacity];
+		childIds = new int[capacity];
+		Arrays.fill(childIds, -1);
+	}
+
+	/**
+	 * Obtm o dicionrio utilizado por todos os commits do sistema.
+	 *
+	 * @return O dicionrio global.
+	 */
+	public static PathDictionary getGlobal() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Obtm o identificador de um caminho, atribuindo novos identificadores ao caminho e aos seus diretrios caso ainda no estejam no
+	 * dicionrio.
+	 *
+	 * @param path O caminho (e.g., src/main/java/Main.java).
+	 *
+	 * @return O identificador do caminho, ou -1 caso o caminho seja nulo.
+	 */
+	public synchronized int intern(String path) {
+
+		if (path == null) {
+			return -1;
+		}
+
+		int node = -1;
+		int start = 0;
+		int end;
+
+		do {
+			end = path.indexOf('/', start);
+			String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+			int segmentId = segments.intern(segment);
+
+			int slot = findSlot(node, segmentId);
+			if (childIds[slot] < 0) {
+				childIds[slot] = addNode(node, segmentId);
+				childKeys[slot] = toKey(node, segmentId);
+				if (size * 4 > capacity * 3) {
+					grow();
+				}
+				slot = findSlot(node, segmentId);
+			}
+			node = childIds[slot];
+			start = end + 1;
+		} while (end >= 0);
+
+		return node;
+	}
+
+	/**
+	 * Obtm o identificador de um caminho, sem adicion-lo ao dicionrio.
+	 *
+	 * @param path O caminho.
+	 *
+	 * @return O identificador do caminho, ou -1 caso o caminho seja nulo ou no esteja no dicionrio.
+	 */
+	public synchronized int lookup(String path) {
+
+		if (path == null) {
+			return -1;
+		}
+
+		int node = -1;
+		int start = 0;
+		int end;
+
+		do {
+			end = path.indexOf('/', start);
+			int segmentId = segments.lookup(end < 0 ? path.substring(start) : path.substring(start, end));
+			if (segmentId < 0) {
+				return -1;
+			}
+
+			node = childIds[findSlot(node, segmentId)];
+			if (node < 0) {
+				return -1;
+			}
+			start = end + 1;
+		} while (end >= 0);
+
+		return node;
+	}
+
+	/**
+	 * Obtm o caminho associado a um identificador. O caminho  montado a partir dos segmentos, ento o mtodo cria uma nova String a
+	 * cada chamada.
+	 *
+	 * @param id O identificador.
+	 *
+	 * @return O caminho, ou nulo caso o identificador seja -1.
+	 */
+	public String get(int id) {
+
+		if (id < 0) {
+			return null;
+		}
+
+		int[] current = nodes;
+		int depth = 0;
+		int length = 0;
+		for (int node = id; node >= 0; node = current[node * 2]) {
+			length += segments.get(current[node * 2 + 1]).length();
+			depth++;
+		}
+
+		char[] path = new char[length + depth - 1];
+		int position = path.length;
+		for (int node = id; node >= 0; node = current[node * 2]) {
+			String segment = segments.get(current[node * 2 + 1]);
+			position -= segment.length();
+			segment.getChars(0, segment.length(), path, position);
+			if (position > 0) {
+				path[--position] = '/';
+			}
+		}
+
+		return new String(path);
+	}
+
+	/**
+	 * Obtm o identificador do diretrio que contm um caminho.
+	 *
+	 * @param id O identificador do caminho.
+	 *
+	 * @return O identificador do diretrio, ou -1 caso o caminho no esteja em nenhum diretrio.
+	 */
+	public int getParent(int id) {
+		return id < 0 ? -1 : nodes[id * 2];
+	}
+
+	/**
+	 * Obtm o nmero de identificadores atribudos, incluindo os dos diretrios. Todo identificador atribudo  menor que este nmero.
+	 *
+	 * @return O nmero de identificadores.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Adiciona um n  rvore.
+	 *
+	 * @param parent O identificador do diretrio pai, ou -1 na raiz.
+	 * @param segmentId O identificador do nome do segmento.
+	 *
+	 * @return O identificador do novo n.
+	 */
+	private int addNode(int parent, int segmentId) {
+
+		int[] current = nodes;
+		if (size * 2 == current.length) {
+			current = Arrays.copyOf(current, current.length * 2);
+		}
+		current[size * 2] = parent;
+		current[size * 2 + 1] = segmentId;
+		nodes = current;
+
+		return size++;
+	}
+
+	/**
+	 * Encontra a posio de um filho na tabela de filhos, ou a posio vazia onde ele deve ser inserido.
+	 *
+	 * @param parent O identificador do pai.
+	 * @param segmentId O identificador do nome do segmento.
+	 *
+	 * @return O ndice da posio.
+	 */
+	private int findSlot(int parent, int segmentId) {
+
+		long key = toKey(parent, segmentId);
+		int mask = capacity - 1;
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+		while (childIds[slot] >= 0 && childKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Dobra o tamanho da tabela de filhos, reinserindo todos os ns.
+	 */
+	private void grow() {
+
+		capacity <<= 1;
+		childKeys = new long[capacity];
+		childIds = new int[capacity];
+		Arrays.fill(childIds, -1);
+
+		int[] current = nodes;
+		for (int node = 0; node < size; node++) {
+			int slot = findSlot(current[node * 2], current[node * 2 + 1]);
+			childKeys[slot] = toKey(current[node * 2], current[node * 2 + 1]);
+			childIds[slot] = node;
+		}
+	}
+
+	/**
+	 * Combina o identificador do pai e o identificador do nome do segmento em uma chave da tabela de filhos.
+	 *
+	 * @param parent O identificador do pai, ou -1 na raiz.
+	 * @param segmentId O identificador do nome do segmento.
+	 *
+	 * @return A chave.
+	 */
+	private static long toKey(int parent, int segmentId) {
+		return ((long) (parent + 1) << 32) | segmentId;
+	}
+
+}
@@ -0,0 +1,105 @@
+package gitcurtain.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Um dicionrio que associa cada String distinta a um identificador inteiro, atribudo em ordem crescente a partir de zero. Permite que
+ * os valores repetidos de muitos commits (e.g., os nomes dos autores) sejam guardados somente uma vez, e que os commits guardem somente
+ * os identificadores. A adio de valores  sincronizada, e a leitura de um identificador j atribudo pode ser feita por qualquer
+ * thread sem sincronizao. Esta classe  gerenciada pelo GitCURTAIN e, portanto, no deve ser utilizada pelo sistema.
+ *
+ * @author Vincius Soares
+ *
+ */
+public class StringDictionary {
+
+	/**
+	 * Os identificadores de cada valor.
+	 */
+	private HashMap<String, Integer> ids;
+	/**
+	 * Os valores, indexados pelos seus identificadores. O vetor  substitudo por uma cpia maior quando fica cheio, ento os valores
+	 * j atribudos nunca mudam de posio.
+	 */
+	private volatile String[] values;
+	/**
+	 * O nmero de valores distintos.
+	 */
+	private int size;
+
+	/**
+	 * Cria um dicionrio vazio.
+	 */
+	public StringDictionary() {
+		ids = new HashMap<String, Integer>();
+		values = new String[64];
+		size = 0;
+	}
+
+	/**
+	 * Obtm o identificador de um valor, atribuindo um novo identificador caso o valor ainda no esteja no dicionrio.
+	 *
+	 * @param value O valor.
+	 *
+	 * @return O identificador do valor, ou -1 caso o valor seja nulo.
+	 */
+	public synchronized int intern(String value) {
+
+		if (value == null) {
+			return -1;
+		}
+
+		Integer id = ids.get(value);
+		if (id != null) {
+			return id;
+		}
+
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size] = value;
+		ids.put(value, size);
+
+		return size++;
+	}
+
+	/**
+	 * Obtm o identificador de um valor, sem adicion-lo ao dicionrio.
+	 *
+	 * @param value O valor.
+	 *
+	 * @return O identificador do valor, ou -1 caso o valor seja nulo ou no esteja no dicionrio.
+	 */
+	public synchronized int lookup(String value) {
+
+		if (value == null) {
+			return -1;
+		}
+
+		Integer id = ids.get(value);
+
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Obtm o valor associado a um identificador.
+	 *
+	 * @param id O identificador.
+	 *
+	 * @return O valor, ou nulo caso o identificador seja -1.
+	 */
+	public String get(int id) {
+		return id < 0 ? null : values[id];
+	}
+
+	/**
+	 * Obtm o nmero de valores distintos do dicionrio. Todo identificador atribudo  menor que este nmero.
+	 *
+	 * @return O nmero de valores.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+}